@@ -7,12 +7,24 @@ repositories {
     mavenCentral()
 }
 
+// Benchmarks live in their own source set, so they are not run as tests.
+val jmh by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+
 dependencies {
     // Annotations
     implementation("org.jetbrains:annotations:23.0.0")
 
     // JUnit for testing
     testImplementation("org.junit.jupiter:junit-jupiter:5.7.1")
+
+    // JMH for benchmarks
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.35")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.35")
 }
 
 java {
@@ -38,3 +50,16 @@ tasks.test {
         println("Passing tests: $passingTests")
     }
 }
+
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks, optionally filtered with -PjmhInclude=<regex> and passed -PjmhArgs=<args>."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    if (project.hasProperty("jmhInclude")) {
+        args(project.property("jmhInclude").toString())
+    }
+    if (project.hasProperty("jmhArgs")) {
+        args(project.property("jmhArgs").toString().split(" "))
+    }
+}
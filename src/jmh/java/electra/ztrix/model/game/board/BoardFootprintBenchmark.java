@@ -0,0 +1,70 @@
+package electra.ztrix.model.game.board;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import electra.ztrix.model.game.common.Coordinate;
+
+/**
+ * Benchmarks creating a 10x40 Board storing Minos against one storing palette
+ * indices. Run with -PjmhArgs="-prof gc", the normalized allocation rate of
+ * each benchmark is the footprint of a new Board in bytes.
+ *
+ * @author Electra
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardFootprintBenchmark {
+    /** The size of each Board. */
+    private static final Coordinate SIZE = new Coordinate( 10, 40 );
+
+    /** The MinoPalette of the paletted Boards. */
+    private MinoPalette palette;
+
+    /**
+     * Creates the MinoPalette, with one Mino for each piece type.
+     */
+    @Setup
+    public void setup () {
+        Mino[] minos = new Mino[7];
+        for ( int i = 0; i < minos.length; i++ ) {
+            minos[i] = new Mino();
+        }
+        palette = new MinoPalette( List.of( minos ) );
+    }
+
+    /**
+     * Creates a Board storing Minos.
+     *
+     * @return The Board.
+     */
+    @Benchmark
+    public Board createMinoBoard () {
+        return new Board( SIZE );
+    }
+
+    /**
+     * Creates a Board storing palette indices.
+     *
+     * @return The Board.
+     */
+    @Benchmark
+    public Board createPaletteBoard () {
+        return new Board( SIZE, palette );
+    }
+}
@@ -0,0 +1,101 @@
+package electra.ztrix.model.game.board;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import electra.ztrix.model.game.action.Revertable;
+import electra.ztrix.model.game.common.Coordinate;
+
+/**
+ * Benchmarks sustained garbage pressure on a 10x40 Board, inserting garbage
+ * rows and clearing them again, against doing the same shift cell by cell.
+ *
+ * @author Electra
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GarbageBenchmark {
+    /** The width of the Board. */
+    private static final int WIDTH = 10;
+    /** The height of the Board. */
+    private static final int HEIGHT = 40;
+
+    /** The Board receiving garbage. */
+    private Board board;
+    /** The Mino filling each garbage row. */
+    private Mino mino;
+    /** The hole column of each garbage row, by turn. */
+    private BitSet[] holes;
+    /** The turn, which picks the hole column. */
+    private int turn;
+
+    /**
+     * Fills the lower half of the Board with garbage.
+     */
+    @Setup
+    public void setup () {
+        board = new Board( new Coordinate( WIDTH, HEIGHT ) );
+        mino = new Mino();
+        holes = new BitSet[WIDTH];
+        for ( int x = 0; x < WIDTH; x++ ) {
+            holes[x] = new BitSet();
+            holes[x].set( x );
+        }
+        board.insertGarbage( HEIGHT / 2, holes[0], mino );
+    }
+
+    /**
+     * Inserts two garbage rows, then reverts the insertion.
+     *
+     * @return The hash of the Board with the garbage inserted.
+     */
+    @Benchmark
+    public long insertGarbage () {
+        Revertable revertable = board.insertGarbage( 2, holes[turn++ % WIDTH], mino );
+        long hash = board.hash();
+        revertable.revert();
+        return hash;
+    }
+
+    /**
+     * Writes each occupied cell of the Board shifted up two rows, with two
+     * garbage rows below, through setMinoAt(), then reverts each write.
+     *
+     * @return The hash of the Board with the garbage inserted.
+     */
+    @Benchmark
+    public long insertGarbagePerCell () {
+        int hole = turn++ % WIDTH;
+        Revertable[] revertables = new Revertable[WIDTH * HEIGHT];
+        int count = 0;
+        for ( int y = HEIGHT - 1; y >= 0; y-- ) {
+            for ( int x = 0; x < WIDTH; x++ ) {
+                Coordinate position = new Coordinate( x, y );
+                Mino below = y >= 2 ? board.getMinoAt( new Coordinate( x, y - 2 ) ) : x == hole ? null : mino;
+                if ( below != null ) {
+                    revertables[count++] = board.setMinoAt( position, below );
+                }
+            }
+        }
+        long hash = board.hash();
+        while ( count > 0 ) {
+            revertables[--count].revert();
+        }
+        return hash;
+    }
+}
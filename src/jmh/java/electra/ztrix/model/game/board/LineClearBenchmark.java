@@ -0,0 +1,77 @@
+package electra.ztrix.model.game.board;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rectangle;
+
+/**
+ * Benchmarks clearing and reverting full rows on Boards of various heights.
+ *
+ * @author Electra
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineClearBenchmark {
+    /** The height of the Board. */
+    @Param({ "20", "40", "200" })
+    private int height;
+
+    /** The Board being cleared. */
+    private Board board;
+    /** A Board with the same stack, but no full rows. */
+    private Board holed;
+
+    /**
+     * Fills the lower half of the Board, with every other row full.
+     */
+    @Setup
+    public void setup () {
+        board = new Board( new Coordinate( 10, height ) );
+        holed = new Board( new Coordinate( 10, height ) );
+        Mino mino = new Mino();
+        for ( int y = 0; y < height / 2; y++ ) {
+            int width = y % 2 == 0 ? 10 : 9;
+            board.setRegion( new Rectangle( 0, y, width, y + 1 ), mino );
+            holed.setRegion( new Rectangle( 0, y, 9, y + 1 ), mino );
+        }
+    }
+
+    /**
+     * Looks for full rows on a Board that has none, as after most placements.
+     *
+     * @return The number of rows cleared.
+     */
+    @Benchmark
+    public int clearNone () {
+        return holed.clearFullRows().getLineCount();
+    }
+
+    /**
+     * Clears the full rows, then reverts the clear to restore the Board.
+     *
+     * @return The number of rows cleared.
+     */
+    @Benchmark
+    public int clearAndRevert () {
+        LineClear clear = board.clearFullRows();
+        clear.revert();
+        return clear.getLineCount();
+    }
+}
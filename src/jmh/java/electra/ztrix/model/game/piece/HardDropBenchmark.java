@@ -0,0 +1,75 @@
+package electra.ztrix.model.game.piece;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import electra.ztrix.model.game.action.Revertable;
+import electra.ztrix.model.game.board.Board;
+import electra.ztrix.model.game.board.Mino;
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rectangle;
+import electra.ztrix.model.game.common.Rotation;
+
+/**
+ * Benchmarks place() against hardDrop() for a T piece falling the height of
+ * a 10x40 Board onto a low stack.
+ *
+ * @author Electra
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HardDropBenchmark {
+    /** The ActivePiece being dropped. */
+    private ActivePiece piece;
+
+    /**
+     * Creates the Board with a low stack, and the ActivePiece at its top.
+     */
+    @Setup
+    public void setup () {
+        Board board = new Board( new Coordinate( 10, 40 ) );
+        board.setRegion( new Rectangle( 0, 0, 9, 3 ), new Mino() );
+        piece = PieceType.T_PIECE.createActivePiece( board, new Coordinate( 4, 37 ), Rotation.R0 );
+    }
+
+    /**
+     * Places the ActivePiece, then reverts the placement.
+     *
+     * @return The position the ActivePiece landed in.
+     */
+    @Benchmark
+    public Coordinate place () {
+        Revertable revertable = piece.place();
+        Coordinate landed = piece.getPosition();
+        revertable.revert();
+        return landed;
+    }
+
+    /**
+     * Drops and locks the ActivePiece in one pass, then reverts the
+     * placement.
+     *
+     * @return The position the ActivePiece landed in.
+     */
+    @Benchmark
+    public Coordinate hardDrop () {
+        Revertable revertable = piece.hardDrop();
+        Coordinate landed = piece.getPosition();
+        revertable.revert();
+        return landed;
+    }
+}
@@ -0,0 +1,82 @@
+package electra.ztrix.model.game.piece;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import electra.ztrix.model.game.board.Board;
+import electra.ztrix.model.game.board.Mino;
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rectangle;
+import electra.ztrix.model.game.common.Rotation;
+
+/**
+ * Benchmarks finding every placement of a T piece spawned at the top of a
+ * 10x40 Board over a jagged stack with an overhang.
+ *
+ * @author Electra
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGeneratorBenchmark {
+    /** The Board being searched. */
+    private Board board;
+    /** The MoveGenerator, reused between searches. */
+    private MoveGenerator generator;
+    /** The PlacementBuffer, reused between searches. */
+    private PlacementBuffer buffer;
+
+    /**
+     * Creates the Board with a jagged stack and an overhang.
+     */
+    @Setup
+    public void setup () {
+        board = new Board( new Coordinate( 10, 40 ) );
+        Mino mino = new Mino();
+        Random random = new Random( 1 );
+        for ( int x = 0; x < 10; x++ ) {
+            int height = random.nextInt( 8 );
+            if ( height > 0 ) {
+                board.setRegion( new Rectangle( x, 0, x + 1, height ), mino );
+            }
+        }
+        board.setRegion( new Rectangle( 2, 9, 6, 10 ), mino );
+        generator = new MoveGenerator();
+        buffer = new PlacementBuffer();
+    }
+
+    /**
+     * Finds every placement of the T piece.
+     *
+     * @return The placements.
+     */
+    @Benchmark
+    public List<Placement> generate () {
+        return generator.generate( board, PieceType.T_PIECE, new Coordinate( 4, 37 ), Rotation.R0 );
+    }
+
+    /**
+     * Finds every placement of the T piece into a reused PlacementBuffer.
+     *
+     * @return The number of placements.
+     */
+    @Benchmark
+    public int generateInto () {
+        return generator.generate( board, PieceType.T_PIECE, new Coordinate( 4, 37 ), Rotation.R0, buffer );
+    }
+}
@@ -0,0 +1,80 @@
+package electra.ztrix.model.game.piece;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import electra.ztrix.model.game.common.Coordinate;
+
+/**
+ * Benchmarks loading a piece set of 500 random polyominoes, from pentominoes
+ * to pieces too large for a BitmaskRegion, as a puzzle pack would at startup.
+ *
+ * @author Electra
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceSetBenchmark {
+    /** The number of pieces in the piece set. */
+    private static final int PIECES = 500;
+
+    /** The text of the piece set. */
+    private String text;
+
+    /**
+     * Generates the text of the piece set, growing each piece one random
+     * neighbouring cell at a time.
+     */
+    @Setup
+    public void setup () {
+        Random random = new Random( 1 );
+        StringBuilder builder = new StringBuilder();
+        builder.append( "offsets C 0,0 0,0 0,0 0,0\n" );
+        builder.append( "kick K 0,0 1,0 0,0 -1,0\n" );
+        builder.append( "kick K 0,0 1,-1 0,0 -1,-1\n" );
+        for ( int i = 0; i < PIECES; i++ ) {
+            Set<Coordinate> cells = new HashSet<>();
+            Coordinate cell = Coordinate.ORIGIN;
+            cells.add( cell );
+            int size = 5 + random.nextInt( 12 );
+            while ( cells.size() < size ) {
+                cell = cell.plus( random.nextBoolean()
+                        ? new Coordinate( random.nextBoolean() ? 1 : -1, 0 )
+                        : new Coordinate( 0, random.nextBoolean() ? 1 : -1 ) );
+                cells.add( cell );
+            }
+            builder.append( "piece P" ).append( i ).append( " C K" );
+            for ( Coordinate position : cells ) {
+                builder.append( ' ' ).append( position.x() ).append( ',' ).append( position.y() );
+            }
+            builder.append( '\n' );
+        }
+        text = builder.toString();
+    }
+
+    /**
+     * Loads the piece set, compiling every PieceType.
+     *
+     * @return The loaded PieceSet.
+     */
+    @Benchmark
+    public PieceSet load () {
+        return PieceSet.parse( text );
+    }
+}
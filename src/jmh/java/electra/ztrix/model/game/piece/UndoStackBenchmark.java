@@ -0,0 +1,89 @@
+package electra.ztrix.model.game.piece;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import electra.ztrix.model.game.action.Revertable;
+import electra.ztrix.model.game.action.UndoStack;
+import electra.ztrix.model.game.board.Board;
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rotation;
+
+/**
+ * Benchmarks making and unmaking a short line of moves and a placement with
+ * the Revertable API and with the UndoStack API, on an empty 10x20 Board.
+ *
+ * @author Electra
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UndoStackBenchmark {
+    /** The offset of a move to the left. */
+    private static final Coordinate LEFT = new Coordinate( -1, 0 );
+
+    /** The ActivePiece being moved. */
+    private ActivePiece piece;
+    /** The UndoStack, reused between lines. */
+    private UndoStack undo;
+
+    /**
+     * Creates the ActivePiece on an empty Board.
+     */
+    @Setup
+    public void setup () {
+        Board board = new Board( new Coordinate( 10, 20 ) );
+        piece = PieceType.T_PIECE.createActivePiece( board, new Coordinate( 4, 17 ), Rotation.R0 );
+        undo = new UndoStack();
+    }
+
+    /**
+     * Rotates, moves left twice and places, then reverts every Revertable.
+     *
+     * @return The hash of the placed state.
+     */
+    @Benchmark
+    public long revertable () {
+        Revertable rotate = piece.rotate( Rotation.CW );
+        Revertable first = piece.move( LEFT );
+        Revertable second = piece.move( LEFT );
+        Revertable place = piece.place();
+        long hash = piece.hash();
+        place.revert();
+        second.revert();
+        first.revert();
+        rotate.revert();
+        return hash;
+    }
+
+    /**
+     * Rotates, moves left twice and places, then undoes every record.
+     *
+     * @return The hash of the placed state.
+     */
+    @Benchmark
+    public long undoStack () {
+        piece.rotate( Rotation.CW, undo );
+        piece.move( -1, 0, undo );
+        piece.move( -1, 0, undo );
+        piece.place( undo );
+        long hash = piece.hash();
+        while ( !undo.isEmpty() ) {
+            piece.undo( undo );
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,107 @@
+package electra.ztrix.model.game.action;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A growable stack of primitive undo records, owned by the caller of an
+ * allocation-free movement API. Each modified object pushes a fixed number of
+ * longs describing what it changed, and pops them in reverse to undo it, so a
+ * search can make and unmake moves without creating a Revertable for each.
+ * Records must be undone in the reverse order they were pushed.
+ *
+ * @author Electra
+ */
+public class UndoStack {
+    /** The number of records a new UndoStack has room for. */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** The records, from the bottom of the stack. */
+    private long[] records;
+    /** The number of records on the stack. */
+    private int size;
+
+    /**
+     * Creates a new, empty UndoStack.
+     */
+    public UndoStack () {
+        this( DEFAULT_CAPACITY );
+    }
+
+    /**
+     * Creates a new, empty UndoStack with room for a number of records
+     * before it grows.
+     *
+     * @param capacity
+     *            The initial capacity, non-negative.
+     */
+    public UndoStack ( int capacity ) {
+        if ( capacity < 0 ) {
+            throw new IllegalArgumentException( "UndoStack(capacity) must be non-negative." );
+        }
+        records = new long[capacity];
+    }
+
+    /**
+     * Gets the number of records on the stack. Saving the size and passing
+     * it to a later loop of undos is how callers mark a point to return to.
+     *
+     * @return the size.
+     */
+    public int size () {
+        return size;
+    }
+
+    /**
+     * Checks whether the stack has no records.
+     *
+     * @return True if the stack is empty.
+     */
+    public boolean isEmpty () {
+        return size == 0;
+    }
+
+    /**
+     * Pushes a record onto the stack, growing it if it is full.
+     *
+     * @param record
+     *            The record to push.
+     */
+    public void push ( long record ) {
+        if ( size == records.length ) {
+            records = Arrays.copyOf( records, Math.max( DEFAULT_CAPACITY, records.length * 2 ) );
+        }
+        records[size++] = record;
+    }
+
+    /**
+     * Pops the record on top of the stack.
+     *
+     * @return the record.
+     */
+    public long pop () {
+        if ( size == 0 ) {
+            throw new NoSuchElementException( "pop() must not be called on an empty UndoStack." );
+        }
+        return records[--size];
+    }
+
+    /**
+     * Gets the record on top of the stack without popping it.
+     *
+     * @return the record.
+     */
+    public long peek () {
+        if ( size == 0 ) {
+            throw new NoSuchElementException( "peek() must not be called on an empty UndoStack." );
+        }
+        return records[size - 1];
+    }
+
+    /**
+     * Discards every record on the stack, without undoing them.
+     */
+    public void clear () {
+        size = 0;
+    }
+}
@@ -1,23 +1,51 @@
 package electra.ztrix.model.game.board;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.Arrays;
+import java.util.BitSet;
 
 import electra.ztrix.model.game.action.Revertable;
 import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.PackedCoordinate;
 import electra.ztrix.model.game.common.Rectangle;
 import electra.ztrix.model.game.common.Region;
+import electra.ztrix.model.game.common.Zobrist;
 
 /**
- * A grid of Minos that can be checked and modified.
+ * A grid of Minos that can be checked and modified. Alongside the Minos, the
+ * Board keeps an occupancy bitmask for each row, so collision checks can be
+ * done with a few bitwise operations per row. The bitmasks of every row are
+ * laid out in one flat array. A Board created with a MinoPalette stores each
+ * cell as a byte index into the palette, all in one flat array, rather than
+ * as a Mino reference.
  *
  * @author Electra
  */
-public class Board {
+public class Board implements BoardView {
     /** The Rectangle bounding box of the Board. */
     private final Rectangle bounds;
-    /** The matrix storing the grid of Minos. */
-    private final Mino[][] matrix;
+    /** The number of rows of the Board. */
+    private final int height;
+    /** The storage of the grid of Minos. */
+    private final CellStorage cells;
+    /** The MinoPalette the cells index into, or null to store Minos. */
+    private final MinoPalette palette;
+    /** The number of occupancy words in each row. */
+    private final int words;
+    /**
+     * The occupancy bitmask of each row, one bit per column, with row y
+     * starting at word y * words.
+     */
+    private final long[] occupancy;
+    /** The occupancy of a row with every column filled. */
+    private final long[] fullRow;
+    /** The height of each column, one more than its highest occupied row. */
+    private final int[] heights;
+    /** The generation of the Board, incremented by every modification. */
+    private long generation;
+    /** The generation of the last modification to each row. */
+    private final long[] rowGenerations;
+    /** The Zobrist hash of the occupancy. */
+    private long hash;
 
     /**
      * Creates a new Board with a given size.
@@ -26,8 +54,28 @@ public class Board {
      *            The size as a Coordinate, non-null with X and Y positive.
      */
     public Board ( Coordinate size ) {
+        this( size, null );
+    }
+
+    /**
+     * Creates a new Board with a given size, storing its cells as indices
+     * into a MinoPalette. Only Minos in the palette can be set on the Board.
+     *
+     * @param size
+     *            The size as a Coordinate, non-null with X and Y positive.
+     * @param palette
+     *            The MinoPalette of the Board, or null to store Minos directly.
+     */
+    public Board ( Coordinate size, MinoPalette palette ) {
         this.bounds = new Rectangle( Coordinate.ORIGIN, size );
-        this.matrix = new Mino[size.y()][size.x()];
+        this.height = size.y();
+        this.palette = palette;
+        this.cells = CellStorage.create( size.x(), size.y(), palette );
+        this.words = Occupancy.words( size.x() );
+        this.occupancy = new long[size.y() * words];
+        this.fullRow = Occupancy.fullRow( size.x() );
+        this.heights = new int[size.x()];
+        this.rowGenerations = new long[size.y()];
     }
 
     /**
@@ -35,10 +83,20 @@ public class Board {
      *
      * @return the bounds.
      */
+    @Override
     public Rectangle getBounds () {
         return bounds;
     }
 
+    /**
+     * Gets the MinoPalette the Board's cells index into.
+     *
+     * @return the MinoPalette, or null if the Board stores Minos directly.
+     */
+    public MinoPalette getPalette () {
+        return palette;
+    }
+
     /**
      * Gets the Mino at a particular position.
      *
@@ -46,6 +104,7 @@ public class Board {
      *            The position, non-null and within the Board's bounds.
      * @return The Mino at the position.
      */
+    @Override
     public Mino getMinoAt ( Coordinate position ) {
         if ( position == null ) {
             throw new NullPointerException( "getMinoAt(position) must be non-null." );
@@ -54,7 +113,183 @@ public class Board {
             throw new IndexOutOfBoundsException( "getMinoAt(position) must be within the Board's bounds." );
         }
         // Return the Mino at the position.
-        return matrix[position.y()][position.x()];
+        return readMino( position.x(), position.y() );
+    }
+
+    /**
+     * Gets the height of a column, which is one more than its highest
+     * occupied row, or 0 if the column is empty. This is kept up to date as
+     * the Board changes, so it can be used to find where pieces land.
+     *
+     * @param x
+     *            The column, within the Board's bounds.
+     * @return The height of the column.
+     */
+    public int getColumnHeight ( int x ) {
+        if ( x < 0 || x >= heights.length ) {
+            throw new IndexOutOfBoundsException( "getColumnHeight(x) must be within the Board's bounds." );
+        }
+        return heights[x];
+    }
+
+    /**
+     * Gets the height of a column, counting only the rows below a particular
+     * row. This is the row a Mino falling down the column from that row would
+     * land in. Above the column's height, this is a lookup, otherwise the
+     * column is scanned downwards from the row.
+     *
+     * @param x
+     *            The column, within the Board's bounds.
+     * @param y
+     *            The row to look below, non-negative.
+     * @return The height of the column below the row.
+     */
+    public int getColumnHeightBelow ( int x, int y ) {
+        if ( x < 0 || x >= heights.length ) {
+            throw new IndexOutOfBoundsException( "getColumnHeightBelow(x) must be within the Board's bounds." );
+        }
+        if ( y < 0 ) {
+            throw new IndexOutOfBoundsException( "getColumnHeightBelow(y) must be non-negative." );
+        }
+        if ( y >= heights[x] ) {
+            return heights[x];
+        }
+        return scanColumnHeight( x, y );
+    }
+
+    /**
+     * Scans a column downwards for its highest occupied row below a row.
+     *
+     * @param x
+     *            The column, within the Board's bounds.
+     * @param y
+     *            The row to scan below, within the Board's bounds.
+     * @return The height of the column below the row.
+     */
+    private int scanColumnHeight ( int x, int y ) {
+        int height = y;
+        while ( height > 0 && !isSet( x, height - 1 ) ) {
+            height--;
+        }
+        return height;
+    }
+
+    /**
+     * Checks whether a position is occupied, without checking bounds.
+     *
+     * @param x
+     *            The X component of the position, within the Board's bounds.
+     * @param y
+     *            The Y component of the position, within the Board's bounds.
+     * @return True if the position is occupied.
+     */
+    private boolean isSet ( int x, int y ) {
+        return ( occupancy[y * words + Occupancy.word( x )] & Occupancy.bit( x ) ) != 0;
+    }
+
+    /**
+     * Gets the height of the tallest column, above which every row is empty.
+     *
+     * @return The height of the stack.
+     */
+    private int getStackHeight () {
+        int top = 0;
+        for ( int height : heights ) {
+            top = Math.max( top, height );
+        }
+        return top;
+    }
+
+    /**
+     * Gets the Zobrist hash of the Board's occupancy. This is kept up to date
+     * as the Board changes, in time proportional to the changed positions.
+     *
+     * @return the hash.
+     */
+    @Override
+    public long hash () {
+        return hash;
+    }
+
+    /**
+     * Gets the generation of the Board, which is incremented by every
+     * modification, including reverts. A consumer can save the generation
+     * and later ask which rows have changed since.
+     *
+     * @return the generation.
+     */
+    public long getGeneration () {
+        return generation;
+    }
+
+    /**
+     * Gets the generation of the last modification to a row.
+     *
+     * @param y
+     *            The row, within the Board's bounds.
+     * @return the generation of the row.
+     */
+    public long getRowGeneration ( int y ) {
+        if ( y < 0 || y >= rowGenerations.length ) {
+            throw new IndexOutOfBoundsException( "getRowGeneration(y) must be within the Board's bounds." );
+        }
+        return rowGenerations[y];
+    }
+
+    /**
+     * Collects the rows modified after a given generation into a BitSet, and
+     * gets the current generation to pass in next time. Each consumer keeps
+     * its own generation, so any number of consumers can track changes.
+     *
+     * @param since
+     *            The generation the consumer last saw, or 0 for every change.
+     * @param rows
+     *            The BitSet to set the index of each changed row in, non-null.
+     * @return The current generation.
+     */
+    public long collectChangedRows ( long since, BitSet rows ) {
+        if ( rows == null ) {
+            throw new NullPointerException( "collectChangedRows(rows) must be non-null." );
+        }
+        if ( since < generation ) {
+            for ( int y = 0; y < rowGenerations.length; y++ ) {
+                if ( rowGenerations[y] > since ) {
+                    rows.set( y );
+                }
+            }
+        }
+        return generation;
+    }
+
+    /**
+     * Marks a span of rows as modified in the current generation.
+     *
+     * @param start
+     *            The first row, inclusive and within the Board's bounds.
+     * @param end
+     *            The last row, exclusive and within the Board's bounds.
+     */
+    private void markRows ( int start, int end ) {
+        Arrays.fill( rowGenerations, start, end, generation );
+    }
+
+    @Override
+    public boolean isOccupied ( int x, int y ) {
+        if ( x < 0 || y < 0 || x >= bounds.getMaximum().x() || y >= bounds.getMaximum().y() ) {
+            throw new IndexOutOfBoundsException( "isOccupied(x, y) must be within the Board's bounds." );
+        }
+        return isSet( x, y );
+    }
+
+    @Override
+    public long getRowOccupancy ( int y, int word ) {
+        if ( y < 0 || y >= height ) {
+            throw new IndexOutOfBoundsException( "getRowOccupancy(y) must be within the Board's bounds." );
+        }
+        if ( word < 0 || word >= words ) {
+            throw new IndexOutOfBoundsException( "getRowOccupancy(word) must be within the row." );
+        }
+        return occupancy[y * words + word];
     }
 
     /**
@@ -65,6 +300,7 @@ public class Board {
      *            The Region to check, non-null.
      * @return True if the region is empty and within the Board's bounds.
      */
+    @Override
     public boolean isRegionEmpty ( Region region ) {
         if ( region == null ) {
             throw new NullPointerException( "isRegionEmpty(region) must be non-null." );
@@ -72,17 +308,138 @@ public class Board {
         if ( !bounds.containsRegion( region ) ) {
             return false;
         }
-        // Check for a Mino at each position.
-        for ( Coordinate position : region ) {
-            Mino mino = matrix[position.y()][position.x()];
-            if ( mino != null ) {
+        // Check the occupancy bits of the Region.
+        return Occupancy.isRegionEmpty( occupancy, words, region );
+    }
+
+    /**
+     * Gets whether a set of packed positions, each moved by an offset, are
+     * all empty and within the Board's bounds. This checks collision like
+     * isRegionEmpty(), without creating a translated Region.
+     *
+     * @param positions
+     *            The packed positions to check, non-null.
+     * @param offset
+     *            The packed offset to move each position by.
+     * @return True if every moved position is empty and within the bounds.
+     */
+    public boolean isPackedRegionEmpty ( long[] positions, long offset ) {
+        if ( positions == null ) {
+            throw new NullPointerException( "isPackedRegionEmpty(positions) must be non-null." );
+        }
+        int width = bounds.getMaximum().x();
+        int dx = PackedCoordinate.x( offset );
+        int dy = PackedCoordinate.y( offset );
+        for ( long position : positions ) {
+            int x = PackedCoordinate.x( position ) + dx;
+            int y = PackedCoordinate.y( position ) + dy;
+            if ( x < 0 || y < 0 || x >= width || y >= height ) {
+                return false;
+            }
+            if ( isSet( x, y ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets whether a row mask of positions is entirely empty and within the
+     * Board's bounds. Each row of the mask is checked with a shift and an AND
+     * against the occupancy, so this costs one or two words per row however
+     * many positions the row has.
+     *
+     * @param rows
+     *            The columns of each row of the mask, from the lowest, with
+     *            bit 0 the leftmost column; non-null.
+     * @param width
+     *            The number of columns the mask spans, at most 64.
+     * @param x
+     *            The X component of the mask's leftmost column.
+     * @param y
+     *            The Y component of the mask's lowest row.
+     * @return True if every position of the mask is empty and within the
+     *         bounds.
+     */
+    public boolean isMaskEmpty ( long[] rows, int width, int x, int y ) {
+        if ( rows == null ) {
+            throw new NullPointerException( "isMaskEmpty(rows) must be non-null." );
+        }
+        if ( x < 0 || y < 0 || x + width > bounds.getMaximum().x() || y + rows.length > height ) {
+            return false;
+        }
+        int word = Occupancy.word( x );
+        int shift = x & ( Occupancy.WORD_SIZE - 1 );
+        for ( int r = 0; r < rows.length; r++ ) {
+            int index = ( y + r ) * words + word;
+            if ( ( occupancy[index] & ( rows[r] << shift ) ) != 0 ) {
+                return false;
+            }
+            // Check the columns that spill over into the next word.
+            if ( shift != 0 && ( words > word + 1 )
+                    && ( occupancy[index + 1] & ( rows[r] >>> ( Occupancy.WORD_SIZE - shift ) ) ) != 0 ) {
                 return false;
             }
         }
-        // If none exist, return True.
         return true;
     }
 
+    /**
+     * Reads the Mino at a position, through the palette if there is one.
+     *
+     * @param x
+     *            The X component of the position, within the Board's bounds.
+     * @param y
+     *            The Y component of the position, within the Board's bounds.
+     * @return The Mino at the position.
+     */
+    private Mino readMino ( int x, int y ) {
+        return cells.read( x, y );
+    }
+
+    /**
+     * Checks that a Mino can be stored on the Board.
+     *
+     * @param mino
+     *            The Mino to check, non-null.
+     * @param method
+     *            The name of the method, for the Exception message.
+     */
+    private void checkPalette ( Mino mino, String method ) {
+        if ( palette != null && !palette.contains( mino ) ) {
+            throw new IllegalArgumentException( method + "(mino) must be in the Board's palette." );
+        }
+    }
+
+    /**
+     * Writes a Mino to a position, keeping the occupancy in sync.
+     *
+     * @param x
+     *            The X component of the position, within the Board's bounds.
+     * @param y
+     *            The Y component of the position, within the Board's bounds.
+     * @param mino
+     *            The Mino to write, or null to empty the position.
+     */
+    private void writeMino ( int x, int y, Mino mino ) {
+        cells.write( x, y, mino );
+        int index = y * words + Occupancy.word( x );
+        long bit = Occupancy.bit( x );
+        if ( ( ( occupancy[index] & bit ) != 0 ) != ( mino != null ) ) {
+            hash ^= Zobrist.cell( x, y );
+            occupancy[index] ^= bit;
+        }
+        rowGenerations[y] = generation;
+        // Update the column height if its top changed.
+        if ( mino != null ) {
+            if ( y >= heights[x] ) {
+                heights[x] = y + 1;
+            }
+        } else if ( y + 1 == heights[x] ) {
+            heights[x] = scanColumnHeight( x, y );
+        }
+    }
+
     /**
      * Sets the Mino at a particular position, revertably.
      *
@@ -96,14 +453,17 @@ public class Board {
         if ( mino == null ) {
             throw new NullPointerException( "setMinoAt(mino) must be non-null." );
         }
+        checkPalette( mino, "setMinoAt" );
         // Save the previous Mino before writing.
         Mino prev = getMinoAt( position );
-        matrix[position.y()][position.x()] = mino;
+        generation++;
+        writeMino( position.x(), position.y(), mino );
         // Create a Revertable using the previous Mino.
         return new Revertable() {
             @Override
             public void revert () {
-                matrix[position.y()][position.x()] = prev;
+                generation++;
+                writeMino( position.x(), position.y(), prev );
             }
         };
     }
@@ -127,22 +487,331 @@ public class Board {
         if ( mino == null ) {
             throw new NullPointerException( "setRegion(mino) must be non-null." );
         }
-        // While writing, add the previous Mino at each position to a Queue.
-        Queue<Mino> prevs = new LinkedList<Mino>();
-        for ( Coordinate pos : region ) {
-            Mino prev = matrix[pos.y()][pos.x()];
-            prevs.add( prev );
-            matrix[pos.y()][pos.x()] = mino;
+        checkPalette( mino, "setRegion" );
+        // While writing, save the previous Mino at each position in order.
+        Rectangle regionBounds = region.getBounds();
+        Coordinate size = regionBounds.getMaximum().minus( regionBounds.getMinimum() );
+        Mino[] prevs = new Mino[size.x() * size.y()];
+        int[] count = { 0 };
+        generation++;
+        region.forEachPosition( ( x, y ) -> {
+            prevs[count[0]++] = readMino( x, y );
+            writeMino( x, y, mino );
+            return true;
+        } );
+        // Create a Revertable that visits the Region in the same order.
+        return new Revertable() {
+            @Override
+            public void revert () {
+                int[] index = { 0 };
+                generation++;
+                region.forEachPosition( ( x, y ) -> {
+                    writeMino( x, y, prevs[index[0]++] );
+                    return true;
+                } );
+            }
+        };
+    }
+
+    /**
+     * Sets a set of packed positions, each moved by an offset, to a
+     * particular Mino, or clears them if the Mino is null. Unlike setRegion(),
+     * this saves nothing to revert it, so callers that keep their own undo
+     * records can write a piece's cells without allocating.
+     *
+     * @param positions
+     *            The packed positions to set, non-null.
+     * @param offset
+     *            The packed offset to move each position by, keeping every
+     *            moved position within the Board's bounds.
+     * @param mino
+     *            The Mino to set, or null to clear the positions.
+     */
+    public void setPackedRegion ( long[] positions, long offset, Mino mino ) {
+        if ( positions == null ) {
+            throw new NullPointerException( "setPackedRegion(positions) must be non-null." );
+        }
+        if ( mino != null ) {
+            checkPalette( mino, "setPackedRegion" );
+        }
+        int width = bounds.getMaximum().x();
+        int dx = PackedCoordinate.x( offset );
+        int dy = PackedCoordinate.y( offset );
+        // Check every position before writing, so a bad offset changes nothing.
+        for ( long position : positions ) {
+            int x = PackedCoordinate.x( position ) + dx;
+            int y = PackedCoordinate.y( position ) + dy;
+            if ( x < 0 || y < 0 || x >= width || y >= height ) {
+                throw new IndexOutOfBoundsException( "setPackedRegion(offset) must keep positions within the Board's bounds." );
+            }
+        }
+        generation++;
+        for ( long position : positions ) {
+            writeMino( PackedCoordinate.x( position ) + dx, PackedCoordinate.y( position ) + dy, mino );
+        }
+    }
+
+    /**
+     * Checks whether every column of a row is occupied.
+     *
+     * @param y
+     *            The row, within the Board's bounds.
+     * @return True if the row is full.
+     */
+    private boolean isRowFull ( int y ) {
+        int base = y * words;
+        for ( int w = 0; w < words; w++ ) {
+            if ( occupancy[base + w] != fullRow[w] ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether moving the rows from a row up is cheaper to hash by
+     * XORing out and back in just those rows, which visits them twice, than
+     * by hashing the whole stack again once they have moved.
+     *
+     * @param low
+     *            The lowest row that moves.
+     * @param top
+     *            The height of the stack before the rows move.
+     * @return True if only the moving rows should be rehashed.
+     */
+    private boolean isPartialRehash ( int low, int top ) {
+        return 2 * low > top;
+    }
+
+    /**
+     * Removes every full row from the Board, revertably. The rows above each
+     * cleared row are moved down to fill the gap, and empty rows are added at
+     * the top of the stack. Only the rows of the stack are moved, by reference
+     * or by bulk copy depending on the storage.
+     *
+     * @return A LineClear holding the cleared rows, to revert this method.
+     */
+    public LineClear clearFullRows () {
+        // Only rows below the top of the stack can be full.
+        int top = getStackHeight();
+        // Count the full rows first, so the LineClear can be sized exactly.
+        int count = 0;
+        int low = top;
+        for ( int y = 0; y < top; y++ ) {
+            if ( isRowFull( y ) ) {
+                low = Math.min( low, y );
+                count++;
+            }
+        }
+        if ( count == 0 ) {
+            return LineClear.NONE;
+        }
+        // Only the rows from the lowest cleared row up move, so only their
+        // part of the hash changes, unless that is most of the stack.
+        boolean partial = isPartialRehash( low, top );
+        if ( partial ) {
+            hash ^= Occupancy.hash( occupancy, words, low, top );
+        }
+        int[] rows = new int[count];
+        long[] masks = new long[count * words];
+        // Move each remaining row down past the full rows below it.
+        int cleared = 0;
+        for ( int y = low; y < top; y++ ) {
+            if ( cleared < count && isRowFull( y ) ) {
+                rows[cleared] = y;
+                System.arraycopy( occupancy, y * words, masks, cleared * words, words );
+                cleared++;
+            } else {
+                System.arraycopy( occupancy, y * words, occupancy, ( y - cleared ) * words, words );
+            }
+        }
+        // Empty the rows left at the top of the stack.
+        Arrays.fill( occupancy, ( top - count ) * words, top * words, 0 );
+        Object removed = cells.removeRows( rows, top );
+        hash = partial ? hash ^ Occupancy.hash( occupancy, words, low, top - count )
+                : Occupancy.hash( occupancy, words, 0, top - count );
+        // Every column filled each cleared row, so each drops by the count,
+        // and further if its top was in a cleared row.
+        for ( int x = 0; x < heights.length; x++ ) {
+            heights[x] = scanColumnHeight( x, heights[x] - count );
         }
-        // Create a Revertable that empties this Queue to restore the Minos.
+        // Every row from the lowest cleared row up has changed.
+        generation++;
+        markRows( low, height );
+        return new LineClear( this, rows, removed, masks );
+    }
+
+    /**
+     * Moves the rows removed by a LineClear back into place, moving the rows
+     * above them back up and discarding the empty rows added at the top.
+     *
+     * @param clear
+     *            The LineClear to revert, the most recent change to the Board.
+     */
+    void restoreRows ( LineClear clear ) {
+        int[] rows = clear.getRows();
+        int count = rows.length;
+        int low = rows[0];
+        int high = rows[count - 1];
+        int top = getStackHeight();
+        boolean partial = isPartialRehash( low, top );
+        if ( partial ) {
+            hash ^= Occupancy.hash( occupancy, words, low, top );
+        }
+        // Every moved or restored row lies below the end.
+        int end = Math.max( top + count, high + 1 );
+        long[] masks = clear.getOccupancy();
+        int cleared = count - 1;
+        // Work downwards, so no row is overwritten before it is moved.
+        for ( int y = end - 1; y >= low; y-- ) {
+            if ( cleared >= 0 && rows[cleared] == y ) {
+                System.arraycopy( masks, cleared * words, occupancy, y * words, words );
+                cleared--;
+            } else {
+                System.arraycopy( occupancy, ( y - cleared - 1 ) * words, occupancy, y * words, words );
+            }
+        }
+        cells.restoreRows( rows, clear.getCells(), end );
+        // Each column's top moves back up past the cleared rows below it, and
+        // is at least as high as the full rows themselves.
+        for ( int x = 0; x < heights.length; x++ ) {
+            int row = heights[x] - 1;
+            for ( int c = 0; c < count && row >= 0; c++ ) {
+                if ( rows[c] <= row ) {
+                    row++;
+                }
+            }
+            heights[x] = Math.max( row + 1, high + 1 );
+        }
+        top = getStackHeight();
+        hash = partial ? hash ^ Occupancy.hash( occupancy, words, low, top ) : Occupancy.hash( occupancy, words, 0, top );
+        generation++;
+        markRows( low, height );
+    }
+
+    /**
+     * Inserts rows of garbage at the bottom of the Board, revertably. Every
+     * row is moved up to make room, and the rows pushed past the top of the
+     * Board are removed. Rows are moved by reference or by bulk copy, so only
+     * the new rows are written a cell at a time.
+     *
+     * @param count
+     *            The number of rows to insert, from 0 to the Board's height.
+     * @param holes
+     *            The columns left empty in each new row, non-null and within
+     *            the Board's width.
+     * @param mino
+     *            The Mino filling the rest of each new row, non-null.
+     * @return A Revertable to revert this method.
+     */
+    public Revertable insertGarbage ( int count, BitSet holes, Mino mino ) {
+        if ( holes == null ) {
+            throw new NullPointerException( "insertGarbage(holes) must be non-null." );
+        }
+        if ( mino == null ) {
+            throw new NullPointerException( "insertGarbage(mino) must be non-null." );
+        }
+        int width = bounds.getMaximum().x();
+        if ( count < 0 || count > height ) {
+            throw new IllegalArgumentException( "insertGarbage(count) must be from 0 to the Board's height." );
+        }
+        if ( holes.length() > width ) {
+            throw new IllegalArgumentException( "insertGarbage(holes) must be within the Board's width." );
+        }
+        checkPalette( mino, "insertGarbage" );
+        // Save the rows that will be pushed off the top of the Board.
+        long[] removedMasks = Arrays.copyOfRange( occupancy, ( height - count ) * words, height * words );
+        System.arraycopy( occupancy, 0, occupancy, count * words, ( height - count ) * words );
+        // Build one garbage row, then copy it into each new row.
+        long[] mask = fullRow.clone();
+        Mino[] row = new Mino[width];
+        for ( int x = 0; x < width; x++ ) {
+            if ( holes.get( x ) ) {
+                Occupancy.set( mask, x, false );
+            } else {
+                row[x] = mino;
+            }
+        }
+        for ( int y = 0; y < count; y++ ) {
+            System.arraycopy( mask, 0, occupancy, y * words, words );
+        }
+        Object removedCells = cells.insertRows( count, row );
+        // Every row moves, so its keys change, but the rows above the stack
+        // are empty and need not be hashed.
+        for ( int x = 0; x < width; x++ ) {
+            if ( heights[x] > 0 ) {
+                heights[x] = heights[x] + count <= height ? heights[x] + count : scanColumnHeight( x, height );
+            } else if ( !holes.get( x ) ) {
+                heights[x] = count;
+            }
+        }
+        hash = Occupancy.hash( occupancy, words, 0, getStackHeight() );
+        generation++;
+        markRows( 0, height );
+        // Create a Revertable that moves the rows back down.
         return new Revertable() {
             @Override
             public void revert () {
-                for ( Coordinate pos : region ) {
-                    Mino prev = prevs.remove();
-                    matrix[pos.y()][pos.x()] = prev;
+                System.arraycopy( occupancy, count * words, occupancy, 0, ( height - count ) * words );
+                System.arraycopy( removedMasks, 0, occupancy, ( height - count ) * words, count * words );
+                cells.uninsertRows( count, removedCells );
+                // Lower each column past the garbage, then raise it to any
+                // Mino in the rows restored at the top.
+                for ( int x = 0; x < width; x++ ) {
+                    heights[x] = Math.max( heights[x] - count, 0 );
+                }
+                for ( int y = height - count; y < height; y++ ) {
+                    for ( int w = 0; w < words; w++ ) {
+                        for ( long bits = occupancy[y * words + w]; bits != 0; bits &= bits - 1 ) {
+                            heights[w * Occupancy.WORD_SIZE + Long.numberOfTrailingZeros( bits )] = y + 1;
+                        }
+                    }
                 }
+                hash = Occupancy.hash( occupancy, words, 0, getStackHeight() );
+                generation++;
+                markRows( 0, height );
             }
         };
     }
+
+    /**
+     * Copies the Minos of a row.
+     *
+     * @param y
+     *            The row, within the Board's bounds.
+     * @return A copy of the row's Minos.
+     */
+    Mino[] copyMinoRow ( int y ) {
+        Mino[] minos = new Mino[bounds.getMaximum().x()];
+        for ( int x = 0; x < minos.length; x++ ) {
+            minos[x] = readMino( x, y );
+        }
+        return minos;
+    }
+
+    /**
+     * Copies the occupancy of a row.
+     *
+     * @param y
+     *            The row, within the Board's bounds.
+     * @return A copy of the row's occupancy.
+     */
+    long[] copyOccupancyRow ( int y ) {
+        return Arrays.copyOfRange( occupancy, y * words, ( y + 1 ) * words );
+    }
+
+    /**
+     * Overwrites a row of an empty Board with given Minos, which must be in
+     * the Board's palette.
+     *
+     * @param y
+     *            The row, within the Board's bounds.
+     * @param minos
+     *            The Minos of the row, as wide as the Board.
+     */
+    void loadRow ( int y, Mino[] minos ) {
+        for ( int x = 0; x < minos.length; x++ ) {
+            writeMino( x, y, minos[x] );
+        }
+    }
 }
@@ -0,0 +1,339 @@
+package electra.ztrix.model.game.board;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rectangle;
+import electra.ztrix.model.game.common.Region;
+
+/**
+ * A bulk store of Board positions of the same size, packed off-heap. Each
+ * position takes a fixed-size slot holding its hash and the occupancy of each
+ * row, in direct ByteBuffers allocated a chunk at a time. Storing a position
+ * creates no objects on the heap, so heap usage stays flat however many
+ * positions are stored. Positions are read through reusable View objects.
+ * <p>
+ * Only the occupancy of each position is stored, so a View reports every
+ * occupied position as holding the arena's Mino.
+ *
+ * @author Electra
+ */
+public class BoardArena {
+    /** The default number of bytes in each chunk of the arena. */
+    private static final int CHUNK_BYTES = 1 << 26;
+
+    /** The Rectangle bounding box of each position. */
+    private final Rectangle bounds;
+    /** The Mino reported for each occupied position. */
+    private final Mino mino;
+    /** The number of occupancy words in each row. */
+    private final int words;
+    /** The number of bytes in each slot: the hash, then each row's words. */
+    private final int stride;
+    /** The number of slots in each chunk. */
+    private final int slotsPerChunk;
+    /** The chunks of the arena, each a direct ByteBuffer. */
+    private final List<ByteBuffer> chunks;
+    /** The number of positions stored. */
+    private int size;
+
+    /**
+     * Creates a new, empty BoardArena for positions of a given size.
+     *
+     * @param size
+     *            The size of each position, non-null with X and Y positive.
+     * @param mino
+     *            The Mino reported for each occupied position, non-null.
+     */
+    public BoardArena ( Coordinate size, Mino mino ) {
+        this( size, mino, CHUNK_BYTES );
+    }
+
+    /**
+     * Creates a new, empty BoardArena with a given chunk size.
+     *
+     * @param size
+     *            The size of each position, non-null with X and Y positive.
+     * @param mino
+     *            The Mino reported for each occupied position, non-null.
+     * @param chunkBytes
+     *            The number of bytes in each chunk, positive.
+     */
+    BoardArena ( Coordinate size, Mino mino, int chunkBytes ) {
+        if ( mino == null ) {
+            throw new NullPointerException( "BoardArena(mino) must be non-null." );
+        }
+        this.bounds = new Rectangle( Coordinate.ORIGIN, size );
+        this.mino = mino;
+        this.words = Occupancy.words( size.x() );
+        this.stride = Long.BYTES * ( 1 + size.y() * words );
+        this.slotsPerChunk = Math.max( 1, chunkBytes / stride );
+        this.chunks = new ArrayList<>();
+    }
+
+    /**
+     * Gets the Rectangle bounding box of each position.
+     *
+     * @return the bounds.
+     */
+    public Rectangle getBounds () {
+        return bounds;
+    }
+
+    /**
+     * Gets the number of positions stored.
+     *
+     * @return the size.
+     */
+    public int size () {
+        return size;
+    }
+
+    /**
+     * Stores the occupancy of a Board as a new position.
+     *
+     * @param board
+     *            The Board to store, non-null with the arena's bounds.
+     * @return The index of the new position.
+     */
+    public int add ( BoardView board ) {
+        if ( board == null ) {
+            throw new NullPointerException( "add(board) must be non-null." );
+        }
+        if ( !bounds.equals( board.getBounds() ) ) {
+            throw new IllegalArgumentException( "add(board) must have the arena's bounds." );
+        }
+        // Allocate a new chunk if the last one is full.
+        if ( size == chunks.size() * slotsPerChunk ) {
+            ByteBuffer chunk = ByteBuffer.allocateDirect( slotsPerChunk * stride );
+            chunk.order( ByteOrder.nativeOrder() );
+            chunks.add( chunk );
+        }
+        int index = size++;
+        write( index, board );
+        return index;
+    }
+
+    /**
+     * Overwrites a stored position with the occupancy of a Board.
+     *
+     * @param index
+     *            The index of the position, less than the size.
+     * @param board
+     *            The Board to store, non-null with the arena's bounds.
+     */
+    public void set ( int index, BoardView board ) {
+        if ( board == null ) {
+            throw new NullPointerException( "set(board) must be non-null." );
+        }
+        if ( !bounds.equals( board.getBounds() ) ) {
+            throw new IllegalArgumentException( "set(board) must have the arena's bounds." );
+        }
+        checkIndex( index );
+        write( index, board );
+    }
+
+    /**
+     * Gets the hash of a stored position, without creating a View.
+     *
+     * @param index
+     *            The index of the position, less than the size.
+     * @return The Zobrist hash of the position.
+     */
+    public long hash ( int index ) {
+        checkIndex( index );
+        return chunk( index ).getLong( offset( index ) );
+    }
+
+    /**
+     * Creates a new View of a stored position. The View can be moved to
+     * other positions, so one View can read any number of positions.
+     *
+     * @param index
+     *            The index of the position, less than the size.
+     * @return The View.
+     */
+    public View view ( int index ) {
+        View view = new View();
+        view.moveTo( index );
+        return view;
+    }
+
+    /**
+     * Checks that an index refers to a stored position.
+     *
+     * @param index
+     *            The index to check.
+     */
+    private void checkIndex ( int index ) {
+        if ( index < 0 || index >= size ) {
+            throw new IndexOutOfBoundsException( "index must be less than the arena's size." );
+        }
+    }
+
+    /**
+     * Gets the chunk containing a position's slot.
+     *
+     * @param index
+     *            The index of the position.
+     * @return The chunk.
+     */
+    private ByteBuffer chunk ( int index ) {
+        return chunks.get( index / slotsPerChunk );
+    }
+
+    /**
+     * Gets the byte offset of a position's slot within its chunk.
+     *
+     * @param index
+     *            The index of the position.
+     * @return The offset.
+     */
+    private int offset ( int index ) {
+        return ( index % slotsPerChunk ) * stride;
+    }
+
+    /**
+     * Writes the hash and occupancy of a Board into a position's slot.
+     *
+     * @param index
+     *            The index of the position, with an allocated slot.
+     * @param board
+     *            The Board to write, with the arena's bounds.
+     */
+    private void write ( int index, BoardView board ) {
+        ByteBuffer chunk = chunk( index );
+        int offset = offset( index );
+        chunk.putLong( offset, board.hash() );
+        int height = bounds.getMaximum().y();
+        int base = offset + Long.BYTES;
+        // Copy the occupancy a whole word at a time.
+        for ( int y = 0; y < height; y++ ) {
+            for ( int w = 0; w < words; w++ ) {
+                chunk.putLong( base + Long.BYTES * ( y * words + w ), board.getRowOccupancy( y, w ) );
+            }
+        }
+    }
+
+    /**
+     * A reusable, read-only view of one position stored in a BoardArena.
+     * Reads go straight to the arena's memory, so a View holds no copy of
+     * the position.
+     *
+     * @author Electra
+     */
+    public class View implements BoardView {
+        /** The index of the position being viewed. */
+        private int index;
+        /** The chunk containing the position. */
+        private ByteBuffer chunk;
+        /** The byte offset of the position's first row within its chunk. */
+        private int base;
+
+        /**
+         * Creates a View, which must be moved to a position before use.
+         */
+        private View () {
+        }
+
+        /**
+         * Moves the View to another stored position.
+         *
+         * @param index
+         *            The index of the position, less than the arena's size.
+         * @return This View.
+         */
+        public View moveTo ( int index ) {
+            checkIndex( index );
+            this.index = index;
+            this.chunk = chunk( index );
+            this.base = offset( index ) + Long.BYTES;
+            return this;
+        }
+
+        /**
+         * Gets the index of the position being viewed.
+         *
+         * @return the index.
+         */
+        public int getIndex () {
+            return index;
+        }
+
+        /**
+         * Reads a word of the occupancy of a row.
+         *
+         * @param y
+         *            The row, within the bounds.
+         * @param word
+         *            The index of the word within the row.
+         * @return The occupancy of the word's columns.
+         */
+        private long word ( int y, int word ) {
+            return chunk.getLong( base + Long.BYTES * ( y * words + word ) );
+        }
+
+        @Override
+        public Rectangle getBounds () {
+            return bounds;
+        }
+
+        @Override
+        public boolean isOccupied ( int x, int y ) {
+            if ( x < 0 || y < 0 || x >= bounds.getMaximum().x() || y >= bounds.getMaximum().y() ) {
+                throw new IndexOutOfBoundsException( "isOccupied(x, y) must be within the Board's bounds." );
+            }
+            return ( word( y, Occupancy.word( x ) ) & Occupancy.bit( x ) ) != 0;
+        }
+
+        @Override
+        public long getRowOccupancy ( int y, int word ) {
+            if ( y < 0 || y >= bounds.getMaximum().y() ) {
+                throw new IndexOutOfBoundsException( "getRowOccupancy(y) must be within the Board's bounds." );
+            }
+            if ( word < 0 || word >= words ) {
+                throw new IndexOutOfBoundsException( "getRowOccupancy(word) must be within the row." );
+            }
+            return word( y, word );
+        }
+
+        @Override
+        public Mino getMinoAt ( Coordinate position ) {
+            if ( position == null ) {
+                throw new NullPointerException( "getMinoAt(position) must be non-null." );
+            }
+            if ( !bounds.contains( position ) ) {
+                throw new IndexOutOfBoundsException( "getMinoAt(position) must be within the Board's bounds." );
+            }
+            return isOccupied( position.x(), position.y() ) ? mino : null;
+        }
+
+        @Override
+        public boolean isRegionEmpty ( Region region ) {
+            if ( region == null ) {
+                throw new NullPointerException( "isRegionEmpty(region) must be non-null." );
+            }
+            if ( !bounds.containsRegion( region ) ) {
+                return false;
+            }
+            // Check the Region a row span at a time.
+            return region.forEachRowSpan( ( y, start, end ) -> {
+                int last = Occupancy.word( end - 1 );
+                for ( int w = Occupancy.word( start ); w <= last; w++ ) {
+                    if ( ( word( y, w ) & Occupancy.spanMask( w, start, end ) ) != 0 ) {
+                        return false;
+                    }
+                }
+                return true;
+            } );
+        }
+
+        @Override
+        public long hash () {
+            return chunk.getLong( base - Long.BYTES );
+        }
+    }
+}
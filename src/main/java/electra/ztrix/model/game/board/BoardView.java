@@ -0,0 +1,71 @@
+package electra.ztrix.model.game.board;
+
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rectangle;
+import electra.ztrix.model.game.common.Region;
+
+/**
+ * The read side of a grid of Minos, shared by mutable and immutable Boards.
+ *
+ * @author Electra
+ */
+public interface BoardView {
+    /**
+     * Gets the rectangle bounding box of the Board.
+     *
+     * @return the bounds.
+     */
+    public Rectangle getBounds ();
+
+    /**
+     * Gets the Mino at a particular position.
+     *
+     * @param position
+     *            The position, non-null and within the Board's bounds.
+     * @return The Mino at the position.
+     */
+    public Mino getMinoAt ( Coordinate position );
+
+    /**
+     * Gets whether a position is occupied by a Mino, without creating a
+     * Coordinate.
+     *
+     * @param x
+     *            The X component of the position, within the Board's bounds.
+     * @param y
+     *            The Y component of the position, within the Board's bounds.
+     * @return True if the position is occupied.
+     */
+    public boolean isOccupied ( int x, int y );
+
+    /**
+     * Gets a word of the occupancy of a row, where bit i of word w is set if
+     * column w * 64 + i is occupied.
+     *
+     * @param y
+     *            The row, within the Board's bounds.
+     * @param word
+     *            The index of the word within the row, less than the number
+     *            of words in each row.
+     * @return The occupancy of the word's columns.
+     */
+    public long getRowOccupancy ( int y, int word );
+
+    /**
+     * Gets whether a region is entirely empty and contained within the Board's
+     * bounds. This can be used to check collision with the Board.
+     *
+     * @param region
+     *            The Region to check, non-null.
+     * @return True if the region is empty and within the Board's bounds.
+     */
+    public boolean isRegionEmpty ( Region region );
+
+    /**
+     * Gets the Zobrist hash of the Board's occupancy. Boards with the same
+     * positions occupied have the same hash, whichever Minos occupy them.
+     *
+     * @return the hash.
+     */
+    public long hash ();
+}
@@ -0,0 +1,103 @@
+package electra.ztrix.model.game.board;
+
+/**
+ * The storage of a Board's Minos. Each kind of storage keeps its cells in its
+ * own layout, so a Board reads and writes them without checking which layout
+ * it has, and moves rows in whichever way is cheapest for the layout.
+ *
+ * @author Electra
+ */
+abstract class CellStorage {
+    /**
+     * Creates the storage for a Board.
+     *
+     * @param width
+     *            The width of the Board, positive.
+     * @param height
+     *            The height of the Board, positive.
+     * @param palette
+     *            The MinoPalette to store indices into, or null to store
+     *            Minos directly.
+     * @return The new, empty storage.
+     */
+    static CellStorage create ( int width, int height, MinoPalette palette ) {
+        if ( palette == null ) {
+            return new MinoCells( width, height );
+        }
+        return new PaletteCells( width, height, palette );
+    }
+
+    /**
+     * Reads the Mino at a position.
+     *
+     * @param x
+     *            The X component of the position, within the Board's bounds.
+     * @param y
+     *            The Y component of the position, within the Board's bounds.
+     * @return The Mino at the position, or null if it is empty.
+     */
+    abstract Mino read ( int x, int y );
+
+    /**
+     * Writes a Mino to a position.
+     *
+     * @param x
+     *            The X component of the position, within the Board's bounds.
+     * @param y
+     *            The Y component of the position, within the Board's bounds.
+     * @param mino
+     *            The Mino to write, which can be stored, or null to empty the
+     *            position.
+     */
+    abstract void write ( int x, int y, Mino mino );
+
+    /**
+     * Removes rows, moving the rows above them down and emptying the rows
+     * left at the top of the stack.
+     *
+     * @param rows
+     *            The rows to remove, in ascending order, all below the top.
+     * @param top
+     *            The height of the stack, above which every row is empty.
+     * @return The cells of the removed rows, for restoreRows().
+     */
+    abstract Object removeRows ( int[] rows, int top );
+
+    /**
+     * Moves rows removed by removeRows() back into place, moving the rows
+     * above them back up.
+     *
+     * @param rows
+     *            The removed rows, in ascending order.
+     * @param cells
+     *            The cells of the removed rows, from removeRows().
+     * @param end
+     *            The row below which every restored row lies, and above
+     *            which every row is empty.
+     */
+    abstract void restoreRows ( int[] rows, Object cells, int end );
+
+    /**
+     * Moves every row up, filling the rows left at the bottom with copies of
+     * a row, and removing the rows pushed past the top.
+     *
+     * @param count
+     *            The number of rows to insert, at most the Board's height.
+     * @param row
+     *            The Minos of each inserted row, as wide as the Board, with
+     *            null for empty positions.
+     * @return The cells of the rows pushed past the top, for uninsertRows().
+     */
+    abstract Object insertRows ( int count, Mino[] row );
+
+    /**
+     * Removes rows inserted by insertRows(), moving every row back down and
+     * restoring the rows that were pushed past the top.
+     *
+     * @param count
+     *            The number of rows that were inserted.
+     * @param cells
+     *            The cells of the rows pushed past the top, from insertRows().
+     */
+    abstract void uninsertRows ( int count, Object cells );
+}
@@ -0,0 +1,95 @@
+package electra.ztrix.model.game.board;
+
+import electra.ztrix.model.game.action.Revertable;
+
+/**
+ * The result of clearing the full rows of a Board. Holds the rows that were
+ * removed, so the clear can be reverted by moving them back into place.
+ *
+ * @author Electra
+ */
+public class LineClear implements Revertable {
+    /** The LineClear of a clear that found no full rows, shared by every Board. */
+    static final LineClear NONE = new LineClear( null, new int[0], null, new long[0] );
+
+    /** The Board the rows were cleared from. */
+    private final Board board;
+    /** The indices of the cleared rows before the clear, in ascending order. */
+    private final int[] rows;
+    /** The cells of the cleared rows, in the Board's storage format. */
+    private final Object cells;
+    /** The occupancy of the cleared rows, one after another. */
+    private final long[] occupancy;
+
+    /**
+     * Creates a new LineClear from the rows removed from a Board.
+     *
+     * @param board
+     *            The Board the rows were cleared from.
+     * @param rows
+     *            The indices of the cleared rows, in ascending order.
+     * @param cells
+     *            The cells of the cleared rows.
+     * @param occupancy
+     *            The occupancy of the cleared rows, one after another.
+     */
+    LineClear ( Board board, int[] rows, Object cells, long[] occupancy ) {
+        this.board = board;
+        this.rows = rows;
+        this.cells = cells;
+        this.occupancy = occupancy;
+    }
+
+    /**
+     * Gets the number of rows that were cleared.
+     *
+     * @return the number of rows.
+     */
+    public int getLineCount () {
+        return rows.length;
+    }
+
+    /**
+     * Gets the indices of the cleared rows, as they were before the clear.
+     *
+     * @return the row indices, in ascending order.
+     */
+    public int[] getClearedRows () {
+        return rows.clone();
+    }
+
+    /**
+     * Gets the indices of the cleared rows, as they were before the clear.
+     * The array is shared, and must not be modified.
+     *
+     * @return the row indices, in ascending order.
+     */
+    int[] getRows () {
+        return rows;
+    }
+
+    /**
+     * Gets the cells of the cleared rows.
+     *
+     * @return the cells, in the Board's storage format.
+     */
+    Object getCells () {
+        return cells;
+    }
+
+    /**
+     * Gets the occupancy of the cleared rows.
+     *
+     * @return the occupancy of each row, one after another.
+     */
+    long[] getOccupancy () {
+        return occupancy;
+    }
+
+    @Override
+    public void revert () {
+        if ( rows.length > 0 ) {
+            board.restoreRows( this );
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package electra.ztrix.model.game.board;
+
+/**
+ * CellStorage that stores a Mino reference for each cell, a row array at a
+ * time. Rows are moved by reference, so clearing and inserting rows copies no
+ * Minos.
+ *
+ * @author Electra
+ */
+final class MinoCells extends CellStorage {
+    /** The Minos of each row. */
+    private final Mino[][] rows;
+
+    /**
+     * Creates new, empty MinoCells.
+     *
+     * @param width
+     *            The width of the Board, positive.
+     * @param height
+     *            The height of the Board, positive.
+     */
+    MinoCells ( int width, int height ) {
+        rows = new Mino[height][width];
+    }
+
+    @Override
+    Mino read ( int x, int y ) {
+        return rows[y][x];
+    }
+
+    @Override
+    void write ( int x, int y, Mino mino ) {
+        rows[y][x] = mino;
+    }
+
+    @Override
+    Object removeRows ( int[] removed, int top ) {
+        Mino[][] cells = new Mino[removed.length][];
+        int width = rows[0].length;
+        // Move each remaining row down past the removed rows below it.
+        int count = 0;
+        for ( int y = removed[0]; y < top; y++ ) {
+            if ( count < removed.length && removed[count] == y ) {
+                cells[count++] = rows[y];
+            } else {
+                rows[y - count] = rows[y];
+            }
+        }
+        for ( int y = top - count; y < top; y++ ) {
+            rows[y] = new Mino[width];
+        }
+        return cells;
+    }
+
+    @Override
+    void restoreRows ( int[] removed, Object cells, int end ) {
+        Mino[][] saved = (Mino[][]) cells;
+        int count = removed.length - 1;
+        int source = end - removed.length - 1;
+        // Work downwards, so no row is overwritten before it is moved.
+        for ( int y = end - 1; y >= removed[0]; y-- ) {
+            if ( count >= 0 && removed[count] == y ) {
+                rows[y] = saved[count--];
+            } else {
+                rows[y] = rows[source--];
+            }
+        }
+    }
+
+    @Override
+    Object insertRows ( int count, Mino[] row ) {
+        int height = rows.length;
+        Mino[][] removed = new Mino[count][];
+        System.arraycopy( rows, height - count, removed, 0, count );
+        System.arraycopy( rows, 0, rows, count, height - count );
+        for ( int y = 0; y < count; y++ ) {
+            rows[y] = row.clone();
+        }
+        return removed;
+    }
+
+    @Override
+    void uninsertRows ( int count, Object cells ) {
+        int height = rows.length;
+        System.arraycopy( rows, count, rows, 0, height - count );
+        System.arraycopy( cells, 0, rows, height - count, count );
+    }
+}
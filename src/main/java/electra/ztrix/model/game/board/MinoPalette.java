@@ -0,0 +1,103 @@
+package electra.ztrix.model.game.board;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, indexed set of Minos. A Board created with a MinoPalette
+ * stores each cell as a single byte indexing into the palette, rather than as
+ * a reference to a Mino. Index 0 always represents an empty cell.
+ *
+ * @author Electra
+ */
+public final class MinoPalette {
+    /** The maximum number of Minos a MinoPalette can hold. */
+    public static final int MAX_SIZE = 255;
+
+    /** The Minos of the palette, by index, with null at index 0. */
+    private final Mino[] minos;
+    /** The index of each Mino of the palette. */
+    private final Map<Mino, Integer> indices;
+
+    /**
+     * Creates a new MinoPalette from an Iterable of Minos.
+     *
+     * @param minos
+     *            The Minos of the palette, non-null, with no null elements and
+     *            at most MAX_SIZE distinct Minos.
+     */
+    public MinoPalette ( Iterable<Mino> minos ) {
+        if ( minos == null ) {
+            throw new NullPointerException( "MinoPalette(minos) must be non-null." );
+        }
+        // Index each distinct Mino, leaving index 0 for empty cells.
+        List<Mino> list = new ArrayList<>();
+        list.add( null );
+        indices = new IdentityHashMap<>();
+        for ( Mino mino : minos ) {
+            if ( mino == null ) {
+                throw new NullPointerException( "MinoPalette(minos) must not contain null." );
+            }
+            if ( !indices.containsKey( mino ) ) {
+                indices.put( mino, list.size() );
+                list.add( mino );
+            }
+        }
+        if ( indices.size() > MAX_SIZE ) {
+            throw new IllegalArgumentException( "MinoPalette(minos) must have at most " + MAX_SIZE + " Minos." );
+        }
+        this.minos = list.toArray( new Mino[0] );
+    }
+
+    /**
+     * Gets the number of Minos in the palette, not counting the empty cell.
+     *
+     * @return the size.
+     */
+    public int size () {
+        return minos.length - 1;
+    }
+
+    /**
+     * Checks whether a Mino is in the palette. Null is always in the palette,
+     * as the empty cell.
+     *
+     * @param mino
+     *            The Mino to check.
+     * @return True if the Mino has an index.
+     */
+    public boolean contains ( Mino mino ) {
+        return mino == null || indices.containsKey( mino );
+    }
+
+    /**
+     * Gets the index of a Mino in the palette.
+     *
+     * @param mino
+     *            The Mino to find, or null for the empty cell.
+     * @return The index of the Mino, or -1 if it is not in the palette.
+     */
+    public int indexOf ( Mino mino ) {
+        if ( mino == null ) {
+            return 0;
+        }
+        Integer index = indices.get( mino );
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Gets the Mino at an index of the palette.
+     *
+     * @param index
+     *            The index, from 0 to the size inclusive.
+     * @return The Mino at the index, or null for index 0.
+     */
+    public Mino getMino ( int index ) {
+        if ( index < 0 || index >= minos.length ) {
+            throw new IndexOutOfBoundsException( "getMino(index) must be within the palette." );
+        }
+        return minos[index];
+    }
+}
@@ -0,0 +1,257 @@
+package electra.ztrix.model.game.board;
+
+import electra.ztrix.model.game.common.Region;
+import electra.ztrix.model.game.common.Zobrist;
+
+/**
+ * Static helpers for occupancy bitmasks, where each row of a Board is stored
+ * as 64-column words with one bit per column. Rows are either separate arrays,
+ * or laid out one after another in a single flat array, with row y starting
+ * at word y * words.
+ *
+ * @author Electra
+ */
+final class Occupancy {
+    /** The number of columns stored in each word of a row. */
+    static final int WORD_SIZE = Long.SIZE;
+
+    /**
+     * Prevents instantiation of the static helper class.
+     */
+    private Occupancy () {
+    }
+
+    /**
+     * Gets the number of words needed to store a row of a given width.
+     *
+     * @param width
+     *            The width of the row, positive.
+     * @return The number of words in the row.
+     */
+    static int words ( int width ) {
+        return ( width + WORD_SIZE - 1 ) / WORD_SIZE;
+    }
+
+    /**
+     * Gets the index of the word containing a column.
+     *
+     * @param x
+     *            The column, non-negative.
+     * @return The index of the word.
+     */
+    static int word ( int x ) {
+        return x >>> 6;
+    }
+
+    /**
+     * Gets the single bit representing a column within its word.
+     *
+     * @param x
+     *            The column, non-negative.
+     * @return The bit of the column.
+     */
+    static long bit ( int x ) {
+        return 1L << ( x & ( WORD_SIZE - 1 ) );
+    }
+
+    /**
+     * Checks whether a column of a row is occupied.
+     *
+     * @param row
+     *            The occupancy of the row.
+     * @param x
+     *            The column, within the row.
+     * @return True if the column is occupied.
+     */
+    static boolean isSet ( long[] row, int x ) {
+        return ( row[word( x )] & bit( x ) ) != 0;
+    }
+
+    /**
+     * Sets or clears the occupancy of a column of a row.
+     *
+     * @param row
+     *            The occupancy of the row.
+     * @param x
+     *            The column, within the row.
+     * @param occupied
+     *            Whether the column should be occupied.
+     */
+    static void set ( long[] row, int x, boolean occupied ) {
+        if ( occupied ) {
+            row[word( x )] |= bit( x );
+        } else {
+            row[word( x )] &= ~bit( x );
+        }
+    }
+
+    /**
+     * Gets the mask of a word covering a span of columns.
+     *
+     * @param word
+     *            The index of the word.
+     * @param start
+     *            The first column of the span, inclusive.
+     * @param end
+     *            The last column of the span, exclusive.
+     * @return The bits of the word that are within the span.
+     */
+    static long spanMask ( int word, int start, int end ) {
+        int base = word * WORD_SIZE;
+        int from = Math.max( start - base, 0 );
+        int to = Math.min( end - base, WORD_SIZE );
+        if ( from >= to ) {
+            return 0;
+        }
+        long high = to == WORD_SIZE ? -1L : ( 1L << to ) - 1;
+        return high & ( -1L << from );
+    }
+
+    /**
+     * Checks whether any column within a span of a row is occupied.
+     *
+     * @param row
+     *            The occupancy of the row.
+     * @param start
+     *            The first column of the span, inclusive and within the row.
+     * @param end
+     *            The last column of the span, exclusive and within the row.
+     * @return True if any column in the span is occupied.
+     */
+    static boolean isSpanOccupied ( long[] row, int start, int end ) {
+        return isSpanOccupied( row, 0, start, end );
+    }
+
+    /**
+     * Checks whether any column within a span of a row of a flat occupancy
+     * array is occupied.
+     *
+     * @param occupancy
+     *            The occupancy, with the row starting at a base word.
+     * @param base
+     *            The index of the row's first word.
+     * @param start
+     *            The first column of the span, inclusive and within the row.
+     * @param end
+     *            The last column of the span, exclusive and within the row.
+     * @return True if any column in the span is occupied.
+     */
+    static boolean isSpanOccupied ( long[] occupancy, int base, int start, int end ) {
+        int last = word( end - 1 );
+        for ( int w = word( start ); w <= last; w++ ) {
+            if ( ( occupancy[base + w] & spanMask( w, start, end ) ) != 0 ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the occupancy of a row with every column filled.
+     *
+     * @param width
+     *            The width of the row, positive.
+     * @return The full row.
+     */
+    static long[] fullRow ( int width ) {
+        long[] row = new long[words( width )];
+        for ( int w = 0; w < row.length; w++ ) {
+            row[w] = spanMask( w, 0, width );
+        }
+        return row;
+    }
+
+    /**
+     * Checks whether a Region is entirely unoccupied, a row span at a time.
+     *
+     * @param occupancy
+     *            The occupancy of each row.
+     * @param region
+     *            The Region to check, within the bounds of the occupancy.
+     * @return True if no position of the Region is occupied.
+     */
+    static boolean isRegionEmpty ( long[][] occupancy, Region region ) {
+        return region.forEachRowSpan( ( y, start, end ) -> !isSpanOccupied( occupancy[y], start, end ) );
+    }
+
+    /**
+     * Checks whether a Region is entirely unoccupied in a flat occupancy
+     * array, a row span at a time.
+     *
+     * @param occupancy
+     *            The occupancy of every row, one after another.
+     * @param words
+     *            The number of words in each row.
+     * @param region
+     *            The Region to check, within the bounds of the occupancy.
+     * @return True if no position of the Region is occupied.
+     */
+    static boolean isRegionEmpty ( long[] occupancy, int words, Region region ) {
+        return region.forEachRowSpan( ( y, start, end ) -> !isSpanOccupied( occupancy, y * words, start, end ) );
+    }
+
+    /**
+     * Calculates the Zobrist hash of the occupancy of each row, which is the
+     * XOR of the key of each occupied cell.
+     *
+     * @param occupancy
+     *            The occupancy of each row.
+     * @return The hash.
+     */
+    static long hash ( long[][] occupancy ) {
+        long hash = 0;
+        for ( int y = 0; y < occupancy.length; y++ ) {
+            hash ^= hashRow( occupancy[y], 0, occupancy[y].length, y );
+        }
+        return hash;
+    }
+
+    /**
+     * Calculates the Zobrist hash of a span of rows of a flat occupancy
+     * array. XORing a Board's hash with the hash of a span before and after
+     * changing it updates the hash without visiting the other rows.
+     *
+     * @param occupancy
+     *            The occupancy of every row, one after another.
+     * @param words
+     *            The number of words in each row.
+     * @param start
+     *            The first row, inclusive.
+     * @param end
+     *            The last row, exclusive.
+     * @return The hash of the span.
+     */
+    static long hash ( long[] occupancy, int words, int start, int end ) {
+        long hash = 0;
+        for ( int y = start; y < end; y++ ) {
+            hash ^= hashRow( occupancy, y * words, words, y );
+        }
+        return hash;
+    }
+
+    /**
+     * Calculates the Zobrist hash of a single row.
+     *
+     * @param occupancy
+     *            The occupancy, with the row starting at a base word.
+     * @param base
+     *            The index of the row's first word.
+     * @param words
+     *            The number of words in the row.
+     * @param y
+     *            The row's Y component.
+     * @return The hash of the row.
+     */
+    private static long hashRow ( long[] occupancy, int base, int words, int y ) {
+        long hash = 0;
+        for ( int w = 0; w < words; w++ ) {
+            long bits = occupancy[base + w];
+            while ( bits != 0 ) {
+                int x = w * WORD_SIZE + Long.numberOfTrailingZeros( bits );
+                hash ^= Zobrist.cell( x, y );
+                bits &= bits - 1;
+            }
+        }
+        return hash;
+    }
+}
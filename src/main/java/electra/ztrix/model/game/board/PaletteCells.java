@@ -0,0 +1,94 @@
+package electra.ztrix.model.game.board;
+
+import java.util.Arrays;
+
+/**
+ * CellStorage that stores each cell as a byte index into a MinoPalette, every
+ * row in one flat array. This holds a cell in a single byte with no per-row
+ * array headers, and rows are moved with bulk array copies.
+ *
+ * @author Electra
+ */
+final class PaletteCells extends CellStorage {
+    /** The MinoPalette the cells index into. */
+    private final MinoPalette palette;
+    /** The width of each row. */
+    private final int width;
+    /** The palette index of each cell, at y * width + x. */
+    private final byte[] cells;
+
+    /**
+     * Creates new, empty PaletteCells.
+     *
+     * @param width
+     *            The width of the Board, positive.
+     * @param height
+     *            The height of the Board, positive.
+     * @param palette
+     *            The MinoPalette to store indices into, non-null.
+     */
+    PaletteCells ( int width, int height, MinoPalette palette ) {
+        this.palette = palette;
+        this.width = width;
+        this.cells = new byte[width * height];
+    }
+
+    @Override
+    Mino read ( int x, int y ) {
+        return palette.getMino( cells[y * width + x] & 0xFF );
+    }
+
+    @Override
+    void write ( int x, int y, Mino mino ) {
+        cells[y * width + x] = (byte) palette.indexOf( mino );
+    }
+
+    @Override
+    Object removeRows ( int[] removed, int top ) {
+        byte[] saved = new byte[removed.length * width];
+        // Move each run of remaining rows down past the removed rows below it.
+        for ( int i = 0; i < removed.length; i++ ) {
+            int row = removed[i];
+            int next = i + 1 < removed.length ? removed[i + 1] : top;
+            System.arraycopy( cells, row * width, saved, i * width, width );
+            System.arraycopy( cells, ( row + 1 ) * width, cells, ( row - i ) * width, ( next - row - 1 ) * width );
+        }
+        Arrays.fill( cells, ( top - removed.length ) * width, top * width, (byte) 0 );
+        return saved;
+    }
+
+    @Override
+    void restoreRows ( int[] removed, Object cells, int end ) {
+        byte[] saved = (byte[]) cells;
+        // Move each run of rows back up, from the highest, then put back the
+        // removed row below it.
+        for ( int i = removed.length - 1; i >= 0; i-- ) {
+            int row = removed[i];
+            int next = i + 1 < removed.length ? removed[i + 1] : end;
+            System.arraycopy( this.cells, ( row - i ) * width, this.cells, ( row + 1 ) * width,
+                    ( next - row - 1 ) * width );
+            System.arraycopy( saved, i * width, this.cells, row * width, width );
+        }
+    }
+
+    @Override
+    Object insertRows ( int count, Mino[] row ) {
+        int size = cells.length;
+        byte[] removed = Arrays.copyOfRange( cells, size - count * width, size );
+        System.arraycopy( cells, 0, cells, count * width, size - count * width );
+        for ( int x = 0; x < width && count > 0; x++ ) {
+            cells[x] = (byte) palette.indexOf( row[x] );
+        }
+        for ( int y = 1; y < count; y++ ) {
+            System.arraycopy( cells, 0, cells, y * width, width );
+        }
+        return removed;
+    }
+
+    @Override
+    void uninsertRows ( int count, Object cells ) {
+        int size = this.cells.length;
+        System.arraycopy( this.cells, count * width, this.cells, 0, size - count * width );
+        System.arraycopy( cells, 0, this.cells, size - count * width, count * width );
+    }
+}
@@ -0,0 +1,327 @@
+package electra.ztrix.model.game.board;
+
+import java.util.Arrays;
+
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rectangle;
+import electra.ztrix.model.game.common.Region;
+import electra.ztrix.model.game.common.Zobrist;
+
+/**
+ * An immutable grid of Minos. Modifying methods return a new PersistentBoard
+ * that shares every untouched row with the original, so forking a Board for
+ * each branch of a search only copies the rows that change. As rows are never
+ * written after creation, a PersistentBoard is safe to read from any number of
+ * threads. A PersistentBoard keeps the MinoPalette of the Board it came from,
+ * so converting it back gives a Board with the same storage.
+ *
+ * @author Electra
+ */
+public final class PersistentBoard implements BoardView {
+    /** The Rectangle bounding box of the Board. */
+    private final Rectangle bounds;
+    /** The Minos of each row, possibly shared with other PersistentBoards. */
+    private final Mino[][] matrix;
+    /** The occupancy of each row, shared alongside the Minos. */
+    private final long[][] occupancy;
+    /** The Zobrist hash of the occupancy. */
+    private final long hash;
+    /** The MinoPalette of the Minos, or null if any Mino can be set. */
+    private final MinoPalette palette;
+
+    /**
+     * Creates a new, empty PersistentBoard with a given size. Every row
+     * starts out as the same shared empty row.
+     *
+     * @param size
+     *            The size as a Coordinate, non-null with X and Y positive.
+     */
+    public PersistentBoard ( Coordinate size ) {
+        this( size, null );
+    }
+
+    /**
+     * Creates a new, empty PersistentBoard with a given size, whose Minos
+     * must be in a MinoPalette. Every row starts out as the same shared empty
+     * row.
+     *
+     * @param size
+     *            The size as a Coordinate, non-null with X and Y positive.
+     * @param palette
+     *            The MinoPalette of the Board, or null to allow any Mino.
+     */
+    public PersistentBoard ( Coordinate size, MinoPalette palette ) {
+        this.bounds = new Rectangle( Coordinate.ORIGIN, size );
+        this.matrix = new Mino[size.y()][];
+        this.occupancy = new long[size.y()][];
+        this.hash = 0;
+        this.palette = palette;
+        Mino[] emptyMinos = new Mino[size.x()];
+        long[] emptyMask = new long[Occupancy.words( size.x() )];
+        for ( int y = 0; y < size.y(); y++ ) {
+            matrix[y] = emptyMinos;
+            occupancy[y] = emptyMask;
+        }
+    }
+
+    /**
+     * Creates a new PersistentBoard from rows that are no longer written.
+     *
+     * @param bounds
+     *            The Rectangle bounding box of the Board.
+     * @param matrix
+     *            The Minos of each row.
+     * @param occupancy
+     *            The occupancy of each row.
+     * @param hash
+     *            The Zobrist hash of the occupancy.
+     * @param palette
+     *            The MinoPalette of the Minos, or null.
+     */
+    private PersistentBoard ( Rectangle bounds, Mino[][] matrix, long[][] occupancy, long hash,
+            MinoPalette palette ) {
+        this.bounds = bounds;
+        this.matrix = matrix;
+        this.occupancy = occupancy;
+        this.hash = hash;
+        this.palette = palette;
+    }
+
+    /**
+     * Creates a PersistentBoard with the same contents as a Board.
+     *
+     * @param board
+     *            The Board to copy, non-null.
+     * @return The new PersistentBoard.
+     */
+    public static PersistentBoard of ( Board board ) {
+        if ( board == null ) {
+            throw new NullPointerException( "of(board) must be non-null." );
+        }
+        Rectangle bounds = board.getBounds();
+        int height = bounds.getMaximum().y();
+        Mino[][] matrix = new Mino[height][];
+        long[][] occupancy = new long[height][];
+        for ( int y = 0; y < height; y++ ) {
+            matrix[y] = board.copyMinoRow( y );
+            occupancy[y] = board.copyOccupancyRow( y );
+        }
+        return new PersistentBoard( bounds, matrix, occupancy, board.hash(), board.getPalette() );
+    }
+
+    /**
+     * Creates a mutable Board with the same contents as this one, storing its
+     * cells in the same MinoPalette if this one has one.
+     *
+     * @return The new Board.
+     */
+    public Board toBoard () {
+        Board board = new Board( bounds.getMaximum(), palette );
+        for ( int y = 0; y < matrix.length; y++ ) {
+            board.loadRow( y, matrix[y] );
+        }
+        return board;
+    }
+
+    /**
+     * Gets the MinoPalette the Board's Minos must be in.
+     *
+     * @return the MinoPalette, or null if any Mino can be set.
+     */
+    public MinoPalette getPalette () {
+        return palette;
+    }
+
+    @Override
+    public long hash () {
+        return hash;
+    }
+
+    @Override
+    public Rectangle getBounds () {
+        return bounds;
+    }
+
+    @Override
+    public Mino getMinoAt ( Coordinate position ) {
+        if ( position == null ) {
+            throw new NullPointerException( "getMinoAt(position) must be non-null." );
+        }
+        if ( !bounds.contains( position ) ) {
+            throw new IndexOutOfBoundsException( "getMinoAt(position) must be within the Board's bounds." );
+        }
+        return matrix[position.y()][position.x()];
+    }
+
+    @Override
+    public boolean isOccupied ( int x, int y ) {
+        if ( x < 0 || y < 0 || x >= bounds.getMaximum().x() || y >= bounds.getMaximum().y() ) {
+            throw new IndexOutOfBoundsException( "isOccupied(x, y) must be within the Board's bounds." );
+        }
+        return Occupancy.isSet( occupancy[y], x );
+    }
+
+    @Override
+    public long getRowOccupancy ( int y, int word ) {
+        if ( y < 0 || y >= occupancy.length ) {
+            throw new IndexOutOfBoundsException( "getRowOccupancy(y) must be within the Board's bounds." );
+        }
+        if ( word < 0 || word >= occupancy[y].length ) {
+            throw new IndexOutOfBoundsException( "getRowOccupancy(word) must be within the row." );
+        }
+        return occupancy[y][word];
+    }
+
+    @Override
+    public boolean isRegionEmpty ( Region region ) {
+        if ( region == null ) {
+            throw new NullPointerException( "isRegionEmpty(region) must be non-null." );
+        }
+        if ( !bounds.containsRegion( region ) ) {
+            return false;
+        }
+        return Occupancy.isRegionEmpty( occupancy, region );
+    }
+
+    /**
+     * Creates a new PersistentBoard with the Mino at a particular position
+     * changed. Only the row containing the position is copied.
+     *
+     * @param position
+     *            The position, non-null and within the Board's bounds.
+     * @param mino
+     *            The Mino to set, non-null.
+     * @return The new PersistentBoard.
+     */
+    public PersistentBoard withMinoAt ( Coordinate position, Mino mino ) {
+        if ( mino == null ) {
+            throw new NullPointerException( "withMinoAt(mino) must be non-null." );
+        }
+        if ( position == null ) {
+            throw new NullPointerException( "withMinoAt(position) must be non-null." );
+        }
+        if ( !bounds.contains( position ) ) {
+            throw new IndexOutOfBoundsException( "withMinoAt(position) must be within the Board's bounds." );
+        }
+        checkPalette( mino, "withMinoAt" );
+        // Share every row, then replace the touched row with a copy.
+        Mino[][] newMatrix = matrix.clone();
+        long[][] newOccupancy = occupancy.clone();
+        int y = position.y();
+        newMatrix[y] = matrix[y].clone();
+        newOccupancy[y] = occupancy[y].clone();
+        newMatrix[y][position.x()] = mino;
+        long newHash = hash;
+        if ( !Occupancy.isSet( newOccupancy[y], position.x() ) ) {
+            newHash ^= Zobrist.cell( position.x(), y );
+            Occupancy.set( newOccupancy[y], position.x(), true );
+        }
+        return new PersistentBoard( bounds, newMatrix, newOccupancy, newHash, palette );
+    }
+
+    /**
+     * Checks that a Mino can be stored on the Board.
+     *
+     * @param mino
+     *            The Mino to check, non-null.
+     * @param method
+     *            The name of the calling method, for the Exception message.
+     */
+    private void checkPalette ( Mino mino, String method ) {
+        if ( palette != null && !palette.contains( mino ) ) {
+            throw new IllegalArgumentException( method + "(mino) must be in the Board's palette." );
+        }
+    }
+
+    /**
+     * Creates a new PersistentBoard with an entire Region set to a particular
+     * Mino. Only the rows the Region touches are copied, each at most once.
+     *
+     * @param region
+     *            The Region to set, non-null and within the Board's bounds.
+     * @param mino
+     *            The Mino to set, non-null.
+     * @return The new PersistentBoard.
+     */
+    public PersistentBoard withRegion ( Region region, Mino mino ) {
+        if ( region == null ) {
+            throw new NullPointerException( "withRegion(region) must be non-null." );
+        }
+        if ( !bounds.containsRegion( region ) ) {
+            throw new IndexOutOfBoundsException( "withRegion(region) must be within the Board's bounds." );
+        }
+        if ( mino == null ) {
+            throw new NullPointerException( "withRegion(mino) must be non-null." );
+        }
+        checkPalette( mino, "withRegion" );
+        // Share every row, and copy each row the first time it is written.
+        Mino[][] newMatrix = matrix.clone();
+        long[][] newOccupancy = occupancy.clone();
+        long[] newHash = { hash };
+        region.forEachPosition( ( x, y ) -> {
+            if ( newMatrix[y] == matrix[y] ) {
+                newMatrix[y] = matrix[y].clone();
+                newOccupancy[y] = occupancy[y].clone();
+            }
+            newMatrix[y][x] = mino;
+            if ( !Occupancy.isSet( newOccupancy[y], x ) ) {
+                newHash[0] ^= Zobrist.cell( x, y );
+                Occupancy.set( newOccupancy[y], x, true );
+            }
+            return true;
+        } );
+        return new PersistentBoard( bounds, newMatrix, newOccupancy, newHash[0], palette );
+    }
+
+    /**
+     * Creates a new PersistentBoard with every full row removed, and the rows
+     * above moved down. Rows are moved by reference, so no row is copied.
+     *
+     * @return The new PersistentBoard, or this one if no row is full.
+     */
+    public PersistentBoard withFullRowsCleared () {
+        int width = bounds.getMaximum().x();
+        long[] fullRow = Occupancy.fullRow( width );
+        Mino[][] newMatrix = null;
+        long[][] newOccupancy = null;
+        int cleared = 0;
+        for ( int y = 0; y < matrix.length; y++ ) {
+            if ( Arrays.equals( occupancy[y], fullRow ) ) {
+                // Only start a new Board once a full row is found.
+                if ( newMatrix == null ) {
+                    newMatrix = matrix.clone();
+                    newOccupancy = occupancy.clone();
+                }
+                cleared++;
+            } else if ( cleared > 0 ) {
+                newMatrix[y - cleared] = matrix[y];
+                newOccupancy[y - cleared] = occupancy[y];
+            }
+        }
+        if ( cleared == 0 ) {
+            return this;
+        }
+        // Fill the top of the Board with a shared empty row.
+        Mino[] emptyMinos = new Mino[width];
+        long[] emptyMask = new long[fullRow.length];
+        for ( int y = matrix.length - cleared; y < matrix.length; y++ ) {
+            newMatrix[y] = emptyMinos;
+            newOccupancy[y] = emptyMask;
+        }
+        return new PersistentBoard( bounds, newMatrix, newOccupancy, Occupancy.hash( newOccupancy ), palette );
+    }
+
+    /**
+     * Checks whether a row is shared with another PersistentBoard, meaning
+     * neither Board has modified it since one was derived from the other.
+     *
+     * @param other
+     *            The other PersistentBoard.
+     * @param y
+     *            The row, within both Boards' bounds.
+     * @return True if the row is shared.
+     */
+    boolean sharesRow ( PersistentBoard other, int y ) {
+        return matrix[y] == other.matrix[y];
+    }
+}
@@ -0,0 +1,393 @@
+package electra.ztrix.model.game.common;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A small Region stored as a bitmask over an 8x8 window, plus the position of
+ * the window's minimum corner. Translating only moves the origin, rotating
+ * permutes the bits through precomputed tables, and checking membership is a
+ * single bit test. Suited to piece shapes and other small Regions.
+ * <p>
+ * The mask is kept normalized, so its lowest row and column are both
+ * occupied, and the origin is the minimum of the Region's bounds.
+ *
+ * @author Electra
+ */
+public class BitmaskRegion implements Region {
+    /** The width and height of the window. */
+    public static final int SIZE = 8;
+
+    /** For each Rotation, by ordinal, the bit each window bit rotates to. */
+    private static final int[][] PERMUTATIONS = generatePermutations();
+
+    /** The bits of the window, row-major from the origin. */
+    private final long mask;
+    /** The X component of the window's minimum corner. */
+    private final int originX;
+    /** The Y component of the window's minimum corner. */
+    private final int originY;
+    /** The Rectangle bounding box of the Region, created when first needed. */
+    private Rectangle bounds;
+    /** The value hash code of the Region, or 0 until calculated. */
+    private int hash;
+
+    /**
+     * Generates the bit permutation of each Rotation. Each window position
+     * (u, v) moves to the position it rotates to within the rotated window.
+     *
+     * @return The permutations, indexed by Rotation ordinal then bit.
+     */
+    private static int[][] generatePermutations () {
+        Rotation[] rotations = Rotation.values();
+        int[][] permutations = new int[rotations.length][Long.SIZE];
+        int last = SIZE - 1;
+        for ( Rotation rotation : rotations ) {
+            for ( int v = 0; v < SIZE; v++ ) {
+                for ( int u = 0; u < SIZE; u++ ) {
+                    int newU;
+                    int newV;
+                    switch ( rotation ) {
+                    case CW:
+                        newU = v;
+                        newV = last - u;
+                        break;
+                    case R180:
+                        newU = last - u;
+                        newV = last - v;
+                        break;
+                    case CCW:
+                        newU = last - v;
+                        newV = u;
+                        break;
+                    default:
+                        newU = u;
+                        newV = v;
+                        break;
+                    }
+                    permutations[rotation.ordinal()][bit( u, v )] = bit( newU, newV );
+                }
+            }
+        }
+        return permutations;
+    }
+
+    /**
+     * Gets the index of the bit of a window position.
+     *
+     * @param u
+     *            The X component within the window.
+     * @param v
+     *            The Y component within the window.
+     * @return The index of the bit.
+     */
+    private static int bit ( int u, int v ) {
+        return v * SIZE + u;
+    }
+
+    /**
+     * Creates a new BitmaskRegion from an Iterable of positions.
+     *
+     * @param positions
+     *            The positions contained in the Region, non-null, non-empty,
+     *            and fitting within an 8x8 square.
+     */
+    @Contract(value = "null -> fail", pure = true)
+    public BitmaskRegion ( Iterable<Coordinate> positions ) {
+        if ( positions == null ) {
+            throw new NullPointerException( "BitmaskRegion(positions) must be non-null." );
+        }
+        // Find the minimum corner, which becomes the origin.
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        for ( Coordinate position : positions ) {
+            minX = Math.min( minX, position.x() );
+            minY = Math.min( minY, position.y() );
+        }
+        // Cannot have an empty Region.
+        if ( minX == Integer.MAX_VALUE ) {
+            throw new IllegalArgumentException( "BitmaskRegion(positions) must be non-empty." );
+        }
+        long bits = 0;
+        for ( Coordinate position : positions ) {
+            int u = position.x() - minX;
+            int v = position.y() - minY;
+            if ( u >= SIZE || v >= SIZE ) {
+                throw new IllegalArgumentException( "BitmaskRegion(positions) must fit within an 8x8 square." );
+            }
+            bits |= 1L << bit( u, v );
+        }
+        this.mask = bits;
+        this.originX = minX;
+        this.originY = minY;
+    }
+
+    /**
+     * Creates a new BitmaskRegion from a normalized, non-empty mask.
+     *
+     * @param mask
+     *            The bits of the window.
+     * @param originX
+     *            The X component of the window's minimum corner.
+     * @param originY
+     *            The Y component of the window's minimum corner.
+     */
+    private BitmaskRegion ( long mask, int originX, int originY ) {
+        this.mask = mask;
+        this.originX = originX;
+        this.originY = originY;
+    }
+
+    /**
+     * Creates a new BitmaskRegion from any non-empty mask, shifting it so its
+     * lowest row and column are occupied, and moving the origin to match.
+     *
+     * @param mask
+     *            The bits of the window, non-zero.
+     * @param originX
+     *            The X component of the window's minimum corner.
+     * @param originY
+     *            The Y component of the window's minimum corner.
+     * @return The new BitmaskRegion.
+     */
+    static BitmaskRegion normalize ( long mask, int originX, int originY ) {
+        int rows = Long.numberOfTrailingZeros( mask ) / SIZE;
+        mask >>>= rows * SIZE;
+        int columns = Long.numberOfTrailingZeros( columnsOf( mask ) );
+        // No bit is below the lowest column, so no bit crosses into a row.
+        mask >>>= columns;
+        return new BitmaskRegion( mask, originX + columns, originY + rows );
+    }
+
+    /**
+     * Gets the occupied columns of a mask, as the low byte of a long.
+     *
+     * @param mask
+     *            The bits of the window.
+     * @return A bit for each column with any bit set.
+     */
+    private static long columnsOf ( long mask ) {
+        mask |= mask >>> 32;
+        mask |= mask >>> 16;
+        mask |= mask >>> 8;
+        return mask & 0xFF;
+    }
+
+    /**
+     * Gets the bits of the window, row-major from the origin.
+     *
+     * @return the mask.
+     */
+    public long getMask () {
+        return mask;
+    }
+
+    /**
+     * Gets the minimum corner of the window.
+     *
+     * @return the origin.
+     */
+    public Coordinate getOrigin () {
+        return new Coordinate( originX, originY );
+    }
+
+    /**
+     * Gets the X component of the window's minimum corner.
+     *
+     * @return the X component of the origin.
+     */
+    int getOriginX () {
+        return originX;
+    }
+
+    /**
+     * Gets the Y component of the window's minimum corner.
+     *
+     * @return the Y component of the origin.
+     */
+    int getOriginY () {
+        return originY;
+    }
+
+    @Override
+    public int size () {
+        return Long.bitCount( mask );
+    }
+
+    /**
+     * Checks whether the Region contains a position.
+     *
+     * @param x
+     *            The X component of the position.
+     * @param y
+     *            The Y component of the position.
+     * @return True if the Region contains the position.
+     */
+    public boolean contains ( int x, int y ) {
+        int u = x - originX;
+        int v = y - originY;
+        if ( u < 0 || v < 0 || u >= SIZE || v >= SIZE ) {
+            return false;
+        }
+        return ( mask & ( 1L << bit( u, v ) ) ) != 0;
+    }
+
+    @Override
+    public boolean contains ( Coordinate position ) {
+        if ( position == null ) {
+            return false;
+        }
+        return contains( position.x(), position.y() );
+    }
+
+    @Override
+    public boolean containsPacked ( long packed ) {
+        return contains( PackedCoordinate.x( packed ), PackedCoordinate.y( packed ) );
+    }
+
+    @Override
+    public @NotNull Rectangle getBounds () {
+        if ( bounds == null ) {
+            int width = Long.SIZE - Long.numberOfLeadingZeros( columnsOf( mask ) );
+            int height = ( Long.SIZE - 1 - Long.numberOfLeadingZeros( mask ) ) / SIZE + 1;
+            bounds = new Rectangle( originX, originY, originX + width, originY + height );
+        }
+        return bounds;
+    }
+
+    @Override
+    public BitmaskRegion translate ( Coordinate offset ) {
+        if ( offset == null ) {
+            throw new NullPointerException( "translate(offset) must be non-null." );
+        }
+        return new BitmaskRegion( mask, originX + offset.x(), originY + offset.y() );
+    }
+
+    @Override
+    public BitmaskRegion rotate ( Rotation direction, Coordinate center ) {
+        if ( direction == null ) {
+            throw new NullPointerException( "rotate(direction) must be non-null." );
+        }
+        if ( center == null ) {
+            throw new NullPointerException( "rotate(center) must be non-null." );
+        }
+        // Permute each bit within the window.
+        int[] permutation = PERMUTATIONS[direction.ordinal()];
+        long rotated = 0;
+        for ( long bits = mask; bits != 0; bits &= bits - 1 ) {
+            rotated |= 1L << permutation[Long.numberOfTrailingZeros( bits )];
+        }
+        // The rotated window's origin is the minimum of its rotated corners.
+        Coordinate first = new Coordinate( originX, originY ).rotate( direction, center );
+        Coordinate last = new Coordinate( originX + SIZE - 1, originY + SIZE - 1 ).rotate( direction, center );
+        int newX = Math.min( first.x(), last.x() );
+        int newY = Math.min( first.y(), last.y() );
+        return normalize( rotated, newX, newY );
+    }
+
+    @Override
+    public BitmaskRegion transform ( Transform transform ) {
+        if ( transform == null ) {
+            throw new NullPointerException( "transform(transform) must be non-null." );
+        }
+        // Permute each bit within the window.
+        int[] permutation = PERMUTATIONS[transform.rotation().ordinal()];
+        long rotated = 0;
+        for ( long bits = mask; bits != 0; bits &= bits - 1 ) {
+            rotated |= 1L << permutation[Long.numberOfTrailingZeros( bits )];
+        }
+        // The transformed window's origin is the minimum of its corners.
+        Rectangle window = transform.apply( new Rectangle( originX, originY, originX + SIZE, originY + SIZE ) );
+        return normalize( rotated, window.getMinimum().x(), window.getMinimum().y() );
+    }
+
+    @Override
+    public boolean forEachPosition ( PositionVisitor visitor ) {
+        if ( visitor == null ) {
+            throw new NullPointerException( "forEachPosition(visitor) must be non-null." );
+        }
+        for ( long bits = mask; bits != 0; bits &= bits - 1 ) {
+            int index = Long.numberOfTrailingZeros( bits );
+            if ( !visitor.visit( originX + index % SIZE, originY + index / SIZE ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean forEachRowSpan ( RowSpanVisitor visitor ) {
+        if ( visitor == null ) {
+            throw new NullPointerException( "forEachRowSpan(visitor) must be non-null." );
+        }
+        for ( int v = 0; v < SIZE; v++ ) {
+            long row = ( mask >>> ( v * SIZE ) ) & 0xFF;
+            // Visit each run of set bits in the row.
+            while ( row != 0 ) {
+                int start = Long.numberOfTrailingZeros( row );
+                int length = Long.numberOfTrailingZeros( ~( row >>> start ) );
+                if ( !visitor.visit( originY + v, originX + start, originX + start + length ) ) {
+                    return false;
+                }
+                row &= -1L << ( start + length );
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Iterator<Coordinate> iterator () {
+        return new Iterator<>() {
+            /** The bits not yet returned by the Iterator. */
+            private long remaining = mask;
+
+            @Override
+            public boolean hasNext () {
+                return remaining != 0;
+            }
+
+            @Override
+            public Coordinate next () {
+                if ( remaining == 0 ) {
+                    throw new NoSuchElementException();
+                }
+                int index = Long.numberOfTrailingZeros( remaining );
+                remaining &= remaining - 1;
+                return new Coordinate( originX + index % SIZE, originY + index / SIZE );
+            }
+        };
+    }
+
+    @Override
+    public String toString () {
+        StringBuilder builder = new StringBuilder( "BitmaskRegion" );
+        builder.append( getOrigin() ).append( '[' );
+        for ( long bits = mask; bits != 0; bits &= bits - 1 ) {
+            int index = Long.numberOfTrailingZeros( bits );
+            builder.append( new Coordinate( index % SIZE, index / SIZE ) );
+            if ( ( bits & ( bits - 1 ) ) != 0 ) {
+                builder.append( ", " );
+            }
+        }
+        return builder.append( ']' ).toString();
+    }
+
+    @Override
+    public boolean equals ( Object obj ) {
+        return RegionAlgebra.equal( this, obj );
+    }
+
+    @Override
+    public int hashCode () {
+        // Read the field once, so a racing thread sees either 0 or the hash.
+        int h = hash;
+        if ( h == 0 ) {
+            h = RegionAlgebra.hash( this );
+            hash = h;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,99 @@
+package electra.ztrix.model.game.common;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A weak interning table of canonical Regions. A canonical Region is a shape
+ * moved so the minimum of its bounds is the origin, stored in the most compact
+ * type that fits it, and shared by every equal shape. Caches keyed on shape
+ * can key on the canonical Region, and hit for any copy of the shape wherever
+ * it is. Canonical Regions no longer used elsewhere are dropped from the table
+ * by the garbage collector.
+ *
+ * @author Electra
+ */
+public final class CanonicalRegions {
+    /** The canonical Region of each shape, referenced weakly. */
+    private static final Map<Region, WeakReference<Region>> TABLE = new WeakHashMap<>();
+
+    /**
+     * Prevents instantiation of the static helper class.
+     */
+    private CanonicalRegions () {
+    }
+
+    /**
+     * Gets the canonical Region of a Region's shape: the shape moved so the
+     * minimum of its bounds is the origin, shared with every equal shape.
+     *
+     * @param region
+     *            The Region, non-null.
+     * @return The canonical Region.
+     */
+    public static Region intern ( Region region ) {
+        if ( region == null ) {
+            throw new NullPointerException( "intern(region) must be non-null." );
+        }
+        Region shape = anchor( region );
+        synchronized ( TABLE ) {
+            WeakReference<Region> reference = TABLE.get( shape );
+            Region canonical = reference == null ? null : reference.get();
+            if ( canonical != null ) {
+                return canonical;
+            }
+            TABLE.put( shape, new WeakReference<>( shape ) );
+            return shape;
+        }
+    }
+
+    /**
+     * Gets the offset from a Region's canonical Region to the Region itself,
+     * which is the minimum of its bounds.
+     *
+     * @param region
+     *            The Region, non-null.
+     * @return The offset.
+     */
+    public static Coordinate offsetOf ( Region region ) {
+        if ( region == null ) {
+            throw new NullPointerException( "offsetOf(region) must be non-null." );
+        }
+        return region.getBounds().getMinimum();
+    }
+
+    /**
+     * Gets the number of canonical Regions in the table, including any that
+     * the garbage collector has not yet dropped.
+     *
+     * @return the size.
+     */
+    static int size () {
+        synchronized ( TABLE ) {
+            return TABLE.size();
+        }
+    }
+
+    /**
+     * Moves a Region so the minimum of its bounds is the origin, copying it
+     * into a Rectangle if it fills its bounds, a BitmaskRegion if it fits, or
+     * otherwise a SetRegion.
+     *
+     * @param region
+     *            The Region.
+     * @return The anchored Region.
+     */
+    private static Region anchor ( Region region ) {
+        Rectangle bounds = region.getBounds();
+        Coordinate size = bounds.getMaximum().minus( bounds.getMinimum() );
+        if ( region.size() == size.x() * size.y() ) {
+            return new Rectangle( Coordinate.ORIGIN, size );
+        }
+        Region moved = region.translate( bounds.getMinimum().negate() );
+        if ( size.x() <= BitmaskRegion.SIZE && size.y() <= BitmaskRegion.SIZE ) {
+            return new BitmaskRegion( moved );
+        }
+        return new SetRegion( moved );
+    }
+}
@@ -77,19 +77,33 @@ public record Coordinate(int x, int y) {
         // Calculate the relative offset from the center.
         int relX = x - center.x;
         int relY = y - center.y;
-        // Rotate the relative offset for each 90 degree rotation.
-        for (int i = 0; i < direction.ordinal(); i++) {
-            int temp = relX;
-            //noinspection SuspiciousNameCombination
-            relX = relY;
-            relY = -temp;
-        }
-        // Calculate the new absolute Coordinate from the relative offset.
-        int newX = relX + center.x;
-        int newY = relY + center.y;
+        // Rotate the relative offset, then make it absolute again.
+        int newX = Transform.rotateX(direction, relX, relY) + center.x;
+        int newY = Transform.rotateY(direction, relX, relY) + center.y;
         return new Coordinate(newX, newY);
     }
 
+    /**
+     * Packs this Coordinate into a long, for use with PackedCoordinate.
+     *
+     * @return The packed Coordinate.
+     */
+    @Contract(pure = true)
+    public long pack() {
+        return PackedCoordinate.pack(x, y);
+    }
+
+    /**
+     * Creates a new Coordinate from a packed Coordinate.
+     *
+     * @param packed The packed Coordinate.
+     * @return The new Coordinate.
+     */
+    @Contract(value = "_ -> new", pure = true)
+    public static Coordinate unpack(long packed) {
+        return new Coordinate(PackedCoordinate.x(packed), PackedCoordinate.y(packed));
+    }
+
     @Override
     public String toString() {
         return "(" + x + ", " + y + ")";
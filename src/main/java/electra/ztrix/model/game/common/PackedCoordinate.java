@@ -0,0 +1,143 @@
+package electra.ztrix.model.game.common;
+
+/**
+ * Static helpers for Coordinates packed into a single long, for hot paths
+ * that cannot afford to allocate a Coordinate at each step. The Y component
+ * takes the high 32 bits and the X component the low 32 bits, with its sign
+ * bit flipped, so packed Coordinates sort in row-major order: by Y, then by
+ * X.
+ *
+ * @author Electra
+ */
+public final class PackedCoordinate {
+    /** The packed 0, 0 Coordinate. */
+    public static final long ORIGIN = pack( 0, 0 );
+
+    /** The mask of the bits holding the X component. */
+    private static final long X_MASK = 0xFFFFFFFFL;
+
+    /**
+     * Prevents instantiation of the static helper class.
+     */
+    private PackedCoordinate () {
+    }
+
+    /**
+     * Packs an X and Y component into a long.
+     *
+     * @param x
+     *            The X component.
+     * @param y
+     *            The Y component.
+     * @return The packed Coordinate.
+     */
+    public static long pack ( int x, int y ) {
+        return ( (long) y << 32 ) | ( ( x ^ Integer.MIN_VALUE ) & X_MASK );
+    }
+
+    /**
+     * Gets the X component of a packed Coordinate.
+     *
+     * @param packed
+     *            The packed Coordinate.
+     * @return The X component.
+     */
+    public static int x ( long packed ) {
+        return (int) packed ^ Integer.MIN_VALUE;
+    }
+
+    /**
+     * Gets the Y component of a packed Coordinate.
+     *
+     * @param packed
+     *            The packed Coordinate.
+     * @return The Y component.
+     */
+    public static int y ( long packed ) {
+        return (int) ( packed >> 32 );
+    }
+
+    /**
+     * Adds two packed Coordinates.
+     *
+     * @param packed
+     *            The packed Coordinate.
+     * @param offset
+     *            The packed Coordinate to add.
+     * @return The packed sum.
+     */
+    public static long plus ( long packed, long offset ) {
+        return pack( x( packed ) + x( offset ), y( packed ) + y( offset ) );
+    }
+
+    /**
+     * Adds an X and Y offset to a packed Coordinate.
+     *
+     * @param packed
+     *            The packed Coordinate.
+     * @param dx
+     *            The X offset to add.
+     * @param dy
+     *            The Y offset to add.
+     * @return The packed sum.
+     */
+    public static long plus ( long packed, int dx, int dy ) {
+        return pack( x( packed ) + dx, y( packed ) + dy );
+    }
+
+    /**
+     * Subtracts one packed Coordinate from another.
+     *
+     * @param packed
+     *            The packed Coordinate.
+     * @param offset
+     *            The packed Coordinate to subtract.
+     * @return The packed difference.
+     */
+    public static long minus ( long packed, long offset ) {
+        return pack( x( packed ) - x( offset ), y( packed ) - y( offset ) );
+    }
+
+    /**
+     * Negates a packed Coordinate.
+     *
+     * @param packed
+     *            The packed Coordinate.
+     * @return The packed, negated Coordinate.
+     */
+    public static long negate ( long packed ) {
+        return pack( -x( packed ), -y( packed ) );
+    }
+
+    /**
+     * Rotates a packed Coordinate around a center, in the same direction as
+     * Coordinate.rotate().
+     *
+     * @param packed
+     *            The packed Coordinate.
+     * @param direction
+     *            The direction to rotate, non-null.
+     * @param center
+     *            The packed position to rotate around.
+     * @return The packed, rotated Coordinate.
+     */
+    public static long rotate ( long packed, Rotation direction, long center ) {
+        int relX = x( packed ) - x( center );
+        int relY = y( packed ) - y( center );
+        // Rotate the relative offset, then make it absolute again.
+        int newX = Transform.rotateX( direction, relX, relY ) + x( center );
+        int newY = Transform.rotateY( direction, relX, relY ) + y( center );
+        return pack( newX, newY );
+    }
+
+    /**
+     * Formats a packed Coordinate like Coordinate.toString().
+     *
+     * @param packed
+     *            The packed Coordinate.
+     * @return The formatted Coordinate.
+     */
+    public static String toString ( long packed ) {
+        return "(" + x( packed ) + ", " + y( packed ) + ")";
+    }
+}
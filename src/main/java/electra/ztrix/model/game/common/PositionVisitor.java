@@ -0,0 +1,22 @@
+package electra.ztrix.model.game.common;
+
+/**
+ * A callback given each position of a Region as raw X and Y components, so
+ * visiting a Region does not create a Coordinate for each position.
+ *
+ * @author Electra
+ */
+@FunctionalInterface
+public interface PositionVisitor {
+
+    /**
+     * Visits a position.
+     *
+     * @param x
+     *            The X component of the position.
+     * @param y
+     *            The Y component of the position.
+     * @return True to continue visiting, or false to stop.
+     */
+    public boolean visit ( int x, int y );
+}
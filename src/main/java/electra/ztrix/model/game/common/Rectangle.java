@@ -5,7 +5,9 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 /**
  * A rectangular Region with efficient containment checks. Can be used as a
@@ -14,6 +16,10 @@ import java.util.Objects;
  * @author Electra
  */
 public class Rectangle implements Region {
+    /** The characteristics of a Rectangle's Spliterator. */
+    private static final int SPLITERATOR_CHARACTERISTICS = Spliterator.ORDERED | Spliterator.DISTINCT
+            | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+
     /** The contianed Coordinate with the minimum X and Y, inclusive. */
     private final Coordinate minimum;
     /** The contianed Coordinate with the maximum X and Y, exclusive. */
@@ -115,6 +121,24 @@ public class Rectangle implements Region {
         return new Rectangle( minX, minY, maxX, maxY );
     }
 
+    @Override
+    public Rectangle transform ( Transform transform ) {
+        if ( transform == null ) {
+            throw new NullPointerException( "transform(transform) must be non-null." );
+        }
+        return transform.apply( this );
+    }
+
+    /**
+     * Gets the number of positions in the Rectangle, which is its area.
+     *
+     * @return the size.
+     */
+    @Override
+    public int size () {
+        return ( maximum.x() - minimum.x() ) * ( maximum.y() - minimum.y() );
+    }
+
     /**
      * Checks whether the Rectangle contains a position.
      *
@@ -122,6 +146,7 @@ public class Rectangle implements Region {
      *            The position to check.
      * @return True if the Rectangle contains the position.
      */
+    @Override
     @Contract("null -> false")
     public boolean contains ( Coordinate position ) {
         if ( position == null ) {
@@ -136,6 +161,21 @@ public class Rectangle implements Region {
             );
     }
 
+    /**
+     * Checks whether the Rectangle contains a packed position, without
+     * unpacking it into a Coordinate.
+     *
+     * @param packed
+     *            The packed position to check.
+     * @return True if the Rectangle contains the position.
+     */
+    @Override
+    public boolean containsPacked ( long packed ) {
+        int x = PackedCoordinate.x( packed );
+        int y = PackedCoordinate.y( packed );
+        return x >= minimum.x() && y >= minimum.y() && x < maximum.x() && y < maximum.y();
+    }
+
     /**
      * Checks whether the Rectangle contains a Region.
      *
@@ -192,24 +232,189 @@ public class Rectangle implements Region {
     }
 
     @Override
-    public boolean equals ( Object obj ) {
-        if ( this == obj ) {
+    public boolean forEachPosition ( PositionVisitor visitor ) {
+        if ( visitor == null ) {
+            throw new NullPointerException( "forEachPosition(visitor) must be non-null." );
+        }
+        for ( int y = minimum.y(); y < maximum.y(); y++ ) {
+            for ( int x = minimum.x(); x < maximum.x(); x++ ) {
+                if ( !visitor.visit( x, y ) ) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean forEachRowSpan ( RowSpanVisitor visitor ) {
+        if ( visitor == null ) {
+            throw new NullPointerException( "forEachRowSpan(visitor) must be non-null." );
+        }
+        // Each row of a Rectangle is a single span.
+        for ( int y = minimum.y(); y < maximum.y(); y++ ) {
+            if ( !visitor.visit( y, minimum.x(), maximum.x() ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets an Iterator over the packed positions of the Rectangle, in the
+     * same order as iterator(). No Coordinates are allocated while iterating.
+     *
+     * @return The Iterator.
+     */
+    public PrimitiveIterator.OfLong packedIterator () {
+        return new PrimitiveIterator.OfLong() {
+            /** The current X coordinate of the Iterator. */
+            private int x = minimum.x();
+            /** The current Y coordinate of the Iterator. */
+            private int y = minimum.y();
+
+            @Override
+            public boolean hasNext () {
+                return y < maximum.y();
+            }
+
+            @Override
+            public long nextLong () {
+                if ( y >= maximum.y() ) {
+                    throw new NoSuchElementException();
+                }
+                long packed = PackedCoordinate.pack( x, y );
+                // Update the X and Y values for the next position.
+                x++;
+                if ( x >= maximum.x() ) {
+                    y++;
+                    x = minimum.x();
+                }
+                return packed;
+            }
+        };
+    }
+
+    /**
+     * Creates a Spliterator over the positions of the Rectangle, in the same
+     * order as iterator(). It splits into blocks of whole rows while it spans
+     * more than one row, and knows its exact size after every split.
+     *
+     * @return The Spliterator.
+     */
+    @Override
+    public Spliterator<Coordinate> spliterator () {
+        return new RowBlockSpliterator( minimum.x(), minimum.y(), maximum.x() - minimum.x(), 0, size() );
+    }
+
+    /**
+     * A Spliterator over a range of a Rectangle's positions, numbered in
+     * row-major order.
+     */
+    private static final class RowBlockSpliterator implements Spliterator<Coordinate> {
+        /** The X component of the Rectangle's minimum. */
+        private final int minX;
+        /** The Y component of the Rectangle's minimum. */
+        private final int minY;
+        /** The width of the Rectangle. */
+        private final int width;
+        /** The number of the next position. */
+        private int index;
+        /** The number of the last position, exclusive. */
+        private final int fence;
+
+        /**
+         * Creates a new RowBlockSpliterator over a range of positions.
+         *
+         * @param minX
+         *            The X component of the Rectangle's minimum.
+         * @param minY
+         *            The Y component of the Rectangle's minimum.
+         * @param width
+         *            The width of the Rectangle.
+         * @param index
+         *            The number of the first position.
+         * @param fence
+         *            The number of the last position, exclusive.
+         */
+        private RowBlockSpliterator ( int minX, int minY, int width, int index, int fence ) {
+            this.minX = minX;
+            this.minY = minY;
+            this.width = width;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance ( Consumer<? super Coordinate> action ) {
+            if ( action == null ) {
+                throw new NullPointerException( "tryAdvance(action) must be non-null." );
+            }
+            if ( index >= fence ) {
+                return false;
+            }
+            action.accept( new Coordinate( minX + index % width, minY + index / width ) );
+            index++;
             return true;
         }
-        if ( obj == null ) {
-            return false;
+
+        @Override
+        public void forEachRemaining ( Consumer<? super Coordinate> action ) {
+            if ( action == null ) {
+                throw new NullPointerException( "forEachRemaining(action) must be non-null." );
+            }
+            // Walk the positions directly, rather than dividing for each one.
+            int x = index % width;
+            int y = index / width;
+            for ( int i = index; i < fence; i++ ) {
+                action.accept( new Coordinate( minX + x, minY + y ) );
+                if ( ++x == width ) {
+                    x = 0;
+                    y++;
+                }
+            }
+            index = fence;
         }
 
-        return
-                // Check if it's a rectangle, and if so...
-                obj instanceof Rectangle rect &&
-                // ...check if the minimum and maximum Coordinates are equal.
-                maximum.equals( rect.maximum ) && minimum.equals( rect.minimum );
+        @Override
+        public Spliterator<Coordinate> trySplit () {
+            if ( fence - index < 2 ) {
+                return null;
+            }
+            int firstRow = index / width;
+            int lastRow = ( fence - 1 ) / width;
+            // Split between rows if possible, otherwise within the row.
+            int middle;
+            if ( lastRow > firstRow ) {
+                middle = ( ( firstRow + lastRow + 1 ) >>> 1 ) * width;
+            } else {
+                middle = ( index + fence ) >>> 1;
+            }
+            Spliterator<Coordinate> prefix = new RowBlockSpliterator( minX, minY, width, index, middle );
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize () {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics () {
+            return SPLITERATOR_CHARACTERISTICS;
+        }
+    }
+
+    @Override
+    public boolean equals ( Object obj ) {
+        // Any Region with the same positions is equal, not only Rectangles.
+        return RegionAlgebra.equal( this, obj );
     }
 
     @Override
     public int hashCode () {
-        return Objects.hash( maximum, minimum );
+        return RegionAlgebra.hash( this );
     }
 
     @Override
@@ -2,12 +2,19 @@ package electra.ztrix.model.game.common;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * An immutable interface containing a set of Coordinate positions.
+ * An immutable interface containing a set of Coordinate positions. Regions
+ * are equal if they contain the same positions, whatever their types, and
+ * every implementation's equals() and hashCode() must agree with this.
  *
  * @author Electra
  */
@@ -22,7 +29,192 @@ public interface Region extends Iterable<Coordinate> {
     public Rectangle getBounds ();
 
     /**
-     * Creates a new Region by translating this one.
+     * Visits each position of the Region, passing the raw X and Y components
+     * so no Coordinate is created. Each call visits the positions in the same
+     * order.
+     *
+     * @param visitor
+     *            The visitor to call for each position, non-null.
+     * @return True if every position was visited, or false if the visitor
+     *         stopped early.
+     */
+    public default boolean forEachPosition ( PositionVisitor visitor ) {
+        if ( visitor == null ) {
+            throw new NullPointerException( "forEachPosition(visitor) must be non-null." );
+        }
+        for ( Coordinate position : this ) {
+            if ( !visitor.visit( position.x(), position.y() ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Visits the Region as spans of positions within each row. Each position
+     * is in exactly one span, but the spans are not necessarily as long as
+     * possible, nor in any order.
+     *
+     * @param visitor
+     *            The visitor to call for each span, non-null.
+     * @return True if every span was visited, or false if the visitor
+     *         stopped early.
+     */
+    public default boolean forEachRowSpan ( RowSpanVisitor visitor ) {
+        if ( visitor == null ) {
+            throw new NullPointerException( "forEachRowSpan(visitor) must be non-null." );
+        }
+        return forEachPosition( ( x, y ) -> visitor.visit( y, x, x + 1 ) );
+    }
+
+    /**
+     * Gets the number of positions in the Region.
+     *
+     * @return the size.
+     */
+    public default int size () {
+        int[] size = { 0 };
+        forEachPosition( ( x, y ) -> {
+            size[0]++;
+            return true;
+        } );
+        return size[0];
+    }
+
+    /**
+     * Creates a Spliterator over the positions of the Region. By default,
+     * this splits the iterator() in batches, so Regions that can be split
+     * evenly should override it.
+     *
+     * @return The Spliterator.
+     */
+    @Override
+    public default Spliterator<Coordinate> spliterator () {
+        return Spliterators.spliterator( iterator(), size(),
+                Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE );
+    }
+
+    /**
+     * Creates a sequential Stream of the positions of the Region.
+     *
+     * @return The Stream.
+     */
+    public default Stream<Coordinate> stream () {
+        return StreamSupport.stream( spliterator(), false );
+    }
+
+    /**
+     * Creates a parallel Stream of the positions of the Region, which splits
+     * the Region between threads using spliterator().
+     *
+     * @return The Stream.
+     */
+    public default Stream<Coordinate> parallelStream () {
+        return StreamSupport.stream( spliterator(), true );
+    }
+
+    /**
+     * Checks whether the Region contains a position.
+     *
+     * @param position
+     *            The position to check.
+     * @return True if the Region contains the position.
+     */
+    @Contract("null -> false")
+    public default boolean contains ( Coordinate position ) {
+        if ( position == null ) {
+            return false;
+        }
+        for ( Coordinate other : this ) {
+            if ( other.equals( position ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the Region contains a packed position. Regions that
+     * store or compute their positions directly override this to check
+     * without creating a Coordinate.
+     *
+     * @param packed
+     *            The packed position to check.
+     * @return True if the Region contains the position.
+     */
+    public default boolean containsPacked ( long packed ) {
+        return contains( Coordinate.unpack( packed ) );
+    }
+
+    /**
+     * Checks whether this Region shares any position with another.
+     *
+     * @param other
+     *            The other Region, non-null.
+     * @return True if the Regions intersect.
+     */
+    @Contract(pure = true)
+    public default boolean intersects ( Region other ) {
+        if ( other == null ) {
+            throw new NullPointerException( "intersects(other) must be non-null." );
+        }
+        return RegionAlgebra.intersects( this, other );
+    }
+
+    /**
+     * Creates a Region of the positions in this Region or another.
+     *
+     * @param other
+     *            The other Region, non-null.
+     * @return The union of the Regions.
+     */
+    @Contract(pure = true)
+    public default Region union ( Region other ) {
+        if ( other == null ) {
+            throw new NullPointerException( "union(other) must be non-null." );
+        }
+        return RegionAlgebra.union( this, other );
+    }
+
+    /**
+     * Creates a Region of the positions in both this Region and another. A
+     * Region is never empty, so callers must check for null when the Regions
+     * might not intersect.
+     *
+     * @param other
+     *            The other Region, non-null.
+     * @return The intersection of the Regions, or null if it is empty.
+     */
+    @Nullable
+    @Contract(pure = true)
+    public default Region intersection ( Region other ) {
+        if ( other == null ) {
+            throw new NullPointerException( "intersection(other) must be non-null." );
+        }
+        return RegionAlgebra.intersection( this, other );
+    }
+
+    /**
+     * Creates a Region of the positions in this Region but not another. A
+     * Region is never empty, so callers must check for null when the other
+     * Region might cover this one.
+     *
+     * @param other
+     *            The other Region, non-null.
+     * @return The difference of the Regions, or null if it is empty.
+     */
+    @Nullable
+    @Contract(pure = true)
+    public default Region difference ( Region other ) {
+        if ( other == null ) {
+            throw new NullPointerException( "difference(other) must be non-null." );
+        }
+        return RegionAlgebra.difference( this, other );
+    }
+
+    /**
+     * Creates a new Region by translating this one. By default, this is a
+     * TranslatedRegion viewing this Region, so no positions are copied.
      *
      * @param offset
      *            The offset to translate by, non-null.
@@ -33,13 +225,7 @@ public interface Region extends Iterable<Coordinate> {
         if ( offset == null ) {
             throw new NullPointerException( "translate(offset) must be non-null." );
         }
-        // Translate each position individually, adding to a SetRegion.
-        List<Coordinate> positions = new ArrayList<>();
-        for ( Coordinate position : this ) {
-            Coordinate newPos = position.plus( offset );
-            positions.add( newPos );
-        }
-        return new SetRegion( positions );
+        return new TranslatedRegion( this, offset );
     }
 
     /**
@@ -60,12 +246,30 @@ public interface Region extends Iterable<Coordinate> {
         if ( center == null ) {
             throw new NullPointerException( "rotate(center) must be non-null." );
         }
-        // Rotate each position individually, adding to a SetRegion.
+        // Rotate each packed position individually, adding to a SetRegion.
         List<Coordinate> positions = new ArrayList<>();
-        for ( Coordinate position : this ) {
-            Coordinate newPos = position.rotate( direction, center );
-            positions.add( newPos );
+        long packedCenter = center.pack();
+        forEachPosition( ( x, y ) -> positions.add( Coordinate.unpack(
+                PackedCoordinate.rotate( PackedCoordinate.pack( x, y ), direction, packedCenter ) ) ) );
+        return new SetRegion( positions );
+    }
+
+    /**
+     * Creates a new Region by applying a Transform to each position, in a
+     * single pass rather than separately rotating and translating.
+     *
+     * @param transform
+     *            The Transform to apply, non-null.
+     * @return The new, transformed Region.
+     */
+    @Contract(value = "!null -> new", pure = true)
+    public default Region transform ( Transform transform ) {
+        if ( transform == null ) {
+            throw new NullPointerException( "transform(transform) must be non-null." );
         }
+        List<Coordinate> positions = new ArrayList<>();
+        forEachPosition( ( x, y ) -> positions.add(
+                new Coordinate( transform.applyX( x, y ), transform.applyY( x, y ) ) ) );
         return new SetRegion( positions );
     }
 }
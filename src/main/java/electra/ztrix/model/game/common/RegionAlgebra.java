@@ -0,0 +1,377 @@
+package electra.ztrix.model.game.common;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Static kernels for the set operations of Regions. Each operation first
+ * compares the Regions' bounds, then uses a specialised kernel for pairs of
+ * Rectangles or BitmaskRegions, and only falls back to checking each position
+ * for other Regions.
+ *
+ * @author Electra
+ */
+final class RegionAlgebra {
+    /** The mask of a row of a BitmaskRegion's window. */
+    private static final long ROW = 0xFFL;
+    /** A mask with the lowest bit of each row of a window set. */
+    private static final long COLUMN = 0x0101010101010101L;
+    /** The odd base raised to each X component in a position's hash. */
+    private static final long X_BASE = 0x2545F4914F6CDD1DL;
+    /** The odd base raised to each Y component in a position's hash. */
+    private static final long Y_BASE = 0x61C8864680B583EBL;
+    /** The inverse of the X base, raised to negative X components. */
+    private static final long X_INVERSE = inverse( X_BASE );
+    /** The inverse of the Y base, raised to negative Y components. */
+    private static final long Y_INVERSE = inverse( Y_BASE );
+
+    /**
+     * Prevents instantiation of the static helper class.
+     */
+    private RegionAlgebra () {
+    }
+
+    /**
+     * Checks whether two Rectangles share any position.
+     *
+     * @param a
+     *            The first Rectangle.
+     * @param b
+     *            The second Rectangle.
+     * @return True if the Rectangles overlap.
+     */
+    static boolean overlaps ( Rectangle a, Rectangle b ) {
+        return a.getMinimum().x() < b.getMaximum().x() && b.getMinimum().x() < a.getMaximum().x()
+                && a.getMinimum().y() < b.getMaximum().y() && b.getMinimum().y() < a.getMaximum().y();
+    }
+
+    /**
+     * Moves the bits of a window mask, dropping any that leave the window.
+     *
+     * @param mask
+     *            The bits of the window.
+     * @param dx
+     *            The number of columns to move by.
+     * @param dy
+     *            The number of rows to move by.
+     * @return The moved mask.
+     */
+    static long shift ( long mask, int dx, int dy ) {
+        int size = BitmaskRegion.SIZE;
+        if ( dx <= -size || dx >= size || dy <= -size || dy >= size ) {
+            return 0;
+        }
+        // Mask off the columns that would wrap into the next row.
+        if ( dx > 0 ) {
+            mask = ( mask << dx ) & ( ( ( ROW << dx ) & ROW ) * COLUMN );
+        } else if ( dx < 0 ) {
+            mask = ( mask >>> -dx ) & ( ( ROW >>> -dx ) * COLUMN );
+        }
+        if ( dy > 0 ) {
+            mask <<= dy * size;
+        } else if ( dy < 0 ) {
+            mask >>>= -dy * size;
+        }
+        return mask;
+    }
+
+    /**
+     * Gets the mask of a BitmaskRegion moved into another's window.
+     *
+     * @param region
+     *            The BitmaskRegion to move.
+     * @param window
+     *            The BitmaskRegion whose window to move into.
+     * @return The moved mask, without any bits outside the window.
+     */
+    private static long align ( BitmaskRegion region, BitmaskRegion window ) {
+        int dx = region.getOriginX() - window.getOriginX();
+        int dy = region.getOriginY() - window.getOriginY();
+        return shift( region.getMask(), dx, dy );
+    }
+
+    /**
+     * Calculates the multiplicative inverse of an odd number, modulo 2^64.
+     *
+     * @param value
+     *            The odd number.
+     * @return The inverse.
+     */
+    private static long inverse ( long value ) {
+        // Each Newton step doubles the number of correct low bits.
+        long inverse = value;
+        for ( int i = 0; i < 5; i++ ) {
+            inverse *= 2 - value * inverse;
+        }
+        return inverse;
+    }
+
+    /**
+     * Raises a base to a power, modulo 2^64.
+     *
+     * @param base
+     *            The base.
+     * @param inverse
+     *            The inverse of the base, used for negative exponents.
+     * @param exponent
+     *            The exponent.
+     * @return The power.
+     */
+    private static long power ( long base, long inverse, int exponent ) {
+        long factor = exponent < 0 ? inverse : base;
+        long power = 1;
+        for ( long e = Math.abs( (long) exponent ); e != 0; e >>>= 1 ) {
+            if ( ( e & 1 ) != 0 ) {
+                power *= factor;
+            }
+            factor *= factor;
+        }
+        return power;
+    }
+
+    /**
+     * Sums the first powers of a base, 1 + base + ... + base^(count - 1),
+     * modulo 2^64, by repeated doubling.
+     *
+     * @param base
+     *            The base.
+     * @param count
+     *            The number of powers, non-negative.
+     * @return The sum.
+     */
+    private static long series ( long base, int count ) {
+        long sum = 0;
+        long power = 1;
+        for ( int bit = Integer.SIZE - 1 - Integer.numberOfLeadingZeros( count ); bit >= 0; bit-- ) {
+            // Double the number of terms, then add one more if the bit is set.
+            sum *= 1 + power;
+            power *= power;
+            if ( ( count >>> bit & 1 ) != 0 ) {
+                sum += power;
+                power *= base;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Sums the contributions of a span of a row to a Region's hash.
+     *
+     * @param y
+     *            The Y component of the row.
+     * @param start
+     *            The X component of the first position, inclusive.
+     * @param end
+     *            The X component of the last position, exclusive.
+     * @return The sum.
+     */
+    private static long hashRowSpan ( int y, int start, int end ) {
+        return power( Y_BASE, Y_INVERSE, y ) * power( X_BASE, X_INVERSE, start ) * series( X_BASE, end - start );
+    }
+
+    /**
+     * Calculates the value hash code of a Region, which depends only on its
+     * positions. Each position (x, y) contributes X_BASE^x * Y_BASE^y, and
+     * the sum is mixed once at the end. A row span's contributions form a
+     * geometric series, so a Region is hashed a row span at a time, and a
+     * Rectangle's hash is the product of two series, with no work per
+     * position.
+     *
+     * @param region
+     *            The Region to hash.
+     * @return The hash code.
+     */
+    static int hash ( Region region ) {
+        if ( region instanceof Rectangle rect ) {
+            Coordinate min = rect.getMinimum();
+            Coordinate max = rect.getMaximum();
+            long sumX = power( X_BASE, X_INVERSE, min.x() ) * series( X_BASE, max.x() - min.x() );
+            long sumY = power( Y_BASE, Y_INVERSE, min.y() ) * series( Y_BASE, max.y() - min.y() );
+            return (int) Zobrist.mix( sumX * sumY );
+        }
+        long[] sum = { 0 };
+        region.forEachRowSpan( ( y, start, end ) -> {
+            sum[0] += hashRowSpan( y, start, end );
+            return true;
+        } );
+        return (int) Zobrist.mix( sum[0] );
+    }
+
+    /**
+     * Checks whether a Region has exactly the same positions as an Object,
+     * whatever the types of the Regions.
+     *
+     * @param a
+     *            The Region.
+     * @param obj
+     *            The Object to compare to.
+     * @return True if the Object is a Region with the same positions.
+     */
+    static boolean equal ( Region a, Object obj ) {
+        if ( a == obj ) {
+            return true;
+        }
+        if ( !( obj instanceof Region b ) ) {
+            return false;
+        }
+        // Equal Regions have equal bounds, hashes and sizes, so check those
+        // from the cheapest up. The Regions of this package cache their
+        // hashes.
+        Rectangle boundsA = a.getBounds();
+        Rectangle boundsB = b.getBounds();
+        if ( !boundsA.getMinimum().equals( boundsB.getMinimum() )
+                || !boundsA.getMaximum().equals( boundsB.getMaximum() ) || a.hashCode() != b.hashCode()
+                || a.size() != b.size() ) {
+            return false;
+        }
+        if ( a instanceof Rectangle || b instanceof Rectangle ) {
+            // A Region filling its bounds is the Rectangle of its bounds.
+            return true;
+        }
+        if ( a instanceof BitmaskRegion bitsA && b instanceof BitmaskRegion bitsB ) {
+            return bitsA.getMask() == bitsB.getMask();
+        }
+        return a.forEachPosition( ( x, y ) -> b.contains( new Coordinate( x, y ) ) );
+    }
+
+    /**
+     * Checks whether two Regions share any position.
+     *
+     * @param a
+     *            The first Region.
+     * @param b
+     *            The second Region.
+     * @return True if the Regions intersect.
+     */
+    static boolean intersects ( Region a, Region b ) {
+        if ( !overlaps( a.getBounds(), b.getBounds() ) ) {
+            return false;
+        }
+        if ( a instanceof Rectangle && b instanceof Rectangle ) {
+            return true;
+        }
+        if ( a instanceof BitmaskRegion bitsA && b instanceof BitmaskRegion bitsB ) {
+            return ( bitsA.getMask() & align( bitsB, bitsA ) ) != 0;
+        }
+        for ( Coordinate position : a ) {
+            if ( b.contains( position ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a Region of the positions in both of two Regions.
+     *
+     * @param a
+     *            The first Region.
+     * @param b
+     *            The second Region.
+     * @return The intersection, or null if it is empty.
+     */
+    @Nullable
+    static Region intersection ( Region a, Region b ) {
+        Rectangle boundsA = a.getBounds();
+        Rectangle boundsB = b.getBounds();
+        if ( !overlaps( boundsA, boundsB ) ) {
+            return null;
+        }
+        if ( a instanceof Rectangle && b instanceof Rectangle ) {
+            return new Rectangle(
+                    Math.max( boundsA.getMinimum().x(), boundsB.getMinimum().x() ),
+                    Math.max( boundsA.getMinimum().y(), boundsB.getMinimum().y() ),
+                    Math.min( boundsA.getMaximum().x(), boundsB.getMaximum().x() ),
+                    Math.min( boundsA.getMaximum().y(), boundsB.getMaximum().y() ) );
+        }
+        if ( a instanceof BitmaskRegion bitsA && b instanceof BitmaskRegion bitsB ) {
+            long mask = bitsA.getMask() & align( bitsB, bitsA );
+            return mask == 0 ? null : BitmaskRegion.normalize( mask, bitsA.getOriginX(), bitsA.getOriginY() );
+        }
+        List<Coordinate> positions = new ArrayList<>();
+        for ( Coordinate position : a ) {
+            if ( b.contains( position ) ) {
+                positions.add( position );
+            }
+        }
+        return positions.isEmpty() ? null : new SetRegion( positions );
+    }
+
+    /**
+     * Creates a Region of the positions in either of two Regions.
+     *
+     * @param a
+     *            The first Region.
+     * @param b
+     *            The second Region.
+     * @return The union.
+     */
+    static Region union ( Region a, Region b ) {
+        Rectangle boundsA = a.getBounds();
+        Rectangle boundsB = b.getBounds();
+        if ( a instanceof Rectangle && b instanceof Rectangle ) {
+            if ( boundsA.containsRegion( boundsB ) ) {
+                return a;
+            }
+            if ( boundsB.containsRegion( boundsA ) ) {
+                return b;
+            }
+        }
+        if ( a instanceof BitmaskRegion bitsA && b instanceof BitmaskRegion bitsB ) {
+            int minX = Math.min( bitsA.getOriginX(), bitsB.getOriginX() );
+            int minY = Math.min( bitsA.getOriginY(), bitsB.getOriginY() );
+            int maxX = Math.max( boundsA.getMaximum().x(), boundsB.getMaximum().x() );
+            int maxY = Math.max( boundsA.getMaximum().y(), boundsB.getMaximum().y() );
+            // Combine the masks if both fit in one window.
+            if ( maxX - minX <= BitmaskRegion.SIZE && maxY - minY <= BitmaskRegion.SIZE ) {
+                long mask = shift( bitsA.getMask(), bitsA.getOriginX() - minX, bitsA.getOriginY() - minY )
+                        | shift( bitsB.getMask(), bitsB.getOriginX() - minX, bitsB.getOriginY() - minY );
+                return BitmaskRegion.normalize( mask, minX, minY );
+            }
+        }
+        Set<Coordinate> positions = new LinkedHashSet<>();
+        for ( Coordinate position : a ) {
+            positions.add( position );
+        }
+        for ( Coordinate position : b ) {
+            positions.add( position );
+        }
+        return new SetRegion( positions );
+    }
+
+    /**
+     * Creates a Region of the positions in one Region but not another.
+     *
+     * @param a
+     *            The Region to take positions from.
+     * @param b
+     *            The Region of positions to remove.
+     * @return The difference, or null if it is empty.
+     */
+    @Nullable
+    static Region difference ( Region a, Region b ) {
+        Rectangle boundsA = a.getBounds();
+        Rectangle boundsB = b.getBounds();
+        if ( !overlaps( boundsA, boundsB ) ) {
+            return a;
+        }
+        if ( b instanceof Rectangle && boundsB.containsRegion( boundsA ) ) {
+            return null;
+        }
+        if ( a instanceof BitmaskRegion bitsA && b instanceof BitmaskRegion bitsB ) {
+            long mask = bitsA.getMask() & ~align( bitsB, bitsA );
+            return mask == 0 ? null : BitmaskRegion.normalize( mask, bitsA.getOriginX(), bitsA.getOriginY() );
+        }
+        List<Coordinate> positions = new ArrayList<>();
+        for ( Coordinate position : a ) {
+            if ( !b.contains( position ) ) {
+                positions.add( position );
+            }
+        }
+        return positions.isEmpty() ? null : new SetRegion( positions );
+    }
+}
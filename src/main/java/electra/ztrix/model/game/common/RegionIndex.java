@@ -0,0 +1,386 @@
+package electra.ztrix.model.game.common;
+
+import org.jetbrains.annotations.Contract;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A spatial index of Regions, answering which Regions intersect an area
+ * without checking every Region. The plane is divided into square cells, and
+ * each Region is listed in every cell its bounds overlap, so a query only
+ * checks the Regions listed in the cells the area's bounds overlap. Regions
+ * are held by identity, and can be added and removed at any time.
+ * <p>
+ * The cells are kept in an open-addressing table keyed by packed cell
+ * position, so looking up a cell boxes nothing. A RegionIndex is not
+ * thread-safe: each query marks the Regions it has checked, so queries must
+ * not run at the same time as each other or as any change.
+ *
+ * @author Electra
+ */
+public class RegionIndex {
+    /** The default width and height of each cell. */
+    public static final int DEFAULT_CELL_SIZE = 8;
+    /** The number of slots in a new table of cells. */
+    private static final int INITIAL_SLOTS = 64;
+
+    /**
+     * A Region held by the index, with its bounds and the last query that
+     * found it, so each query reports it at most once.
+     */
+    private static final class Entry {
+        /** The Region. */
+        private final Region region;
+        /** The Rectangle bounding box of the Region. */
+        private final Rectangle bounds;
+        /** The number of the last query that checked the Region. */
+        private long query;
+
+        /**
+         * Creates a new Entry for a Region.
+         *
+         * @param region
+         *            The Region.
+         */
+        private Entry ( Region region ) {
+            this.region = region;
+            this.bounds = region.getBounds();
+        }
+    }
+
+    /**
+     * The Entries listed in one cell, in no particular order.
+     */
+    private static final class Cell {
+        /** The Entries, followed by unused slots. */
+        private Entry[] entries = new Entry[4];
+        /** The number of Entries. */
+        private int size;
+
+        /**
+         * Adds an Entry to the cell, growing it if it is full.
+         *
+         * @param entry
+         *            The Entry to add.
+         */
+        private void add ( Entry entry ) {
+            if ( size == entries.length ) {
+                entries = Arrays.copyOf( entries, size * 2 );
+            }
+            entries[size++] = entry;
+        }
+
+        /**
+         * Removes an Entry from the cell, moving the last Entry into its
+         * place.
+         *
+         * @param entry
+         *            The Entry to remove, which is in the cell.
+         */
+        private void remove ( Entry entry ) {
+            for ( int i = 0; i < size; i++ ) {
+                if ( entries[i] == entry ) {
+                    entries[i] = entries[--size];
+                    entries[size] = null;
+                    return;
+                }
+            }
+        }
+    }
+
+    /** The width and height of each cell. */
+    private final int cellSize;
+    /** The Entry of each Region in the index. */
+    private final Map<Region, Entry> entries;
+    /** The packed position of the cell in each slot of the table. */
+    private long[] keys;
+    /** The cell in each slot of the table, or null for an empty slot. */
+    private Cell[] cells;
+    /** The number of cells in the table. */
+    private int used;
+    /** The number of queries run, used to mark checked Entries. */
+    private long queries;
+
+    /**
+     * Creates a new, empty RegionIndex with the default cell size.
+     */
+    public RegionIndex () {
+        this( DEFAULT_CELL_SIZE );
+    }
+
+    /**
+     * Creates a new, empty RegionIndex with a given cell size.
+     *
+     * @param cellSize
+     *            The width and height of each cell, positive.
+     */
+    public RegionIndex ( int cellSize ) {
+        if ( cellSize <= 0 ) {
+            throw new IllegalArgumentException( "RegionIndex(cellSize) must be positive." );
+        }
+        this.cellSize = cellSize;
+        this.entries = new IdentityHashMap<>();
+        this.keys = new long[INITIAL_SLOTS];
+        this.cells = new Cell[INITIAL_SLOTS];
+    }
+
+    /**
+     * Gets the number of Regions in the index.
+     *
+     * @return the size.
+     */
+    public int size () {
+        return entries.size();
+    }
+
+    /**
+     * Checks whether a Region is in the index.
+     *
+     * @param region
+     *            The Region to check.
+     * @return True if the Region is in the index.
+     */
+    @Contract("null -> false")
+    public boolean contains ( Region region ) {
+        return region != null && entries.containsKey( region );
+    }
+
+    /**
+     * Adds a Region to the index.
+     *
+     * @param region
+     *            The Region to add, non-null.
+     * @return True if the Region was added, or false if it was already in the
+     *         index.
+     */
+    public boolean add ( Region region ) {
+        if ( region == null ) {
+            throw new NullPointerException( "add(region) must be non-null." );
+        }
+        if ( entries.containsKey( region ) ) {
+            return false;
+        }
+        Entry entry = new Entry( region );
+        entries.put( region, entry );
+        Rectangle bounds = entry.bounds;
+        int maxX = cell( bounds.getMaximum().x() - 1 );
+        int maxY = cell( bounds.getMaximum().y() - 1 );
+        for ( int y = cell( bounds.getMinimum().y() ); y <= maxY; y++ ) {
+            for ( int x = cell( bounds.getMinimum().x() ); x <= maxX; x++ ) {
+                long key = PackedCoordinate.pack( x, y );
+                int slot = slot( key );
+                if ( cells[slot] == null ) {
+                    slot = insert( key );
+                }
+                cells[slot].add( entry );
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes a Region from the index.
+     *
+     * @param region
+     *            The Region to remove.
+     * @return True if the Region was removed, or false if it was not in the
+     *         index.
+     */
+    public boolean remove ( Region region ) {
+        Entry entry = region == null ? null : entries.remove( region );
+        if ( entry == null ) {
+            return false;
+        }
+        Rectangle bounds = entry.bounds;
+        int maxX = cell( bounds.getMaximum().x() - 1 );
+        int maxY = cell( bounds.getMaximum().y() - 1 );
+        for ( int y = cell( bounds.getMinimum().y() ); y <= maxY; y++ ) {
+            for ( int x = cell( bounds.getMinimum().x() ); x <= maxX; x++ ) {
+                int slot = slot( PackedCoordinate.pack( x, y ) );
+                Cell cell = cells[slot];
+                cell.remove( entry );
+                // Drop empty cells, so the table only grows with the Regions.
+                if ( cell.size == 0 ) {
+                    delete( slot );
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds every Region in the index that shares a position with an area.
+     * This visits each cell under the area's bounds, or each cell in the
+     * table if there are fewer of those, so a large or sparse area costs no
+     * more than a walk of the occupied cells.
+     *
+     * @param area
+     *            The area to check, non-null.
+     * @return The intersecting Regions, in no particular order.
+     */
+    public List<Region> query ( Region area ) {
+        if ( area == null ) {
+            throw new NullPointerException( "query(area) must be non-null." );
+        }
+        List<Region> found = new ArrayList<>();
+        long query = ++queries;
+        Rectangle bounds = area.getBounds();
+        int minX = cell( bounds.getMinimum().x() );
+        int minY = cell( bounds.getMinimum().y() );
+        int maxX = cell( bounds.getMaximum().x() - 1 );
+        int maxY = cell( bounds.getMaximum().y() - 1 );
+        if ( (long) ( maxX - minX + 1 ) * ( maxY - minY + 1 ) > used ) {
+            // Walk the occupied cells instead of the area's cells.
+            for ( int slot = 0; slot < cells.length; slot++ ) {
+                if ( cells[slot] == null ) {
+                    continue;
+                }
+                int x = PackedCoordinate.x( keys[slot] );
+                int y = PackedCoordinate.y( keys[slot] );
+                if ( x >= minX && x <= maxX && y >= minY && y <= maxY ) {
+                    collect( cells[slot], area, query, found );
+                }
+            }
+            return found;
+        }
+        for ( int y = minY; y <= maxY; y++ ) {
+            for ( int x = minX; x <= maxX; x++ ) {
+                Cell cell = cells[slot( PackedCoordinate.pack( x, y ) )];
+                if ( cell != null ) {
+                    collect( cell, area, query, found );
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Adds the Regions in a cell that share a position with an area to a
+     * list, skipping those already checked by the query.
+     *
+     * @param cell
+     *            The cell to check.
+     * @param area
+     *            The area being queried.
+     * @param query
+     *            The number of the query, used to mark checked Entries.
+     * @param found
+     *            The list of intersecting Regions to add to.
+     */
+    private void collect ( Cell cell, Region area, long query, List<Region> found ) {
+        Rectangle bounds = area.getBounds();
+        for ( int i = 0; i < cell.size; i++ ) {
+            Entry entry = cell.entries[i];
+            // Check each Entry once, even if it is in many cells.
+            if ( entry.query == query ) {
+                continue;
+            }
+            entry.query = query;
+            if ( RegionAlgebra.overlaps( entry.bounds, bounds ) && entry.region.intersects( area ) ) {
+                found.add( entry.region );
+            }
+        }
+    }
+
+    /**
+     * Finds every Region in the index that shares a position with a span of
+     * a row.
+     *
+     * @param y
+     *            The Y component of the row.
+     * @param start
+     *            The X component of the first position, inclusive.
+     * @param end
+     *            The X component of the last position, exclusive and greater
+     *            than the start.
+     * @return The intersecting Regions, in no particular order.
+     */
+    public List<Region> queryRowSpan ( int y, int start, int end ) {
+        return query( new Rectangle( start, y, end, y + 1 ) );
+    }
+
+    /**
+     * Finds the slot of a cell in the table, which is either the cell's slot
+     * or the empty slot where it would be inserted.
+     *
+     * @param key
+     *            The packed position of the cell.
+     * @return The slot.
+     */
+    private int slot ( long key ) {
+        int mask = cells.length - 1;
+        int slot = (int) Zobrist.mix( key ) & mask;
+        while ( cells[slot] != null && keys[slot] != key ) {
+            slot = ( slot + 1 ) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Inserts a new, empty cell into the table, growing the table if it would
+     * be more than half full.
+     *
+     * @param key
+     *            The packed position of the cell, not in the table.
+     * @return The slot of the new cell.
+     */
+    private int insert ( long key ) {
+        if ( 2 * ( used + 1 ) > cells.length ) {
+            long[] oldKeys = keys;
+            Cell[] oldCells = cells;
+            keys = new long[oldCells.length * 2];
+            cells = new Cell[oldCells.length * 2];
+            for ( int i = 0; i < oldCells.length; i++ ) {
+                if ( oldCells[i] != null ) {
+                    int slot = slot( oldKeys[i] );
+                    keys[slot] = oldKeys[i];
+                    cells[slot] = oldCells[i];
+                }
+            }
+        }
+        int slot = slot( key );
+        keys[slot] = key;
+        cells[slot] = new Cell();
+        used++;
+        return slot;
+    }
+
+    /**
+     * Deletes the cell in a slot of the table, moving back any later cells in
+     * its probe run so every cell stays reachable from its first slot.
+     *
+     * @param slot
+     *            The slot of the cell.
+     */
+    private void delete ( int slot ) {
+        int mask = cells.length - 1;
+        int hole = slot;
+        cells[hole] = null;
+        used--;
+        for ( int next = ( hole + 1 ) & mask; cells[next] != null; next = ( next + 1 ) & mask ) {
+            int home = (int) Zobrist.mix( keys[next] ) & mask;
+            // Move the cell back if the hole lies between its home and it.
+            if ( ( ( next - home ) & mask ) >= ( ( next - hole ) & mask ) ) {
+                keys[hole] = keys[next];
+                cells[hole] = cells[next];
+                cells[next] = null;
+                hole = next;
+            }
+        }
+    }
+
+    /**
+     * Gets the cell containing a position component.
+     *
+     * @param value
+     *            The X or Y component of a position.
+     * @return The matching component of the cell.
+     */
+    private int cell ( int value ) {
+        return Math.floorDiv( value, cellSize );
+    }
+}
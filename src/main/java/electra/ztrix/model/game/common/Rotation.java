@@ -15,6 +15,9 @@ public enum Rotation {
     /** The 90 degree counterclockwise rotation. */
     CCW;
 
+    /** The Rotations by ordinal, cached since values() copies the array. */
+    private static final Rotation[] VALUES = values();
+
     /**
      * Sums another Rotation with this one.
      *
@@ -24,7 +27,16 @@ public enum Rotation {
      */
     public Rotation plus ( Rotation rotation ) {
         int ord = ordinal() + rotation.ordinal();
-        int mod = ord % values().length;
-        return values()[mod];
+        int mod = ord % VALUES.length;
+        return VALUES[mod];
+    }
+
+    /**
+     * Gets the Rotation that undoes this one, so that the two sum to R0.
+     *
+     * @return The negated Rotation.
+     */
+    public Rotation negate () {
+        return VALUES[( VALUES.length - ordinal() ) % VALUES.length];
     }
 }
@@ -0,0 +1,24 @@
+package electra.ztrix.model.game.common;
+
+/**
+ * A callback given a Region as horizontal spans of positions within a row,
+ * so rows can be checked a word at a time rather than a position at a time.
+ *
+ * @author Electra
+ */
+@FunctionalInterface
+public interface RowSpanVisitor {
+
+    /**
+     * Visits a span of positions within a row.
+     *
+     * @param y
+     *            The Y component of the row.
+     * @param start
+     *            The X component of the first position, inclusive.
+     * @param end
+     *            The X component of the last position, exclusive.
+     * @return True to continue visiting, or false to stop.
+     */
+    public boolean visit ( int y, int start, int end );
+}
@@ -3,50 +3,88 @@ package electra.ztrix.model.game.common;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.Set;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 /**
- * A generic Region containing an arbitrary Set of Coordinates.
+ * A generic Region containing an arbitrary Set of Coordinates. The positions
+ * are stored packed, sorted in row-major order, with an open-addressing hash
+ * table of their indices for constant-time membership checks.
  *
  * @author Electra
  */
 public class SetRegion implements Region {
-    /** The Set of contained Coordinates. */
-    private final Set<Coordinate> set;
+    /** The packed positions of the Region, sorted in row-major order. */
+    private final long[] packed;
+    /** The index plus one of each position, by hash, or 0 for an empty slot. */
+    private final int[] table;
     /** The Rectangle bounding box of the Region. */
     private final Rectangle bounds;
+    /** The value hash code of the Region. */
+    private final int hash;
 
     /**
-     * Generates the Rectangle bounding box of the Region from its positions.
+     * Generates the Rectangle bounding box of the Region from its sorted,
+     * packed positions.
      *
-     * @param positions
-     *            The positions contained in the Region.
+     * @param packed
+     *            The packed positions contained in the Region, sorted.
      * @return The Rectangle bounding box of the Region.
      */
-    private Rectangle generateBounds ( Iterable<Coordinate> positions ) {
-        // Keep track of the bounds seen so far.
+    private static Rectangle generateBounds ( long[] packed ) {
+        // Sorting gives the Y bounds, so only X must be searched for.
         int minX = Integer.MAX_VALUE;
-        int minY = Integer.MAX_VALUE;
         int maxX = Integer.MIN_VALUE;
-        int maxY = Integer.MIN_VALUE;
-        // Update the bounds for each position in the Iterable.
-        for ( Coordinate position : positions ) {
-            if ( position.x() < minX ) {
-                minX = position.x();
-            }
-            if ( position.y() < minY ) {
-                minY = position.y();
+        for ( long position : packed ) {
+            int x = PackedCoordinate.x( position );
+            if ( x < minX ) {
+                minX = x;
             }
-            if ( position.x() > maxX ) {
-                maxX = position.x();
+            if ( x > maxX ) {
+                maxX = x;
             }
-            if ( position.y() > maxY ) {
-                maxY = position.y();
+        }
+        int minY = PackedCoordinate.y( packed[0] );
+        int maxY = PackedCoordinate.y( packed[packed.length - 1] );
+        // The maximum of a Rectangle is exclusive.
+        return new Rectangle( minX, minY, maxX + 1, maxY + 1 );
+    }
+
+    /**
+     * Gets the first slot to probe for a packed position.
+     *
+     * @param position
+     *            The packed position.
+     * @param mask
+     *            The size of the table minus one.
+     * @return The index of the first slot.
+     */
+    private static int slot ( long position, int mask ) {
+        return (int) Zobrist.mix( position ) & mask;
+    }
+
+    /**
+     * Generates the hash table of the sorted, packed positions, with at least
+     * twice as many slots as positions.
+     *
+     * @param packed
+     *            The packed positions contained in the Region.
+     * @return The hash table.
+     */
+    private static int[] generateTable ( long[] packed ) {
+        int[] table = new int[Integer.highestOneBit( packed.length ) << 2];
+        int mask = table.length - 1;
+        for ( int i = 0; i < packed.length; i++ ) {
+            int slot = slot( packed[i], mask );
+            while ( table[slot] != 0 ) {
+                slot = ( slot + 1 ) & mask;
             }
+            table[slot] = i + 1;
         }
-        return new Rectangle( minX, minY, maxX, maxY );
+        return table;
     }
 
     /**
@@ -60,21 +98,207 @@ public class SetRegion implements Region {
         if ( positions == null ) {
             throw new NullPointerException( "SetRegion(positions) must be non-null." );
         }
-        // Add the positions to the Set.
-        set = new HashSet<>();
+        // Pack the positions, then sort them and drop duplicates.
+        long[] all = new long[16];
+        int count = 0;
         for ( Coordinate position : positions ) {
-            set.add( position );
+            if ( count == all.length ) {
+                all = Arrays.copyOf( all, count * 2 );
+            }
+            all[count++] = position.pack();
         }
         // Cannot have an empty Region.
-        if ( set.isEmpty() ) {
+        if ( count == 0 ) {
             throw new IllegalArgumentException( "SetRegion(positions) must be non-empty." );
         }
-        bounds = generateBounds( positions );
+        Arrays.sort( all, 0, count );
+        int unique = 1;
+        for ( int i = 1; i < count; i++ ) {
+            if ( all[i] != all[unique - 1] ) {
+                all[unique++] = all[i];
+            }
+        }
+        packed = Arrays.copyOf( all, unique );
+        table = generateTable( packed );
+        bounds = generateBounds( packed );
+        hash = RegionAlgebra.hash( this );
+    }
+
+    @Override
+    public int size () {
+        return packed.length;
+    }
+
+    /**
+     * Checks whether the Region contains a packed position.
+     *
+     * @param position
+     *            The packed position to check.
+     * @return True if the Region contains the position.
+     */
+    @Override
+    public boolean containsPacked ( long position ) {
+        int mask = table.length - 1;
+        int slot = slot( position, mask );
+        // Probe until the position or an empty slot is found.
+        while ( table[slot] != 0 ) {
+            if ( packed[table[slot] - 1] == position ) {
+                return true;
+            }
+            slot = ( slot + 1 ) & mask;
+        }
+        return false;
+    }
+
+    @Override
+    @Contract("null -> false")
+    public boolean contains ( Coordinate position ) {
+        if ( position == null ) {
+            return false;
+        }
+        return containsPacked( position.pack() );
+    }
+
+    @Override
+    public boolean forEachPosition ( PositionVisitor visitor ) {
+        if ( visitor == null ) {
+            throw new NullPointerException( "forEachPosition(visitor) must be non-null." );
+        }
+        for ( long position : packed ) {
+            if ( !visitor.visit( PackedCoordinate.x( position ), PackedCoordinate.y( position ) ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean forEachRowSpan ( RowSpanVisitor visitor ) {
+        if ( visitor == null ) {
+            throw new NullPointerException( "forEachRowSpan(visitor) must be non-null." );
+        }
+        // Positions are sorted, so each span is a run of consecutive X values.
+        int i = 0;
+        while ( i < packed.length ) {
+            int y = PackedCoordinate.y( packed[i] );
+            int start = PackedCoordinate.x( packed[i] );
+            int end = start + 1;
+            i++;
+            while ( i < packed.length && packed[i] == PackedCoordinate.pack( end, y ) ) {
+                end++;
+                i++;
+            }
+            if ( !visitor.visit( y, start, end ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a Spliterator over the positions of the Region, in the same
+     * order as iterator(). It splits the sorted positions in half, and knows
+     * its exact size after every split.
+     *
+     * @return The Spliterator.
+     */
+    @Override
+    public Spliterator<Coordinate> spliterator () {
+        return new ArraySpliterator( packed, 0, packed.length );
+    }
+
+    /**
+     * A Spliterator over a range of a SetRegion's packed positions.
+     */
+    private static final class ArraySpliterator implements Spliterator<Coordinate> {
+        /** The sorted, packed positions. */
+        private final long[] packed;
+        /** The index of the next position. */
+        private int index;
+        /** The index of the last position, exclusive. */
+        private final int fence;
+
+        /**
+         * Creates a new ArraySpliterator over a range of packed positions.
+         *
+         * @param packed
+         *            The sorted, packed positions.
+         * @param index
+         *            The index of the first position.
+         * @param fence
+         *            The index of the last position, exclusive.
+         */
+        private ArraySpliterator ( long[] packed, int index, int fence ) {
+            this.packed = packed;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance ( Consumer<? super Coordinate> action ) {
+            if ( action == null ) {
+                throw new NullPointerException( "tryAdvance(action) must be non-null." );
+            }
+            if ( index >= fence ) {
+                return false;
+            }
+            action.accept( Coordinate.unpack( packed[index++] ) );
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining ( Consumer<? super Coordinate> action ) {
+            if ( action == null ) {
+                throw new NullPointerException( "forEachRemaining(action) must be non-null." );
+            }
+            for ( int i = index; i < fence; i++ ) {
+                action.accept( Coordinate.unpack( packed[i] ) );
+            }
+            index = fence;
+        }
+
+        @Override
+        public Spliterator<Coordinate> trySplit () {
+            int middle = ( index + fence ) >>> 1;
+            if ( middle <= index ) {
+                return null;
+            }
+            Spliterator<Coordinate> prefix = new ArraySpliterator( packed, index, middle );
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize () {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics () {
+            return Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SIZED | Spliterator.SUBSIZED
+                    | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        }
     }
 
     @Override
     public Iterator<Coordinate> iterator () {
-        return set.iterator();
+        return new Iterator<>() {
+            /** The index of the next position. */
+            private int index = 0;
+
+            @Override
+            public boolean hasNext () {
+                return index < packed.length;
+            }
+
+            @Override
+            public Coordinate next () {
+                if ( index >= packed.length ) {
+                    throw new NoSuchElementException();
+                }
+                return Coordinate.unpack( packed[index++] );
+            }
+        };
     }
 
     @Override
@@ -82,4 +306,13 @@ public class SetRegion implements Region {
         return bounds;
     }
 
+    @Override
+    public boolean equals ( Object obj ) {
+        return RegionAlgebra.equal( this, obj );
+    }
+
+    @Override
+    public int hashCode () {
+        return hash;
+    }
 }
@@ -0,0 +1,232 @@
+package electra.ztrix.model.game.common;
+
+import org.jetbrains.annotations.Contract;
+
+/**
+ * An immutable rigid Transform of the grid: a Rotation about the origin
+ * followed by a translation. Applying one multiplies by a fixed 2x2 integer
+ * matrix looked up by the Rotation, and composing two only adds Rotations and
+ * rotates one offset, so a chain of rotations and translations can be folded
+ * into a single Transform and applied in one pass.
+ *
+ * @param rotation
+ *            The Rotation about the origin, applied first.
+ * @param offset
+ *            The offset translated by, applied second.
+ * @author Electra
+ */
+public record Transform(Rotation rotation, Coordinate offset) {
+    /** The Transform that leaves every position in place. */
+    public static final Transform IDENTITY = new Transform( Rotation.R0, Coordinate.ORIGIN );
+
+    /** For each Rotation, by ordinal, the X component's factor of X. */
+    private static final int[] XX = { 1, 0, -1, 0 };
+    /** For each Rotation, by ordinal, the X component's factor of Y. */
+    private static final int[] XY = { 0, 1, 0, -1 };
+    /** For each Rotation, by ordinal, the Y component's factor of X. */
+    private static final int[] YX = { 0, -1, 0, 1 };
+    /** For each Rotation, by ordinal, the Y component's factor of Y. */
+    private static final int[] YY = { 1, 0, -1, 0 };
+
+    /**
+     * Creates a new Transform from a Rotation and an offset.
+     *
+     * @param rotation
+     *            The Rotation about the origin, non-null.
+     * @param offset
+     *            The offset to translate by afterwards, non-null.
+     */
+    public Transform {
+        if ( rotation == null ) {
+            throw new NullPointerException( "Transform(rotation) must be non-null." );
+        }
+        if ( offset == null ) {
+            throw new NullPointerException( "Transform(offset) must be non-null." );
+        }
+    }
+
+    /**
+     * Creates a new Transform that only translates.
+     *
+     * @param offset
+     *            The offset to translate by, non-null.
+     * @return The new Transform.
+     */
+    @Contract(value = "!null -> new", pure = true)
+    public static Transform translation ( Coordinate offset ) {
+        return new Transform( Rotation.R0, offset );
+    }
+
+    /**
+     * Creates a new Transform that rotates around a center, in the same
+     * direction as Coordinate.rotate().
+     *
+     * @param direction
+     *            The direction to rotate, non-null.
+     * @param center
+     *            The position to rotate around, non-null.
+     * @return The new Transform.
+     */
+    @Contract(value = "!null, !null -> new", pure = true)
+    public static Transform rotation ( Rotation direction, Coordinate center ) {
+        if ( direction == null ) {
+            throw new NullPointerException( "rotation(direction) must be non-null." );
+        }
+        if ( center == null ) {
+            throw new NullPointerException( "rotation(center) must be non-null." );
+        }
+        // Rotating about the center is rotating about the origin, then moving
+        // the rotated center back to the center.
+        int x = center.x() - rotateX( direction, center.x(), center.y() );
+        int y = center.y() - rotateY( direction, center.x(), center.y() );
+        return new Transform( direction, new Coordinate( x, y ) );
+    }
+
+    /**
+     * Gets the X component of a vector rotated about the origin.
+     *
+     * @param direction
+     *            The direction to rotate, non-null.
+     * @param x
+     *            The X component of the vector.
+     * @param y
+     *            The Y component of the vector.
+     * @return The X component of the rotated vector.
+     */
+    static int rotateX ( Rotation direction, int x, int y ) {
+        int index = direction.ordinal();
+        return XX[index] * x + XY[index] * y;
+    }
+
+    /**
+     * Gets the Y component of a vector rotated about the origin.
+     *
+     * @param direction
+     *            The direction to rotate, non-null.
+     * @param x
+     *            The X component of the vector.
+     * @param y
+     *            The Y component of the vector.
+     * @return The Y component of the rotated vector.
+     */
+    static int rotateY ( Rotation direction, int x, int y ) {
+        int index = direction.ordinal();
+        return YX[index] * x + YY[index] * y;
+    }
+
+    /**
+     * Creates a new Transform that applies this one, then another.
+     *
+     * @param next
+     *            The Transform to apply second, non-null.
+     * @return The composed Transform.
+     */
+    @Contract(value = "!null -> new", pure = true)
+    public Transform then ( Transform next ) {
+        if ( next == null ) {
+            throw new NullPointerException( "then(next) must be non-null." );
+        }
+        // The next Rotation also rotates this offset.
+        int x = next.applyX( offset.x(), offset.y() );
+        int y = next.applyY( offset.x(), offset.y() );
+        return new Transform( rotation.plus( next.rotation ), new Coordinate( x, y ) );
+    }
+
+    /**
+     * Creates a new Transform that undoes this one.
+     *
+     * @return The inverse Transform.
+     */
+    @Contract(value = "-> new", pure = true)
+    public Transform inverse () {
+        Rotation inverse = rotation.negate();
+        int x = -rotateX( inverse, offset.x(), offset.y() );
+        int y = -rotateY( inverse, offset.x(), offset.y() );
+        return new Transform( inverse, new Coordinate( x, y ) );
+    }
+
+    /**
+     * Gets the X component of a transformed position.
+     *
+     * @param x
+     *            The X component of the position.
+     * @param y
+     *            The Y component of the position.
+     * @return The X component of the transformed position.
+     */
+    public int applyX ( int x, int y ) {
+        return rotateX( rotation, x, y ) + offset.x();
+    }
+
+    /**
+     * Gets the Y component of a transformed position.
+     *
+     * @param x
+     *            The X component of the position.
+     * @param y
+     *            The Y component of the position.
+     * @return The Y component of the transformed position.
+     */
+    public int applyY ( int x, int y ) {
+        return rotateY( rotation, x, y ) + offset.y();
+    }
+
+    /**
+     * Creates a new Coordinate by transforming a position.
+     *
+     * @param position
+     *            The position to transform, non-null.
+     * @return The new, transformed Coordinate.
+     */
+    @Contract(value = "!null -> new", pure = true)
+    public Coordinate apply ( Coordinate position ) {
+        if ( position == null ) {
+            throw new NullPointerException( "apply(position) must be non-null." );
+        }
+        return new Coordinate( applyX( position.x(), position.y() ), applyY( position.x(), position.y() ) );
+    }
+
+    /**
+     * Transforms a packed position.
+     *
+     * @param packed
+     *            The packed position.
+     * @return The packed, transformed position.
+     */
+    public long applyPacked ( long packed ) {
+        int x = PackedCoordinate.x( packed );
+        int y = PackedCoordinate.y( packed );
+        return PackedCoordinate.pack( applyX( x, y ), applyY( x, y ) );
+    }
+
+    /**
+     * Creates a new Rectangle of the positions a Rectangle's positions
+     * transform to. Positions are treated as cells, like Region.transform(),
+     * so the exclusive maximum is not itself transformed.
+     *
+     * @param rect
+     *            The Rectangle to transform, non-null.
+     * @return The new, transformed Rectangle.
+     */
+    @Contract(value = "!null -> new", pure = true)
+    public Rectangle apply ( Rectangle rect ) {
+        if ( rect == null ) {
+            throw new NullPointerException( "apply(rect) must be non-null." );
+        }
+        // Transform the first and last positions, which stay opposite corners.
+        int firstX = rect.getMinimum().x();
+        int firstY = rect.getMinimum().y();
+        int lastX = rect.getMaximum().x() - 1;
+        int lastY = rect.getMaximum().y() - 1;
+        int x1 = applyX( firstX, firstY );
+        int y1 = applyY( firstX, firstY );
+        int x2 = applyX( lastX, lastY );
+        int y2 = applyY( lastX, lastY );
+        return new Rectangle( Math.min( x1, x2 ), Math.min( y1, y2 ), Math.max( x1, x2 ) + 1, Math.max( y1, y2 ) + 1 );
+    }
+
+    @Override
+    public String toString () {
+        return "Transform(" + rotation + ", " + offset + ")";
+    }
+}
@@ -0,0 +1,177 @@
+package electra.ztrix.model.game.common;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A lightweight view of a Region moved by an offset. Creating one copies no
+ * positions: membership, iteration and visiting all read the base Region and
+ * add the offset on the fly, and translating again only changes the offset.
+ * Use materialize() to copy the positions into a SetRegion when the view will
+ * be read many times.
+ *
+ * @author Electra
+ */
+public class TranslatedRegion implements Region {
+    /** The Region being viewed. */
+    private final Region base;
+    /** The X component of the offset. */
+    private final int dx;
+    /** The Y component of the offset. */
+    private final int dy;
+    /** The Rectangle bounding box of the Region. */
+    private final Rectangle bounds;
+    /** The value hash code of the Region, or 0 until calculated. */
+    private int hash;
+
+    /**
+     * Creates a new TranslatedRegion viewing a Region moved by an offset.
+     *
+     * @param base
+     *            The Region to view, non-null.
+     * @param offset
+     *            The offset to move by, non-null.
+     */
+    public TranslatedRegion ( Region base, Coordinate offset ) {
+        if ( base == null ) {
+            throw new NullPointerException( "TranslatedRegion(base) must be non-null." );
+        }
+        if ( offset == null ) {
+            throw new NullPointerException( "TranslatedRegion(offset) must be non-null." );
+        }
+        // View the underlying Region directly, rather than a view of a view.
+        if ( base instanceof TranslatedRegion view ) {
+            this.base = view.base;
+            this.dx = view.dx + offset.x();
+            this.dy = view.dy + offset.y();
+        } else {
+            this.base = base;
+            this.dx = offset.x();
+            this.dy = offset.y();
+        }
+        this.bounds = this.base.getBounds().translate( new Coordinate( dx, dy ) );
+    }
+
+    /**
+     * Gets the Region being viewed.
+     *
+     * @return the base Region.
+     */
+    public Region getBase () {
+        return base;
+    }
+
+    /**
+     * Gets the offset the base Region is moved by.
+     *
+     * @return the offset.
+     */
+    public Coordinate getOffset () {
+        return new Coordinate( dx, dy );
+    }
+
+    /**
+     * Copies the positions of the view into a SetRegion.
+     *
+     * @return The new SetRegion.
+     */
+    @Contract(value = "-> new", pure = true)
+    public SetRegion materialize () {
+        List<Coordinate> positions = new ArrayList<>();
+        forEachPosition( ( x, y ) -> positions.add( new Coordinate( x, y ) ) );
+        return new SetRegion( positions );
+    }
+
+    @Override
+    public @NotNull Rectangle getBounds () {
+        return bounds;
+    }
+
+    @Override
+    public boolean contains ( Coordinate position ) {
+        if ( position == null ) {
+            return false;
+        }
+        return containsPacked( position.pack() );
+    }
+
+    @Override
+    public boolean containsPacked ( long packed ) {
+        return base.containsPacked( PackedCoordinate.plus( packed, -dx, -dy ) );
+    }
+
+    @Override
+    public TranslatedRegion translate ( Coordinate offset ) {
+        if ( offset == null ) {
+            throw new NullPointerException( "translate(offset) must be non-null." );
+        }
+        return new TranslatedRegion( this, offset );
+    }
+
+    @Override
+    public Region transform ( Transform transform ) {
+        if ( transform == null ) {
+            throw new NullPointerException( "transform(transform) must be non-null." );
+        }
+        // Fold the offset into the Transform, and apply it to the base.
+        return base.transform( Transform.translation( new Coordinate( dx, dy ) ).then( transform ) );
+    }
+
+    @Override
+    public boolean forEachPosition ( PositionVisitor visitor ) {
+        if ( visitor == null ) {
+            throw new NullPointerException( "forEachPosition(visitor) must be non-null." );
+        }
+        return base.forEachPosition( ( x, y ) -> visitor.visit( x + dx, y + dy ) );
+    }
+
+    @Override
+    public boolean forEachRowSpan ( RowSpanVisitor visitor ) {
+        if ( visitor == null ) {
+            throw new NullPointerException( "forEachRowSpan(visitor) must be non-null." );
+        }
+        return base.forEachRowSpan( ( y, start, end ) -> visitor.visit( y + dy, start + dx, end + dx ) );
+    }
+
+    @Override
+    public Iterator<Coordinate> iterator () {
+        Iterator<Coordinate> positions = base.iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext () {
+                return positions.hasNext();
+            }
+
+            @Override
+            public Coordinate next () {
+                Coordinate position = positions.next();
+                return new Coordinate( position.x() + dx, position.y() + dy );
+            }
+        };
+    }
+
+    @Override
+    public int size () {
+        return base.size();
+    }
+
+    @Override
+    public boolean equals ( Object obj ) {
+        return RegionAlgebra.equal( this, obj );
+    }
+
+    @Override
+    public int hashCode () {
+        // Read the field once, so a racing thread sees either 0 or the hash.
+        int h = hash;
+        if ( h == 0 ) {
+            h = RegionAlgebra.hash( this );
+            hash = h;
+        }
+        return h;
+    }
+}
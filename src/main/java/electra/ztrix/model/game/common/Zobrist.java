@@ -0,0 +1,68 @@
+package electra.ztrix.model.game.common;
+
+/**
+ * Static Zobrist keys for hashing game states. A state's hash is the XOR of
+ * the keys of its parts, so it can be updated in constant time as each part
+ * changes. Keys are derived from their inputs with a mixing function, so
+ * there are no tables to size.
+ *
+ * @author Electra
+ */
+public final class Zobrist {
+    /** The seed mixed into the key of each cell. */
+    private static final long CELL_SEED = 0x5DEECE66DL;
+    /** The seed mixed into the key of each piece state. */
+    private static final long PIECE_SEED = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Prevents instantiation of the static helper class.
+     */
+    private Zobrist () {
+    }
+
+    /**
+     * Mixes the bits of a value, using the SplitMix64 finalizer.
+     *
+     * @param value
+     *            The value to mix.
+     * @return The mixed value.
+     */
+    public static long mix ( long value ) {
+        long z = value;
+        z = ( z ^ ( z >>> 30 ) ) * 0xBF58476D1CE4E5B9L;
+        z = ( z ^ ( z >>> 27 ) ) * 0x94D049BB133111EBL;
+        return z ^ ( z >>> 31 );
+    }
+
+    /**
+     * Gets the key of an occupied cell.
+     *
+     * @param x
+     *            The X component of the cell.
+     * @param y
+     *            The Y component of the cell.
+     * @return The key of the cell.
+     */
+    public static long cell ( int x, int y ) {
+        long packed = ( (long) y << 32 ) | ( x & 0xFFFFFFFFL );
+        return mix( packed + CELL_SEED );
+    }
+
+    /**
+     * Gets the key of a piece in a particular state.
+     *
+     * @param typeKey
+     *            The key of the piece's type.
+     * @param x
+     *            The X component of the piece's position.
+     * @param y
+     *            The Y component of the piece's position.
+     * @param rotation
+     *            The piece's Rotation, non-null.
+     * @return The key of the piece.
+     */
+    public static long piece ( long typeKey, int x, int y, Rotation rotation ) {
+        long packed = ( (long) y << 32 ) | ( x & 0xFFFFFFFFL );
+        return mix( typeKey ^ mix( mix( packed + PIECE_SEED ) + rotation.ordinal() ) );
+    }
+}
@@ -1,25 +1,40 @@
 package electra.ztrix.model.game.piece;
 
 import electra.ztrix.model.game.action.Revertable;
+import electra.ztrix.model.game.action.UndoStack;
 import electra.ztrix.model.game.board.Board;
 import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.PackedCoordinate;
 import electra.ztrix.model.game.common.Region;
 import electra.ztrix.model.game.common.Rotation;
+import electra.ztrix.model.game.common.Zobrist;
 
 /**
  * A mutable class that represents a moving ActivePiece on a Board, with a
  * particular position and Rotation. Can be moved directly, and also implements
  * movement behavior based on the properties of it's PieceType.
+ * <p>
+ * Each movement has two forms. One returns a Revertable to revert it, and the
+ * other pushes a compact record onto a caller's UndoStack and reports success
+ * as a boolean, so a search can make and unmake moves without allocating.
+ * Records are undone with undo(), in the reverse order they were pushed.
  *
  * @author Electra
  */
 public class ActivePiece {
+    /** The undo record kind that restores the position and Rotation. */
+    private static final int UNDO_MOVE = 0;
+    /** The undo record kind that also clears the placed cells. */
+    private static final int UNDO_PLACE = 1;
+    /** Every Rotation, by ordinal, to decode undo records. */
+    private static final Rotation[] ROTATIONS = Rotation.values();
+
     /** The type of the ActivePiece. */
     private final PieceType type;
     /** The Board the ActivePiece is on. */
     private final Board board;
-    /** The position of the ActivePiece. */
-    private Coordinate position;
+    /** The position of the ActivePiece, packed. */
+    private long position;
     /** The Rotation of the ActivePiece. */
     private Rotation rotation;
 
@@ -51,7 +66,7 @@ public class ActivePiece {
         }
         this.type = type;
         this.board = board;
-        this.position = position;
+        this.position = position.pack();
         this.rotation = rotation;
     }
 
@@ -79,6 +94,15 @@ public class ActivePiece {
      * @return the position.
      */
     public Coordinate getPosition () {
+        return Coordinate.unpack( position );
+    }
+
+    /**
+     * Gets the position of the ActivePiece, packed.
+     *
+     * @return the packed position.
+     */
+    public long getPackedPosition () {
         return position;
     }
 
@@ -92,13 +116,28 @@ public class ActivePiece {
     }
 
     /**
-     * Gets the Region of the Board the ActivePiece currently takes up.
+     * Gets the Region of the Board the ActivePiece currently takes up. The
+     * shape is translated without copying its positions, so this creates at
+     * most one small object.
      *
      * @return the Region.
      */
     public Region getRegion () {
         Region shape = type.getShape( rotation );
-        return shape.translate( position );
+        return shape.translate( getPosition() );
+    }
+
+    /**
+     * Gets a Zobrist hash of the ActivePiece's type, position and Rotation,
+     * mixed with the hash of its Board. This identifies the whole game state
+     * for transposition tables, and costs no more than the Board's hash.
+     *
+     * @return the hash.
+     */
+    public long hash () {
+        long key = Zobrist.piece( type.getHashKey(),
+                PackedCoordinate.x( position ), PackedCoordinate.y( position ), rotation );
+        return board.hash() ^ key;
     }
 
     /**
@@ -113,8 +152,8 @@ public class ActivePiece {
             throw new NullPointerException( "setPosition(newPos) must be non-null." );
         }
         // Save the previous position before writing.
-        Coordinate oldPos = position;
-        position = newPos;
+        long oldPos = position;
+        position = newPos.pack();
         // Create a Revertable using the previous position.
         return new Revertable() {
             @Override
@@ -124,6 +163,25 @@ public class ActivePiece {
         };
     }
 
+    /**
+     * Sets the position of the ActivePiece, with no collision checks, pushing
+     * a record to undo it.
+     *
+     * @param x
+     *            The X component of the new position.
+     * @param y
+     *            The Y component of the new position.
+     * @param undo
+     *            The UndoStack to push the record to, non-null.
+     */
+    public void setPosition ( int x, int y, UndoStack undo ) {
+        if ( undo == null ) {
+            throw new NullPointerException( "setPosition(undo) must be non-null." );
+        }
+        push( undo, UNDO_MOVE );
+        position = PackedCoordinate.pack( x, y );
+    }
+
     /**
      * Sets the Rotation of the ActivePiece, with no collision checks.
      *
@@ -147,14 +205,45 @@ public class ActivePiece {
         };
     }
 
+    /**
+     * Sets the Rotation of the ActivePiece, with no collision checks, pushing
+     * a record to undo it.
+     *
+     * @param newRot
+     *            The new Rotation, non-null.
+     * @param undo
+     *            The UndoStack to push the record to, non-null.
+     */
+    public void setRotation ( Rotation newRot, UndoStack undo ) {
+        if ( newRot == null ) {
+            throw new NullPointerException( "setRotation(newRot) must be non-null." );
+        }
+        if ( undo == null ) {
+            throw new NullPointerException( "setRotation(undo) must be non-null." );
+        }
+        push( undo, UNDO_MOVE );
+        rotation = newRot;
+    }
+
     /**
      * Checks the collision of the ActivePiece with the Board's Minos.
      *
      * @return True if the ActivePiece is not colliding with the Board.
      */
     public boolean isNotColliding () {
-        Region region = getRegion();
-        return board.isRegionEmpty( region );
+        return isNotColliding( position );
+    }
+
+    /**
+     * Checks the collision of the ActivePiece's shape at a position with the
+     * Board's Minos, a row mask at a time if the shape has a ShapeMask.
+     *
+     * @param packed
+     *            The packed position to check the shape at.
+     * @return True if the shape would not collide with the Board.
+     */
+    private boolean isNotColliding ( long packed ) {
+        return type.isNotColliding( board, rotation, PackedCoordinate.x( packed ), PackedCoordinate.y( packed ) );
     }
 
     /**
@@ -168,16 +257,55 @@ public class ActivePiece {
         if ( offset == null ) {
             throw new NullPointerException( "move(offset) must be non-null." );
         }
-        // Move the piece, saving a Revertable to revert the move.
-        Coordinate newPos = position.plus( offset );
-        Revertable revertable = setPosition( newPos );
-        // Return a Revertable if the move succeeded.
-        if ( isNotColliding() ) {
-            return revertable;
+        long oldPos = position;
+        if ( !shift( offset.x(), offset.y() ) ) {
+            return null;
+        }
+        return restorer( oldPos, rotation );
+    }
+
+    /**
+     * Moves the ActivePiece by an offset, checking collision, and pushes a
+     * record to undo the move if it succeeded.
+     *
+     * @param dx
+     *            The X component of the offset.
+     * @param dy
+     *            The Y component of the offset.
+     * @param undo
+     *            The UndoStack to push the record to, non-null.
+     * @return True if the move succeeded, or false if it failed and nothing
+     *         was pushed.
+     */
+    public boolean move ( int dx, int dy, UndoStack undo ) {
+        if ( undo == null ) {
+            throw new NullPointerException( "move(undo) must be non-null." );
+        }
+        long oldPos = position;
+        if ( !shift( dx, dy ) ) {
+            return false;
+        }
+        push( undo, oldPos, rotation, UNDO_MOVE );
+        return true;
+    }
+
+    /**
+     * Moves the ActivePiece by an offset if the moved shape does not collide.
+     *
+     * @param dx
+     *            The X component of the offset.
+     * @param dy
+     *            The Y component of the offset.
+     * @return True if the ActivePiece moved.
+     */
+    private boolean shift ( int dx, int dy ) {
+        // Check the moved shape before moving, so a failed move costs nothing.
+        long newPos = PackedCoordinate.plus( position, dx, dy );
+        if ( !isNotColliding( newPos ) ) {
+            return false;
         }
-        // Revert the move if it failed.
-        revertable.revert();
-        return null;
+        position = newPos;
+        return true;
     }
 
     /**
@@ -191,55 +319,277 @@ public class ActivePiece {
         if ( direction == null ) {
             throw new NullPointerException( "rotate(direction) must be non-null." );
         }
-        // Create a Revertable using the previous position and Rotation.
-        Coordinate prevPos = position;
+        long prevPos = position;
         Rotation prevRot = rotation;
-        Revertable revertable = new Revertable() {
-            @Override
-            public void revert () {
-                position = prevPos;
-                rotation = prevRot;
-            }
-        };
-        // Try the default Rotaiton.
+        if ( !turn( direction ) ) {
+            return null;
+        }
+        return restorer( prevPos, prevRot );
+    }
+
+    /**
+     * Rotates the ActivePiece, checking collision, and pushes a record to
+     * undo the rotate if it succeeded.
+     *
+     * @param direction
+     *            The direction to rotate, non-null.
+     * @param undo
+     *            The UndoStack to push the record to, non-null.
+     * @return True if the rotate succeeded, or false if it failed and nothing
+     *         was pushed.
+     */
+    public boolean rotate ( Rotation direction, UndoStack undo ) {
+        if ( direction == null ) {
+            throw new NullPointerException( "rotate(direction) must be non-null." );
+        }
+        if ( undo == null ) {
+            throw new NullPointerException( "rotate(undo) must be non-null." );
+        }
+        long prevPos = position;
+        Rotation prevRot = rotation;
+        if ( !turn( direction ) ) {
+            return false;
+        }
+        push( undo, prevPos, prevRot, UNDO_MOVE );
+        return true;
+    }
+
+    /**
+     * Rotates the ActivePiece if the rotated shape, or one of its kicks, does
+     * not collide.
+     *
+     * @param direction
+     *            The direction to rotate.
+     * @return True if the ActivePiece rotated.
+     */
+    private boolean turn ( Rotation direction ) {
+        long prevPos = position;
+        Rotation prevRot = rotation;
+        // Try the default Rotaiton, then each kick for the Rotation, walking
+        // the flat kick table so a failed kick costs nothing.
         rotation = prevRot.plus( direction );
-        if ( isNotColliding() ) {
-            return revertable;
-        }
-        // Try each kick for the Rotation.
-        Iterable<Coordinate> kicks = type.getKicks( prevRot, rotation );
-        for ( Coordinate kick : kicks ) {
-            position = prevPos.plus( kick );
-            if ( isNotColliding() ) {
-                return revertable;
+        if ( !isNotColliding() ) {
+            KickTable table = type.getKickTable();
+            int[] kicks = table.getKicks();
+            int end = table.getEnd( prevRot, rotation );
+            int i = table.getStart( prevRot, rotation );
+            while ( i < end && !isNotColliding( PackedCoordinate.plus( prevPos, kicks[i], kicks[i + 1] ) ) ) {
+                i += 2;
             }
+            if ( i == end ) {
+                // Revert the Rotation if it failed.
+                rotation = prevRot;
+                return false;
+            }
+            position = PackedCoordinate.plus( prevPos, kicks[i], kicks[i + 1] );
         }
-        // Revert the Rotation if it failed.
-        revertable.revert();
-        return null;
+        return true;
     }
 
     /**
      * Places the ActivePiece on the Board, moving it to the position it landed.
+     * An ActivePiece that is colliding is still placed, overwriting the Minos
+     * it lands on, and reverting restores them.
      *
      * @return A Revertable to revert the placement.
      */
     public Revertable place () {
-        Coordinate prevPos = position;
-        Coordinate down = new Coordinate( 0, -1 );
-        while ( move( down ) != null ) {
+        long prevPos = position;
+        if ( !isNotColliding() ) {
+            step();
+            // Place the piece, saving a Revertable to restore the overwritten Minos.
+            Revertable revertable = board.setRegion( getRegion(), type.getMino() );
+            return new Revertable() {
+                @Override
+                public void revert () {
+                    revertable.revert();
+                    position = prevPos;
+                }
+            };
+        }
+        drop();
+        return lock( prevPos );
+    }
+
+    /**
+     * Places the ActivePiece on the Board like place(), moving it to the
+     * position it landed, and pushes a record to undo both. Unlike place(),
+     * this refuses to place an ActivePiece that is colliding, so undoing it
+     * only has to clear the placed cells.
+     *
+     * @param undo
+     *            The UndoStack to push the record to, non-null.
+     * @return True if the ActivePiece was placed, or false if it was colliding
+     *         and nothing was pushed.
+     */
+    public boolean place ( UndoStack undo ) {
+        if ( undo == null ) {
+            throw new NullPointerException( "place(undo) must be non-null." );
+        }
+        if ( !isNotColliding() ) {
+            return false;
+        }
+        push( undo, UNDO_PLACE );
+        drop();
+        board.setPackedRegion( type.getPackedShape( rotation ), position, type.getMino() );
+        return true;
+    }
+
+    /**
+     * Moves the ActivePiece down until it would collide. If no column of its
+     * shape has a gap, this is one step found by fallDistance(), otherwise it
+     * moves down one row at a time. The ActivePiece must not be colliding.
+     */
+    private void drop () {
+        BottomProfile profile = type.getBottomProfile( rotation );
+        if ( profile.isSolid() ) {
+            position = PackedCoordinate.plus( position, 0, -fallDistance( profile ) );
+        } else {
+            step();
+        }
+    }
+
+    /**
+     * Gets how far the ActivePiece can fall before it would collide, from the
+     * Board's column heights and the shape's BottomProfile. The ActivePiece
+     * must not be colliding, and no column of its shape may have a gap.
+     *
+     * @param profile
+     *            The BottomProfile of the ActivePiece's shape.
+     * @return The number of rows it can fall.
+     */
+    private int fallDistance ( BottomProfile profile ) {
+        // Find how far each column can fall, and take the shortest.
+        int distance = Integer.MAX_VALUE;
+        for ( int column = 0; column < profile.getWidth(); column++ ) {
+            if ( !profile.hasColumn( column ) ) {
+                continue;
+            }
+            int x = PackedCoordinate.x( position ) + profile.getMinX() + column;
+            int bottom = PackedCoordinate.y( position ) + profile.getBottom( column );
+            distance = Math.min( distance, bottom - board.getColumnHeightBelow( x, bottom ) );
+        }
+        return distance;
+    }
+
+    /**
+     * Moves the ActivePiece down one row at a time until it would collide.
+     */
+    private void step () {
+        long down = PackedCoordinate.plus( position, 0, -1 );
+        while ( isNotColliding( down ) ) {
             // Keep moving down til you hit the floor.
+            position = down;
+            down = PackedCoordinate.plus( position, 0, -1 );
+        }
+    }
+
+    /**
+     * Undoes the record on top of an UndoStack, which must have been pushed
+     * by this ActivePiece, restoring its position and Rotation and clearing
+     * its cells if it was placed.
+     *
+     * @param undo
+     *            The UndoStack to pop the record from, non-null.
+     */
+    public void undo ( UndoStack undo ) {
+        if ( undo == null ) {
+            throw new NullPointerException( "undo(undo) must be non-null." );
         }
-        // Place the piece, saving a Revertable to revert the placement.
-        Region region = getRegion();
-        Revertable revertable = board.setRegion( region, type.getMino() );
-        // Create a new Revertable that reverts both the placement and movement.
+        int record = (int) undo.pop();
+        if ( record >>> 2 == UNDO_PLACE ) {
+            board.setPackedRegion( type.getPackedShape( rotation ), position, null );
+        }
+        position = undo.pop();
+        rotation = ROTATIONS[record & 3];
+    }
+
+    /**
+     * Pushes a record of the current position and Rotation.
+     *
+     * @param undo
+     *            The UndoStack to push the record to.
+     * @param kind
+     *            The kind of record.
+     */
+    private void push ( UndoStack undo, int kind ) {
+        push( undo, position, rotation, kind );
+    }
+
+    /**
+     * Pushes a record to restore a position and Rotation, as two longs: the
+     * packed position, then the kind and the Rotation's ordinal.
+     *
+     * @param undo
+     *            The UndoStack to push the record to.
+     * @param pos
+     *            The packed position to restore.
+     * @param rot
+     *            The Rotation to restore.
+     * @param kind
+     *            The kind of record.
+     */
+    private void push ( UndoStack undo, long pos, Rotation rot, int kind ) {
+        undo.push( pos );
+        undo.push( kind << 2 | rot.ordinal() );
+    }
+
+    /**
+     * Creates a Revertable that restores a position and Rotation.
+     *
+     * @param prevPos
+     *            The packed position to restore.
+     * @param prevRot
+     *            The Rotation to restore.
+     * @return The new Revertable.
+     */
+    private Revertable restorer ( long prevPos, Rotation prevRot ) {
         return new Revertable() {
             @Override
             public void revert () {
-                revertable.revert();
                 position = prevPos;
+                rotation = prevRot;
             }
         };
     }
+
+    /**
+     * Writes the ActivePiece's Minos to the Board where it is, which must be
+     * empty, and creates a Revertable that clears them and moves it back.
+     *
+     * @param prevPos
+     *            The packed position to move back to.
+     * @return The new Revertable.
+     */
+    private Revertable lock ( long prevPos ) {
+        long[] shape = type.getPackedShape( rotation );
+        long placed = position;
+        board.setPackedRegion( shape, placed, type.getMino() );
+        return new Revertable() {
+            @Override
+            public void revert () {
+                board.setPackedRegion( shape, placed, null );
+                position = prevPos;
+            }
+        };
+    }
+
+    /**
+     * Places the ActivePiece on the Board like place(), but drops and locks it
+     * in one pass: the landing position comes straight from the Board's column
+     * heights and the shape's BottomProfile, and the Minos are written without
+     * saving the cells they cover. Falls back to place() if the ActivePiece is
+     * colliding or its shape has a gap.
+     *
+     * @return A Revertable to revert the placement.
+     */
+    public Revertable hardDrop () {
+        BottomProfile profile = type.getBottomProfile( rotation );
+        if ( !profile.isSolid() || !isNotColliding() ) {
+            return place();
+        }
+        long prevPos = position;
+        position = PackedCoordinate.plus( prevPos, 0, -fallDistance( profile ) );
+        return lock( prevPos );
+    }
 }
@@ -0,0 +1,108 @@
+package electra.ztrix.model.game.piece;
+
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rectangle;
+import electra.ztrix.model.game.common.Region;
+
+/**
+ * An immutable summary of the lowest position in each column of a shape, used
+ * to find how far a piece can fall without stepping it down one row at a time.
+ *
+ * @author Electra
+ */
+public class BottomProfile {
+    /** The X offset of the shape's leftmost column. */
+    private final int minX;
+    /** The Y offset of the lowest position in each column of the shape. */
+    private final int[] bottoms;
+    /** Whether every column of the shape is a single unbroken run. */
+    private final boolean solid;
+
+    /**
+     * Creates the BottomProfile of a shape.
+     *
+     * @param shape
+     *            The shape to summarize, non-null.
+     */
+    public BottomProfile ( Region shape ) {
+        if ( shape == null ) {
+            throw new NullPointerException( "BottomProfile(shape) must be non-null." );
+        }
+        Rectangle bounds = shape.getBounds();
+        minX = bounds.getMinimum().x();
+        int width = bounds.getMaximum().x() - minX;
+        // Track the lowest and highest position and the count of each column.
+        bottoms = new int[width];
+        int[] tops = new int[width];
+        int[] counts = new int[width];
+        for ( int i = 0; i < width; i++ ) {
+            bottoms[i] = Integer.MAX_VALUE;
+            tops[i] = Integer.MIN_VALUE;
+        }
+        for ( Coordinate position : shape ) {
+            int column = position.x() - minX;
+            bottoms[column] = Math.min( bottoms[column], position.y() );
+            tops[column] = Math.max( tops[column], position.y() );
+            counts[column]++;
+        }
+        // A column is unbroken if its positions fill the span between its ends.
+        boolean unbroken = true;
+        for ( int i = 0; i < width; i++ ) {
+            if ( counts[i] != 0 && counts[i] != tops[i] - bottoms[i] + 1 ) {
+                unbroken = false;
+            }
+        }
+        solid = unbroken;
+    }
+
+    /**
+     * Gets the X offset of the shape's leftmost column.
+     *
+     * @return the X offset.
+     */
+    public int getMinX () {
+        return minX;
+    }
+
+    /**
+     * Gets the number of columns the shape spans.
+     *
+     * @return the width.
+     */
+    public int getWidth () {
+        return bottoms.length;
+    }
+
+    /**
+     * Checks whether a column of the shape contains any positions.
+     *
+     * @param column
+     *            The column, counted from the leftmost column.
+     * @return True if the column is not empty.
+     */
+    public boolean hasColumn ( int column ) {
+        return bottoms[column] != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Gets the Y offset of the lowest position in a column of the shape.
+     *
+     * @param column
+     *            The column, counted from the leftmost column, non-empty.
+     * @return the Y offset.
+     */
+    public int getBottom ( int column ) {
+        return bottoms[column];
+    }
+
+    /**
+     * Checks whether every column of the shape is a single unbroken run. Only
+     * then is the lowest position of each column enough to find how far the
+     * shape can fall, as nothing can be caught in a gap above it.
+     *
+     * @return True if no column has a gap.
+     */
+    public boolean isSolid () {
+        return solid;
+    }
+}
@@ -0,0 +1,31 @@
+package electra.ztrix.model.game.piece;
+
+import java.util.List;
+
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rotation;
+
+/**
+ * The kicks a piece tries, in order, when rotating in place collides. A
+ * PieceType compiles its KickSystem into flat tables once, so the KickSystem
+ * itself is only read when the PieceType is created.
+ *
+ * @author Electra
+ */
+@FunctionalInterface
+public interface KickSystem {
+    /** The KickSystem with no kicks, where a rotation only succeeds in place. */
+    public static final KickSystem NONE = ( oldRotation, newRotation ) -> List.of();
+
+    /**
+     * Gets the kicks on rotating from one Rotation state to another.
+     *
+     * @param oldRotation
+     *            The Rotation state being rotated from, non-null.
+     * @param newRotation
+     *            The Rotation state being rotated to, non-null.
+     * @return the kicks for that rotation, in order, not including the null
+     *         kick; non-null.
+     */
+    public Iterable<Coordinate> getKicks ( Rotation oldRotation, Rotation newRotation );
+}
@@ -0,0 +1,106 @@
+package electra.ztrix.model.game.piece;
+
+import java.util.Arrays;
+
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rotation;
+
+/**
+ * A KickSystem compiled into flat arrays. The kicks of every pair of Rotation
+ * states are stored as consecutive X, Y pairs in one int array, and a second
+ * array holds where each pair's kicks start, so rotating walks a slice of the
+ * array with no lookups or Coordinates.
+ *
+ * @author Electra
+ */
+final class KickTable {
+    /** The number of Rotation states. */
+    private static final int COUNT = Rotation.values().length;
+
+    /** The X and Y components of every kick, pair by pair. */
+    private final int[] kicks;
+    /** The index of the first kick of each pair, then the total length. */
+    private final int[] starts;
+
+    /**
+     * Compiles a KickSystem into a new KickTable.
+     *
+     * @param system
+     *            The KickSystem to compile, non-null.
+     */
+    KickTable ( KickSystem system ) {
+        int[] all = new int[16];
+        int length = 0;
+        starts = new int[COUNT * COUNT + 1];
+        for ( Rotation oldRotation : Rotation.values() ) {
+            for ( Rotation newRotation : Rotation.values() ) {
+                starts[index( oldRotation, newRotation )] = length;
+                Iterable<Coordinate> pairKicks = system.getKicks( oldRotation, newRotation );
+                if ( pairKicks == null ) {
+                    throw new IllegalArgumentException(
+                            "PieceType(kickSystem) must have kicks for each pair of Rotation states." );
+                }
+                for ( Coordinate kick : pairKicks ) {
+                    if ( length + 2 > all.length ) {
+                        all = Arrays.copyOf( all, all.length * 2 );
+                    }
+                    all[length++] = kick.x();
+                    all[length++] = kick.y();
+                }
+            }
+        }
+        starts[COUNT * COUNT] = length;
+        kicks = Arrays.copyOf( all, length );
+    }
+
+    /**
+     * Gets the index of a pair of Rotation states in the starts array.
+     *
+     * @param oldRotation
+     *            The Rotation state being rotated from.
+     * @param newRotation
+     *            The Rotation state being rotated to.
+     * @return The index of the pair.
+     */
+    private static int index ( Rotation oldRotation, Rotation newRotation ) {
+        return oldRotation.ordinal() * COUNT + newRotation.ordinal();
+    }
+
+    /**
+     * Gets the X and Y components of every kick. The array is shared, and
+     * must not be modified.
+     *
+     * @return the kicks, as consecutive X, Y pairs.
+     */
+    int[] getKicks () {
+        return kicks;
+    }
+
+    /**
+     * Gets the index of the first kick on rotating from one Rotation state to
+     * another.
+     *
+     * @param oldRotation
+     *            The Rotation state being rotated from, non-null.
+     * @param newRotation
+     *            The Rotation state being rotated to, non-null.
+     * @return the index of the kick's X component.
+     */
+    int getStart ( Rotation oldRotation, Rotation newRotation ) {
+        return starts[index( oldRotation, newRotation )];
+    }
+
+    /**
+     * Gets the index after the last kick on rotating from one Rotation state
+     * to another.
+     *
+     * @param oldRotation
+     *            The Rotation state being rotated from, non-null.
+     * @param newRotation
+     *            The Rotation state being rotated to, non-null.
+     * @return the exclusive end index.
+     */
+    int getEnd ( Rotation oldRotation, Rotation newRotation ) {
+        return starts[index( oldRotation, newRotation ) + 1];
+    }
+}
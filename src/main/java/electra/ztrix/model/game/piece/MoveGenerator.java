@@ -0,0 +1,556 @@
+package electra.ztrix.model.game.piece;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import electra.ztrix.model.game.board.Board;
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.PackedCoordinate;
+import electra.ztrix.model.game.common.Rectangle;
+import electra.ztrix.model.game.common.Rotation;
+
+/**
+ * Finds every placement a piece can reach from its spawn, by a search over
+ * its (x, y, Rotation) states using the same collision checks and kick tables
+ * as ActivePiece. States are numbered and marked in a bitset, so nothing is
+ * allocated per state, and placements with the same footprint are only
+ * reported once. When a row of states fits in one word, as on any standard
+ * Board, the search moves whole rows of states at once with bitwise
+ * operations; otherwise it is a breadth-first search one state at a time.
+ * A MoveGenerator reuses its buffers between searches, so it is not
+ * thread-safe. Searching into a caller's PlacementBuffer allocates nothing
+ * once the buffers have grown to fit.
+ *
+ * @author Electra
+ */
+public class MoveGenerator {
+    /** The Rotation states, by ordinal. */
+    private static final Rotation[] ROTATIONS = Rotation.values();
+
+    /** The Rotation directions tried from each state. */
+    private final Rotation[] directions;
+    /** The bits of the states that do not collide. */
+    private long[] free = new long[0];
+    /** The bits of the states already reached. */
+    private long[] seen = new long[0];
+    /** The bits of the footprints already placed. */
+    private long[] placed = new long[0];
+    /** The bits of the rows waiting in the queue, when searching by row. */
+    private long[] queued = new long[0];
+    /**
+     * The states waiting to be expanded, in the order they were reached, each
+     * packed as its Y component, X component and Rotation ordinal, so no
+     * division is needed to unpack them. When searching by row, this is
+     * instead a stack of the rows that have gained states.
+     */
+    private long[] queue = new long[0];
+
+    /**
+     * Creates a new MoveGenerator that rotates clockwise and counterclockwise.
+     */
+    public MoveGenerator () {
+        this( false );
+    }
+
+    /**
+     * Creates a new MoveGenerator.
+     *
+     * @param rotate180
+     *            Whether pieces can also rotate 180 degrees at once.
+     */
+    public MoveGenerator ( boolean rotate180 ) {
+        directions = rotate180
+                ? new Rotation[] { Rotation.CW, Rotation.CCW, Rotation.R180 }
+                : new Rotation[] { Rotation.CW, Rotation.CCW };
+    }
+
+    /**
+     * Finds every distinct placement a piece can reach from a spawn state by
+     * moving left, right and down and rotating, including those only
+     * reachable through kicks or by tucking under overhangs.
+     *
+     * @param board
+     *            The Board to search, non-null.
+     * @param type
+     *            The PieceType to place, non-null.
+     * @param spawn
+     *            The position the piece starts at, non-null.
+     * @param rotation
+     *            The Rotation state the piece starts in, non-null.
+     * @return The placements, or an empty List if the spawn state collides.
+     */
+    public List<Placement> generate ( Board board, PieceType type, Coordinate spawn, Rotation rotation ) {
+        PlacementBuffer buffer = new PlacementBuffer();
+        generate( board, type, spawn, rotation, buffer );
+        List<Placement> placements = new ArrayList<>( buffer.size() );
+        for ( int i = 0; i < buffer.size(); i++ ) {
+            placements.add( buffer.get( i, type ) );
+        }
+        return placements;
+    }
+
+    /**
+     * Finds every distinct placement a piece can reach from a spawn state, like
+     * generate(), writing them packed into a reusable PlacementBuffer.
+     *
+     * @param board
+     *            The Board to search, non-null.
+     * @param type
+     *            The PieceType to place, non-null.
+     * @param spawn
+     *            The position the piece starts at, non-null.
+     * @param rotation
+     *            The Rotation state the piece starts in, non-null.
+     * @param out
+     *            The PlacementBuffer to clear and fill with the placements,
+     *            non-null.
+     * @return The number of placements, or 0 if the spawn state collides.
+     */
+    public int generate ( Board board, PieceType type, Coordinate spawn, Rotation rotation, PlacementBuffer out ) {
+        if ( board == null ) {
+            throw new NullPointerException( "generate(board) must be non-null." );
+        }
+        if ( type == null ) {
+            throw new NullPointerException( "generate(type) must be non-null." );
+        }
+        if ( spawn == null ) {
+            throw new NullPointerException( "generate(spawn) must be non-null." );
+        }
+        if ( rotation == null ) {
+            throw new NullPointerException( "generate(rotation) must be non-null." );
+        }
+        if ( out == null ) {
+            throw new NullPointerException( "generate(out) must be non-null." );
+        }
+        out.clear();
+        if ( !type.isNotColliding( board, rotation, spawn.x(), spawn.y() ) ) {
+            return 0;
+        }
+        // Find the positions where any Rotation state could be in bounds.
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for ( Rotation each : ROTATIONS ) {
+            Rectangle shape = type.getShape( each ).getBounds();
+            minX = Math.min( minX, -shape.getMinimum().x() );
+            minY = Math.min( minY, -shape.getMinimum().y() );
+            maxX = Math.max( maxX, board.getBounds().getMaximum().x() - shape.getMaximum().x() + 1 );
+            maxY = Math.max( maxY, board.getBounds().getMaximum().y() - shape.getMaximum().y() + 1 );
+        }
+        int width = maxX - minX;
+        int height = maxY - minY;
+        int u = spawn.x() - minX;
+        int v = spawn.y() - minY;
+        // Number the states with a row of 64 per word when the search fits,
+        // so each word of the bitsets is one row of one Rotation state.
+        if ( width <= Long.SIZE ) {
+            reset( ROTATIONS.length * height * Long.SIZE, ROTATIONS.length * height );
+            findFree( board, type, minX, minY, width, height, Long.SIZE );
+            searchRows( type, rotation.ordinal(), u, v, width, height );
+            emitRows( type, minX, minY, height, out );
+        } else {
+            reset( ROTATIONS.length * height * width, ROTATIONS.length * height * width );
+            findFree( board, type, minX, minY, width, height, width );
+            searchStates( type, rotation.ordinal(), u, v, minX, minY, width, height, out );
+        }
+        return out.size();
+    }
+
+    /**
+     * Searches every state reachable from the spawn state one state at a
+     * time, in breadth-first order, adding each placement as it is reached.
+     *
+     * @param type
+     *            The PieceType being placed.
+     * @param spawnR
+     *            The ordinal of the spawn Rotation state.
+     * @param spawnU
+     *            The X component of the spawn, from the search's minimum.
+     * @param spawnV
+     *            The Y component of the spawn, from the search's minimum.
+     * @param minX
+     *            The minimum X component of the search.
+     * @param minY
+     *            The minimum Y component of the search.
+     * @param width
+     *            The number of X positions in the search.
+     * @param height
+     *            The number of Y positions in the search.
+     * @param out
+     *            The PlacementBuffer to add the placements to.
+     */
+    private void searchStates ( PieceType type, int spawnR, int spawnU, int spawnV, int minX, int minY, int width,
+            int height, PlacementBuffer out ) {
+        int head = 0;
+        int tail = visit( index( spawnR, spawnU, spawnV, width, height ), spawnR, spawnU, spawnV, 0 );
+        KickTable table = type.getKickTable();
+        int[] kicks = table.getKicks();
+        // Neighbouring states are a fixed distance apart in the numbering.
+        int plane = width * height;
+        while ( head < tail ) {
+            long entry = queue[head++];
+            int r = (int) entry & 3;
+            int u = (int) entry >>> 2;
+            int v = (int) ( entry >>> 32 );
+            int state = index( r, u, v, width, height );
+            Rotation current = ROTATIONS[r];
+            // Check whether the piece can lock here, once per footprint.
+            if ( v == 0 || !isSet( free, state - width ) ) {
+                Rotation footprint = type.getFootprintRotation( current );
+                long offset = type.getFootprintOffset( current );
+                int key = index( footprint.ordinal(), u + PackedCoordinate.x( offset ),
+                        v + PackedCoordinate.y( offset ), width, height );
+                if ( !isSet( placed, key ) ) {
+                    placed[key >>> 6] |= 1L << key;
+                    out.add( u + minX, v + minY, r );
+                }
+            }
+            // Move left, right and down.
+            if ( u > 0 ) {
+                tail = visit( state - 1, r, u - 1, v, tail );
+            }
+            if ( u < width - 1 ) {
+                tail = visit( state + 1, r, u + 1, v, tail );
+            }
+            if ( v > 0 ) {
+                tail = visit( state - width, r, u, v - 1, tail );
+            }
+            // Rotate, trying each kick in turn like ActivePiece.rotate().
+            for ( Rotation direction : directions ) {
+                Rotation next = current.plus( direction );
+                int n = next.ordinal();
+                int rotated = state + ( n - r ) * plane;
+                if ( isSet( free, rotated ) ) {
+                    tail = visit( rotated, n, u, v, tail );
+                    continue;
+                }
+                int end = table.getEnd( current, next );
+                for ( int i = table.getStart( current, next ); i < end; i += 2 ) {
+                    int ku = u + kicks[i];
+                    int kv = v + kicks[i + 1];
+                    // Anything outside the search collides with the Board's bounds.
+                    if ( ku < 0 || kv < 0 || ku >= width || kv >= height ) {
+                        continue;
+                    }
+                    int kicked = rotated + kicks[i] + kicks[i + 1] * width;
+                    if ( isSet( free, kicked ) ) {
+                        tail = visit( kicked, n, ku, kv, tail );
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Searches every state reachable from the spawn state a row at a time,
+     * when each row of states fits in one word. A row that gains states
+     * spreads them left and right through its free states, then down, and
+     * through each rotation and kick to the rows of the other Rotation
+     * states, until no row gains any more.
+     *
+     * @param type
+     *            The PieceType being placed.
+     * @param spawnR
+     *            The ordinal of the spawn Rotation state.
+     * @param spawnU
+     *            The X component of the spawn, from the search's minimum.
+     * @param spawnV
+     *            The Y component of the spawn, from the search's minimum.
+     * @param width
+     *            The number of X positions in the search, at most 64.
+     * @param height
+     *            The number of Y positions in the search.
+     */
+    private void searchRows ( PieceType type, int spawnR, int spawnU, int spawnV, int width, int height ) {
+        KickTable table = type.getKickTable();
+        int[] kicks = table.getKicks();
+        int top = reach( spawnR * height + spawnV, 1L << spawnU, 0 );
+        while ( top > 0 ) {
+            int row = (int) queue[--top];
+            queued[row >>> 6] &= ~( 1L << row );
+            int r = row / height;
+            int v = row - r * height;
+            long states = spread( seen[row], free[row] );
+            seen[row] = states;
+            // Move down.
+            if ( v > 0 ) {
+                top = reach( row - 1, states & free[row - 1], top );
+            }
+            // Rotate, trying each kick in turn like ActivePiece.rotate().
+            Rotation current = ROTATIONS[r];
+            for ( Rotation direction : directions ) {
+                Rotation next = current.plus( direction );
+                int base = next.ordinal() * height;
+                top = reach( base + v, states & free[base + v], top );
+                long blocked = states & ~free[base + v];
+                int end = table.getEnd( current, next );
+                for ( int i = table.getStart( current, next ); i < end && blocked != 0; i += 2 ) {
+                    int dx = kicks[i];
+                    int kv = v + kicks[i + 1];
+                    // Anything outside the search collides with the Board's bounds.
+                    if ( kv < 0 || kv >= height || dx >= width || -dx >= width ) {
+                        continue;
+                    }
+                    long kicked = ( dx >= 0 ? blocked << dx : blocked >>> -dx ) & free[base + kv];
+                    top = reach( base + kv, kicked, top );
+                    // The states that kicked stop trying later kicks.
+                    blocked &= ~( dx >= 0 ? kicked >>> dx : kicked << -dx );
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the placements of every state reached by searchRows() where the
+     * piece can lock, once per footprint.
+     *
+     * @param type
+     *            The PieceType being placed.
+     * @param minX
+     *            The minimum X component of the search.
+     * @param minY
+     *            The minimum Y component of the search.
+     * @param height
+     *            The number of Y positions in the search.
+     * @param out
+     *            The PlacementBuffer to add the placements to.
+     */
+    private void emitRows ( PieceType type, int minX, int minY, int height, PlacementBuffer out ) {
+        for ( Rotation current : ROTATIONS ) {
+            int r = current.ordinal();
+            int footprint = type.getFootprintRotation( current ).ordinal();
+            long offset = type.getFootprintOffset( current );
+            for ( int v = 0; v < height; v++ ) {
+                int row = r * height + v;
+                // The piece locks where the state below it collides.
+                long locks = v == 0 ? seen[row] : seen[row] & ~free[row - 1];
+                for ( ; locks != 0; locks &= locks - 1 ) {
+                    int u = Long.numberOfTrailingZeros( locks );
+                    int key = index( footprint, u + PackedCoordinate.x( offset ), v + PackedCoordinate.y( offset ),
+                            Long.SIZE, height );
+                    if ( !isSet( placed, key ) ) {
+                        placed[key >>> 6] |= 1L << key;
+                        out.add( u + minX, v + minY, r );
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Spreads states left and right along a row, through the free states.
+     *
+     * @param states
+     *            The bits of the states reached.
+     * @param free
+     *            The bits of the free states of the row.
+     * @return The bits of every state reachable by moving sideways.
+     */
+    private static long spread ( long states, long free ) {
+        long previous;
+        do {
+            previous = states;
+            states |= ( ( states << 1 ) | ( states >>> 1 ) ) & free;
+        } while ( states != previous );
+        return states;
+    }
+
+    /**
+     * Marks states of a row as reached, pushing the row onto the stack if it
+     * gained any states and is not already waiting.
+     *
+     * @param row
+     *            The number of the row.
+     * @param states
+     *            The bits of the free states reached.
+     * @param top
+     *            The top of the stack.
+     * @return The new top of the stack.
+     */
+    private int reach ( int row, long states, int top ) {
+        if ( ( states & ~seen[row] ) == 0 ) {
+            return top;
+        }
+        seen[row] |= states;
+        if ( ( queued[row >>> 6] & ( 1L << row ) ) == 0 ) {
+            queued[row >>> 6] |= 1L << row;
+            queue[top++] = row;
+        }
+        return top;
+    }
+
+    /**
+     * Clears the buffers, growing them to hold a number of states.
+     *
+     * @param states
+     *            The number of states in the search.
+     * @param entries
+     *            The number of entries the queue must hold.
+     */
+    private void reset ( int states, int entries ) {
+        int words = ( states + Long.SIZE - 1 ) / Long.SIZE;
+        if ( seen.length < words ) {
+            free = new long[words];
+            seen = new long[words];
+            placed = new long[words];
+            queued = new long[words];
+        } else {
+            Arrays.fill( free, 0, words, 0 );
+            Arrays.fill( seen, 0, words, 0 );
+            Arrays.fill( placed, 0, words, 0 );
+            Arrays.fill( queued, 0, words, 0 );
+        }
+        if ( queue.length < entries ) {
+            queue = new long[entries];
+        }
+    }
+
+    /**
+     * Gets the number of a state.
+     *
+     * @param r
+     *            The ordinal of the Rotation state.
+     * @param x
+     *            The X component of the position, from the search's minimum.
+     * @param y
+     *            The Y component of the position, from the search's minimum.
+     * @param stride
+     *            The distance between the numbers of vertically adjacent
+     *            states, at least the number of X positions in the search.
+     * @param height
+     *            The number of Y positions in the search.
+     * @return The number of the state.
+     */
+    private static int index ( int r, int x, int y, int stride, int height ) {
+        return ( r * height + y ) * stride + x;
+    }
+
+    /**
+     * Packs a state into an entry of the queue.
+     *
+     * @param r
+     *            The ordinal of the Rotation state.
+     * @param u
+     *            The X component of the position, from the search's minimum.
+     * @param v
+     *            The Y component of the position, from the search's minimum.
+     * @return The packed entry.
+     */
+    private static long entry ( int r, int u, int v ) {
+        return ( (long) v << 32 ) | ( u << 2 ) | r;
+    }
+
+    /**
+     * Marks every state where the piece does not collide. On Boards at most
+     * 64 columns wide, each row of states is found at once from the Board's
+     * occupancy words: a state collides if any row of the ShapeMask, shifted
+     * to its column, overlaps the occupancy, so the occupancy shifted back by
+     * each bit of the mask gives the colliding columns of the whole row.
+     *
+     * @param board
+     *            The Board being searched.
+     * @param type
+     *            The PieceType being placed.
+     * @param minX
+     *            The minimum X component of the search.
+     * @param minY
+     *            The minimum Y component of the search.
+     * @param width
+     *            The number of X positions in the search.
+     * @param height
+     *            The number of Y positions in the search.
+     * @param stride
+     *            The distance between the numbers of vertically adjacent
+     *            states.
+     */
+    private void findFree ( Board board, PieceType type, int minX, int minY, int width, int height, int stride ) {
+        int boardWidth = board.getBounds().getMaximum().x();
+        int boardHeight = board.getBounds().getMaximum().y();
+        for ( Rotation rotation : ROTATIONS ) {
+            int r = rotation.ordinal();
+            ShapeMask mask = type.getShapeMask( rotation );
+            if ( mask == null || boardWidth > Long.SIZE ) {
+                // Check each state on its own.
+                for ( int v = 0; v < height; v++ ) {
+                    for ( int u = 0; u < width; u++ ) {
+                        if ( type.isNotColliding( board, rotation, u + minX, v + minY ) ) {
+                            int state = index( r, u, v, stride, height );
+                            free[state >>> 6] |= 1L << state;
+                        }
+                    }
+                }
+                continue;
+            }
+            // The columns the mask's leftmost column can be in, in bounds.
+            int columns = boardWidth - mask.getWidth() + 1;
+            if ( columns <= 0 ) {
+                continue;
+            }
+            long inBounds = columns == Long.SIZE ? -1L : ( 1L << columns ) - 1;
+            int shift = -mask.getMinX() - minX;
+            for ( int v = 0; v < height; v++ ) {
+                int bottom = v + minY + mask.getMinY();
+                if ( bottom < 0 || bottom + mask.getHeight() > boardHeight ) {
+                    continue;
+                }
+                long blocked = 0;
+                for ( int k = 0; k < mask.getHeight(); k++ ) {
+                    long occupancy = board.getRowOccupancy( bottom + k, 0 );
+                    for ( long bits = mask.getRow( k ); bits != 0; bits &= bits - 1 ) {
+                        blocked |= occupancy >>> Long.numberOfTrailingZeros( bits );
+                    }
+                }
+                if ( stride == Long.SIZE ) {
+                    // Each row of states is one word, so store it whole.
+                    free[r * height + v] = ( inBounds & ~blocked ) << shift;
+                    continue;
+                }
+                for ( long fits = inBounds & ~blocked; fits != 0; fits &= fits - 1 ) {
+                    int state = index( r, Long.numberOfTrailingZeros( fits ) + shift, v, stride, height );
+                    free[state >>> 6] |= 1L << state;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the bit of a state is set.
+     *
+     * @param bits
+     *            The bits of the states.
+     * @param state
+     *            The number of the state.
+     * @return True if the bit is set.
+     */
+    private static boolean isSet ( long[] bits, int state ) {
+        return ( bits[state >>> 6] & ( 1L << state ) ) != 0;
+    }
+
+    /**
+     * Queues a state the piece moved to, if it does not collide and has not
+     * been reached before, marking it as reached.
+     *
+     * @param state
+     *            The number of the state, within the search.
+     * @param r
+     *            The ordinal of the Rotation state.
+     * @param u
+     *            The X component of the position, from the search's minimum.
+     * @param v
+     *            The Y component of the position, from the search's minimum.
+     * @param tail
+     *            The end of the queue.
+     * @return The new end of the queue.
+     */
+    private int visit ( int state, int r, int u, int v, int tail ) {
+        if ( !isSet( free, state ) || isSet( seen, state ) ) {
+            return tail;
+        }
+        seen[state >>> 6] |= 1L << state;
+        queue[tail] = entry( r, u, v );
+        return tail + 1;
+    }
+}
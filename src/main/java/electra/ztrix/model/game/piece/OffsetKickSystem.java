@@ -0,0 +1,106 @@
+package electra.ztrix.model.game.piece;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rotation;
+
+/**
+ * A KickSystem defined by offset tables, where each kick moves the center of
+ * the piece from one Rotation state's offset to another's. The standard
+ * JLSTZ and IO kicks are both defined this way.
+ *
+ * @author Electra
+ */
+public class OffsetKickSystem implements KickSystem {
+    /** The KickSystem used by the pieces JLSTZ. */
+    public static final OffsetKickSystem JLSTZ = new OffsetKickSystem( List.of(
+            Map.of( // Kick 1 to the side.
+                    Rotation.R0, new Coordinate( 0, 0 ),
+                    Rotation.CW, new Coordinate( 1, 0 ),
+                    Rotation.R180, new Coordinate( 0, 0 ),
+                    Rotation.CCW, new Coordinate( -1, 0 ) ),
+            Map.of( // Kick 1 up/down and 1 to the side.
+                    Rotation.R0, new Coordinate( 0, 0 ),
+                    Rotation.CW, new Coordinate( 1, -1 ),
+                    Rotation.R180, new Coordinate( 0, 0 ),
+                    Rotation.CCW, new Coordinate( -1, -1 ) ),
+            Map.of( // Kick 2 up/down.
+                    Rotation.R0, new Coordinate( 0, 0 ),
+                    Rotation.CW, new Coordinate( 0, 2 ),
+                    Rotation.R180, new Coordinate( 0, 0 ),
+                    Rotation.CCW, new Coordinate( 0, 2 ) ),
+            Map.of( // Kick 2 up/down and 1 to the side.
+                    Rotation.R0, new Coordinate( 0, 0 ),
+                    Rotation.CW, new Coordinate( 1, 2 ),
+                    Rotation.R180, new Coordinate( 0, 0 ),
+                    Rotation.CCW, new Coordinate( -1, 2 ) ) ) );
+
+    /** The KickSystem used by the pieces IO. */
+    public static final OffsetKickSystem IO = new OffsetKickSystem( List.of(
+            Map.of( // Kick to the left.
+                    Rotation.R0, new Coordinate( -1, 0 ),
+                    Rotation.CW, new Coordinate( 1, 0 ),
+                    Rotation.R180, new Coordinate( 2, 0 ),
+                    Rotation.CCW, new Coordinate( 0, 0 ) ),
+            Map.of( // Kick to the right.
+                    Rotation.R0, new Coordinate( 2, 0 ),
+                    Rotation.CW, new Coordinate( 1, 0 ),
+                    Rotation.R180, new Coordinate( -1, 0 ),
+                    Rotation.CCW, new Coordinate( 0, 0 ) ),
+            Map.of( // Kick to the left and down.
+                    Rotation.R0, new Coordinate( -1, 0 ),
+                    Rotation.CW, new Coordinate( 1, 1 ),
+                    Rotation.R180, new Coordinate( 2, -1 ),
+                    Rotation.CCW, new Coordinate( 0, -2 ) ),
+            Map.of( // Kick to the right and down.
+                    Rotation.R0, new Coordinate( 2, 0 ),
+                    Rotation.CW, new Coordinate( 1, -2 ),
+                    Rotation.R180, new Coordinate( -1, 1 ),
+                    Rotation.CCW, new Coordinate( 0, 1 ) ) ) );
+
+    /** The kicks for each pair of Rotation states, by ordinal. */
+    private final List<List<List<Coordinate>>> kicks;
+
+    /**
+     * Creates a new OffsetKickSystem from a kick offset table.
+     *
+     * @param kickOffsetTable
+     *            For each kick, a Map of the position of each Rotation state's
+     *            center, relative to the center defined by the base offsets,
+     *            non-null with an entry for each Rotation state.
+     */
+    public OffsetKickSystem ( Iterable<Map<Rotation, Coordinate>> kickOffsetTable ) {
+        if ( kickOffsetTable == null ) {
+            throw new NullPointerException( "OffsetKickSystem(kickOffsetTable) must be non-null." );
+        }
+        List<List<List<Coordinate>>> kicks = new ArrayList<>();
+        for ( Rotation oldRotation : Rotation.values() ) {
+            // Generate the kicks for a particular initial Rotation state.
+            List<List<Coordinate>> rotationKicks = new ArrayList<>();
+            for ( Rotation newRotation : Rotation.values() ) {
+                List<Coordinate> pairKicks = new ArrayList<>();
+                for ( Map<Rotation, Coordinate> offsetTable : kickOffsetTable ) {
+                    // Subtract the offsets of the Rotations to find the kick.
+                    Coordinate startOffset = offsetTable.get( oldRotation );
+                    Coordinate endOffset = offsetTable.get( newRotation );
+                    if ( startOffset == null || endOffset == null ) {
+                        throw new IllegalArgumentException(
+                                "OffsetKickSystem(kickOffsetTable) must have an entry for each Rotation state." );
+                    }
+                    pairKicks.add( endOffset.minus( startOffset ) );
+                }
+                rotationKicks.add( List.copyOf( pairKicks ) );
+            }
+            kicks.add( rotationKicks );
+        }
+        this.kicks = kicks;
+    }
+
+    @Override
+    public Iterable<Coordinate> getKicks ( Rotation oldRotation, Rotation newRotation ) {
+        return kicks.get( oldRotation.ordinal() ).get( newRotation.ordinal() );
+    }
+}
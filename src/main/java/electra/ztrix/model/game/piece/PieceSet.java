@@ -0,0 +1,333 @@
+package electra.ztrix.model.game.piece;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import electra.ztrix.model.game.board.Mino;
+import electra.ztrix.model.game.board.MinoPalette;
+import electra.ztrix.model.game.common.BitmaskRegion;
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Region;
+import electra.ztrix.model.game.common.Rotation;
+import electra.ztrix.model.game.common.SetRegion;
+
+/**
+ * An immutable, named set of PieceTypes loaded from text, so puzzle packs can
+ * define their own pieces without code. Each PieceType is compiled into the
+ * same tables as the standard PieceTypes when the set is loaded.
+ * <p>
+ * The text has one definition per line, with positions written as "x,y" and
+ * Rotation states in the order R0, CW, R180, CCW. Blank lines and anything
+ * after a '#' are ignored, and names must be defined before they are used.
+ * Each name is defined once: the kicks of a kick offset table are on
+ * consecutive definition lines, and no offsets or piece is redefined.
+ *
+ * <pre>
+ * # The position of each Rotation state's center.
+ * offsets JLSTZ 0,0 0,0 0,0 0,0
+ * # One kick of a kick offset table, appended to the kicks on the lines above.
+ * kick JLSTZ 0,0 1,0 0,0 -1,0
+ * # A piece, its offsets, its kicks (or "none"), and its R0 shape.
+ * piece T JLSTZ JLSTZ 0,-1 0,0 0,1 1,0
+ * </pre>
+ *
+ * Each piece is made of its own Mino.
+ *
+ * @author Electra
+ */
+public final class PieceSet {
+    /** The name of the kicks of pieces that have no kicks. */
+    public static final String NO_KICKS = "none";
+
+    /** The PieceTypes in the set, by name, in the order they were defined. */
+    private final Map<String, PieceType> pieceTypes;
+    /** The MinoPalette of the set's Minos, or null if there are too many. */
+    private final MinoPalette palette;
+
+    /**
+     * Creates a new PieceSet of PieceTypes.
+     *
+     * @param pieceTypes
+     *            The PieceTypes by name, in order.
+     */
+    private PieceSet ( Map<String, PieceType> pieceTypes ) {
+        this.pieceTypes = Collections.unmodifiableMap( pieceTypes );
+        List<Mino> minos = new ArrayList<>();
+        for ( PieceType type : pieceTypes.values() ) {
+            minos.add( type.getMino() );
+        }
+        palette = minos.size() <= MinoPalette.MAX_SIZE ? new MinoPalette( minos ) : null;
+    }
+
+    /**
+     * Loads a PieceSet from text.
+     *
+     * @param text
+     *            The text of the piece set, non-null.
+     * @return The new PieceSet.
+     */
+    public static PieceSet parse ( String text ) {
+        if ( text == null ) {
+            throw new NullPointerException( "parse(text) must be non-null." );
+        }
+        try {
+            return load( new StringReader( text ) );
+        } catch ( IOException e ) {
+            // A StringReader never fails.
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Loads a PieceSet from a Reader of text, reading until it ends.
+     *
+     * @param reader
+     *            The Reader of the piece set, non-null.
+     * @return The new PieceSet.
+     * @throws IOException
+     *             If reading fails.
+     */
+    public static PieceSet load ( Reader reader ) throws IOException {
+        if ( reader == null ) {
+            throw new NullPointerException( "load(reader) must be non-null." );
+        }
+        Map<String, Map<Rotation, Coordinate>> offsets = new HashMap<>();
+        Map<String, List<Map<Rotation, Coordinate>>> kicks = new HashMap<>();
+        Map<String, KickSystem> kickSystems = new HashMap<>();
+        Map<String, PieceType> pieceTypes = new LinkedHashMap<>();
+        BufferedReader lines = new BufferedReader( reader );
+        // The name of the kicks on the last definition line, if it was one.
+        String lastKick = null;
+        int number = 0;
+        for ( String line = lines.readLine(); line != null; line = lines.readLine() ) {
+            number++;
+            int comment = line.indexOf( '#' );
+            if ( comment >= 0 ) {
+                line = line.substring( 0, comment );
+            }
+            String[] words = line.trim().split( "\\s+" );
+            switch ( words[0] ) {
+            case "":
+                break;
+            case "offsets":
+                expectWords( words, 6, 6, number );
+                if ( offsets.containsKey( words[1] ) ) {
+                    throw redefinition( words[1], number );
+                }
+                offsets.put( words[1], parseRotations( words, number ) );
+                lastKick = null;
+                break;
+            case "kick":
+                expectWords( words, 6, 6, number );
+                // Only the line after a kick of the same name can extend it.
+                if ( kicks.containsKey( words[1] ) && !words[1].equals( lastKick ) ) {
+                    throw redefinition( words[1], number );
+                }
+                kicks.computeIfAbsent( words[1], name -> new ArrayList<>() ).add( parseRotations( words, number ) );
+                lastKick = words[1];
+                break;
+            case "piece":
+                expectWords( words, 5, Integer.MAX_VALUE, number );
+                if ( pieceTypes.containsKey( words[1] ) ) {
+                    throw redefinition( words[1], number );
+                }
+                Map<Rotation, Coordinate> baseOffsets = offsets.get( words[2] );
+                if ( baseOffsets == null ) {
+                    throw new IllegalArgumentException( "Line " + number + " of the piece set must use defined offsets." );
+                }
+                KickSystem kickSystem = kickSystem( words[3], kicks, kickSystems, number );
+                Region shape = parseShape( words, number );
+                pieceTypes.put( words[1], new PieceType( new Mino(), shape, baseOffsets, kickSystem ) );
+                lastKick = null;
+                break;
+            default:
+                throw new IllegalArgumentException( "Line " + number + " of the piece set has an unknown definition "
+                        + words[0] + "." );
+            }
+        }
+        return new PieceSet( pieceTypes );
+    }
+
+    /**
+     * Creates the Exception for a line that redefines a name.
+     *
+     * @param name
+     *            The name.
+     * @param number
+     *            The line number.
+     * @return The Exception.
+     */
+    private static IllegalArgumentException redefinition ( String name, int number ) {
+        return new IllegalArgumentException( "Line " + number + " of the piece set redefines " + name + "." );
+    }
+
+    /**
+     * Checks that a line has a number of words.
+     *
+     * @param words
+     *            The words of the line.
+     * @param min
+     *            The fewest words allowed.
+     * @param max
+     *            The most words allowed.
+     * @param number
+     *            The line number.
+     */
+    private static void expectWords ( String[] words, int min, int max, int number ) {
+        if ( words.length < min || words.length > max ) {
+            throw new IllegalArgumentException( "Line " + number + " of the piece set has the wrong number of values." );
+        }
+    }
+
+    /**
+     * Gets the KickSystem of a name, compiling the kicks of the name once.
+     *
+     * @param name
+     *            The name of the kicks.
+     * @param kicks
+     *            The kick offset tables, by name.
+     * @param kickSystems
+     *            The compiled KickSystems, by name.
+     * @param number
+     *            The line number.
+     * @return The KickSystem.
+     */
+    private static KickSystem kickSystem ( String name, Map<String, List<Map<Rotation, Coordinate>>> kicks,
+            Map<String, KickSystem> kickSystems, int number ) {
+        if ( name.equals( NO_KICKS ) ) {
+            return KickSystem.NONE;
+        }
+        KickSystem kickSystem = kickSystems.get( name );
+        if ( kickSystem == null ) {
+            List<Map<Rotation, Coordinate>> table = kicks.get( name );
+            if ( table == null ) {
+                throw new IllegalArgumentException( "Line " + number + " of the piece set must use defined kicks." );
+            }
+            kickSystem = new OffsetKickSystem( List.copyOf( table ) );
+            kickSystems.put( name, kickSystem );
+        }
+        return kickSystem;
+    }
+
+    /**
+     * Parses the position of each Rotation state from the last four words of
+     * a line.
+     *
+     * @param words
+     *            The words of the line.
+     * @param number
+     *            The line number.
+     * @return The position of each Rotation state.
+     */
+    private static Map<Rotation, Coordinate> parseRotations ( String[] words, int number ) {
+        Rotation[] rotations = Rotation.values();
+        Map<Rotation, Coordinate> positions = new HashMap<>();
+        for ( int i = 0; i < rotations.length; i++ ) {
+            positions.put( rotations[i], parsePosition( words[words.length - rotations.length + i], number ) );
+        }
+        return positions;
+    }
+
+    /**
+     * Parses the shape of a piece from the words of its line after the kicks,
+     * into a BitmaskRegion if it fits and a SetRegion otherwise.
+     *
+     * @param words
+     *            The words of the line.
+     * @param number
+     *            The line number.
+     * @return The shape.
+     */
+    private static Region parseShape ( String[] words, int number ) {
+        List<Coordinate> positions = new ArrayList<>( words.length - 4 );
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for ( int i = 4; i < words.length; i++ ) {
+            Coordinate position = parsePosition( words[i], number );
+            positions.add( position );
+            minX = Math.min( minX, position.x() );
+            minY = Math.min( minY, position.y() );
+            maxX = Math.max( maxX, position.x() );
+            maxY = Math.max( maxY, position.y() );
+        }
+        if ( maxX - minX < BitmaskRegion.SIZE && maxY - minY < BitmaskRegion.SIZE ) {
+            return new BitmaskRegion( positions );
+        }
+        return new SetRegion( positions );
+    }
+
+    /**
+     * Parses a position written as "x,y".
+     *
+     * @param word
+     *            The word to parse.
+     * @param number
+     *            The line number.
+     * @return The position.
+     */
+    private static Coordinate parsePosition ( String word, int number ) {
+        int comma = word.indexOf( ',' );
+        try {
+            if ( comma < 0 ) {
+                throw new NumberFormatException( word );
+            }
+            int x = Integer.parseInt( word, 0, comma, 10 );
+            int y = Integer.parseInt( word, comma + 1, word.length(), 10 );
+            return new Coordinate( x, y );
+        } catch ( NumberFormatException e ) {
+            throw new IllegalArgumentException( "Line " + number + " of the piece set has an invalid position "
+                    + word + ".", e );
+        }
+    }
+
+    /**
+     * Gets the number of PieceTypes in the set.
+     *
+     * @return the size.
+     */
+    public int size () {
+        return pieceTypes.size();
+    }
+
+    /**
+     * Gets a PieceType of the set by name.
+     *
+     * @param name
+     *            The name of the PieceType.
+     * @return the PieceType, or null if the set has none of that name.
+     */
+    public PieceType get ( String name ) {
+        return pieceTypes.get( name );
+    }
+
+    /**
+     * Gets the PieceTypes of the set by name, in the order they were defined.
+     *
+     * @return the unmodifiable Map of PieceTypes.
+     */
+    public Map<String, PieceType> getPieceTypes () {
+        return pieceTypes;
+    }
+
+    /**
+     * Gets a MinoPalette of the Minos of every PieceType in the set, in the
+     * order they were defined.
+     *
+     * @return the MinoPalette, or null if the set has more PieceTypes than a
+     *         MinoPalette can hold.
+     */
+    public MinoPalette getPalette () {
+        return palette;
+    }
+}
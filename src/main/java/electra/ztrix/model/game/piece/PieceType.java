@@ -4,13 +4,19 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import electra.ztrix.model.game.board.Board;
 import electra.ztrix.model.game.board.Mino;
+import electra.ztrix.model.game.board.MinoPalette;
+import electra.ztrix.model.game.common.BitmaskRegion;
 import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.PackedCoordinate;
+import electra.ztrix.model.game.common.Rectangle;
 import electra.ztrix.model.game.common.Region;
 import electra.ztrix.model.game.common.Rotation;
-import electra.ztrix.model.game.common.SetRegion;
+import electra.ztrix.model.game.common.Transform;
+import electra.ztrix.model.game.common.Zobrist;
 
 /**
  * An immutable Object defining a piece's Mino, shape and rotation behavior,
@@ -19,6 +25,12 @@ import electra.ztrix.model.game.common.SetRegion;
  * @author Electra
  */
 public class PieceType {
+    /**
+     * The number of PieceTypes created, used to give each a hash key. Declared
+     * first, so it exists when the standard PieceTypes are created.
+     */
+    private static final AtomicLong CREATED = new AtomicLong();
+
     /** The base offset table used by the pieces JLSTZ. */
     private static final Map<Rotation, Coordinate> BASE_OFFSET_TABLE_JLSTZ = Map.of(
             Rotation.R0, Coordinate.ORIGIN,
@@ -33,135 +45,113 @@ public class PieceType {
             Rotation.R180, new Coordinate( -1, 1 ),
             Rotation.CCW, new Coordinate( 0, 1 ) );
 
-    /** The kick offset table used by the pieces JLSTZ. */
-    private static final Iterable<Map<Rotation, Coordinate>> KICK_OFFSET_TABLE_JLSTZ = List.of(
-            Map.of( // Kick 1 to the side.
-                    Rotation.R0, new Coordinate( 0, 0 ),
-                    Rotation.CW, new Coordinate( 1, 0 ),
-                    Rotation.R180, new Coordinate( 0, 0 ),
-                    Rotation.CCW, new Coordinate( -1, 0 ) ),
-            Map.of( // Kick 1 up/down and 1 to the side.
-                    Rotation.R0, new Coordinate( 0, 0 ),
-                    Rotation.CW, new Coordinate( 1, -1 ),
-                    Rotation.R180, new Coordinate( 0, 0 ),
-                    Rotation.CCW, new Coordinate( -1, -1 ) ),
-            Map.of( // Kick 2 up/down.
-                    Rotation.R0, new Coordinate( 0, 0 ),
-                    Rotation.CW, new Coordinate( 0, 2 ),
-                    Rotation.R180, new Coordinate( 0, 0 ),
-                    Rotation.CCW, new Coordinate( 0, 2 ) ),
-            Map.of( // Kick 2 up/down and 1 to the side.
-                    Rotation.R0, new Coordinate( 0, 0 ),
-                    Rotation.CW, new Coordinate( 1, 2 ),
-                    Rotation.R180, new Coordinate( 0, 0 ),
-                    Rotation.CCW, new Coordinate( -1, 2 ) ) );
-
-    /** The kick offset table used by the pieces IO. */
-    private static final Iterable<Map<Rotation, Coordinate>> KICK_OFFSET_TABLE_IO = List.of(
-            Map.of( // Kick to the left.
-                    Rotation.R0, new Coordinate( -1, 0 ),
-                    Rotation.CW, new Coordinate( 1, 0 ),
-                    Rotation.R180, new Coordinate( 2, 0 ),
-                    Rotation.CCW, new Coordinate( 0, 0 ) ),
-            Map.of( // Kick to the right.
-                    Rotation.R0, new Coordinate( 2, 0 ),
-                    Rotation.CW, new Coordinate( 1, 0 ),
-                    Rotation.R180, new Coordinate( -1, 0 ),
-                    Rotation.CCW, new Coordinate( 0, 0 ) ),
-            Map.of( // Kick to the left and down.
-                    Rotation.R0, new Coordinate( -1, 0 ),
-                    Rotation.CW, new Coordinate( 1, 1 ),
-                    Rotation.R180, new Coordinate( 2, -1 ),
-                    Rotation.CCW, new Coordinate( 0, -2 ) ),
-            Map.of( // Kick to the right and down.
-                    Rotation.R0, new Coordinate( 2, 0 ),
-                    Rotation.CW, new Coordinate( 1, -2 ),
-                    Rotation.R180, new Coordinate( -1, 1 ),
-                    Rotation.CCW, new Coordinate( 0, 1 ) ) );
-
     /** The J PieceType. */
     public static final PieceType J_PIECE = new PieceType(
             new Mino(),
-            new SetRegion( List.of(
+            new BitmaskRegion( List.of(
                     new Coordinate( 0, -1 ),
                     new Coordinate( 0, 0 ),
                     new Coordinate( 0, 1 ),
                     new Coordinate( 1, -1 ) ) ),
             BASE_OFFSET_TABLE_JLSTZ,
-            KICK_OFFSET_TABLE_JLSTZ );
+            OffsetKickSystem.JLSTZ );
 
     /** The L PieceType. */
     public static final PieceType L_PIECE = new PieceType(
             new Mino(),
-            new SetRegion( List.of(
+            new BitmaskRegion( List.of(
                     new Coordinate( 0, -1 ),
                     new Coordinate( 0, 0 ),
                     new Coordinate( 0, 1 ),
                     new Coordinate( 1, 1 ) ) ),
             BASE_OFFSET_TABLE_JLSTZ,
-            KICK_OFFSET_TABLE_JLSTZ );
+            OffsetKickSystem.JLSTZ );
 
     /** The S PieceType. */
     public static final PieceType S_PIECE = new PieceType(
             new Mino(),
-            new SetRegion( List.of(
+            new BitmaskRegion( List.of(
                     new Coordinate( -1, 0 ),
                     new Coordinate( 0, 0 ),
                     new Coordinate( 1, 0 ),
                     new Coordinate( 1, 1 ) ) ),
             BASE_OFFSET_TABLE_JLSTZ,
-            KICK_OFFSET_TABLE_JLSTZ );
+            OffsetKickSystem.JLSTZ );
 
     /** The T PieceType. */
     public static final PieceType T_PIECE = new PieceType(
             new Mino(),
-            new SetRegion( List.of(
+            new BitmaskRegion( List.of(
                     new Coordinate( 0, -1 ),
                     new Coordinate( 0, 0 ),
                     new Coordinate( 0, 1 ),
                     new Coordinate( 1, 0 ) ) ),
             BASE_OFFSET_TABLE_JLSTZ,
-            KICK_OFFSET_TABLE_JLSTZ );
+            OffsetKickSystem.JLSTZ );
 
     /** The Z PieceType. */
     public static final PieceType Z_PIECE = new PieceType(
             new Mino(),
-            new SetRegion( List.of(
+            new BitmaskRegion( List.of(
                     new Coordinate( 0, 0 ),
                     new Coordinate( 0, 1 ),
                     new Coordinate( 1, -1 ),
                     new Coordinate( 1, 0 ) ) ),
             BASE_OFFSET_TABLE_JLSTZ,
-            KICK_OFFSET_TABLE_JLSTZ );
+            OffsetKickSystem.JLSTZ );
 
     /** The I PieceType. */
     public static final PieceType I_PIECE = new PieceType(
             new Mino(),
-            new SetRegion( List.of(
+            new BitmaskRegion( List.of(
                     new Coordinate( 0, -1 ),
                     new Coordinate( 0, 0 ),
                     new Coordinate( 0, 1 ),
                     new Coordinate( 0, 2 ) ) ),
             BASE_OFFSET_TABLE_IO,
-            KICK_OFFSET_TABLE_IO );
+            OffsetKickSystem.IO );
 
     /** The O PieceType. */
     public static final PieceType O_PIECE = new PieceType(
             new Mino(),
-            new SetRegion( List.of(
+            new BitmaskRegion( List.of(
                     new Coordinate( -1, 0 ),
                     new Coordinate( -1, 1 ),
                     new Coordinate( 0, 0 ),
                     new Coordinate( 0, 1 ) ) ),
             BASE_OFFSET_TABLE_IO,
-            KICK_OFFSET_TABLE_IO );
+            OffsetKickSystem.IO );
+
+    /** A MinoPalette of the Minos of every standard PieceType. */
+    public static final MinoPalette STANDARD_PALETTE = new MinoPalette( List.of(
+            J_PIECE.getMino(),
+            L_PIECE.getMino(),
+            S_PIECE.getMino(),
+            T_PIECE.getMino(),
+            Z_PIECE.getMino(),
+            I_PIECE.getMino(),
+            O_PIECE.getMino() ) );
 
     /** The Mino the piece is made of. */
     private final Mino mino;
+    /** The Zobrist key of the PieceType. */
+    private final long hashKey;
     /** The shapes of each Rotation state of the piece. */
     private final Map<Rotation, Region> shapes;
-    /** The kicks for each pair of start and end Rotation states. */
-    private final Map<Rotation, Map<Rotation, Iterable<Coordinate>>> kickTable;
+    /** The packed positions of each Rotation state's shape, by ordinal. */
+    private final long[][] packedShapes;
+    /** The BottomProfile of each Rotation state's shape, by ordinal. */
+    private final BottomProfile[] bottomProfiles;
+    /** The ShapeMask of each Rotation state's shape, by ordinal. */
+    private final ShapeMask[] shapeMasks;
+    /** For each Rotation state, the first Rotation state with the same shape. */
+    private final Rotation[] footprintRotations;
+    /** For each Rotation state, the packed offset to the same shape's state. */
+    private final long[] footprintOffsets;
+    /** The KickSystem deciding the kicks tried on rotating. */
+    private final KickSystem kickSystem;
+    /** The kicks of the KickSystem, compiled into flat arrays. */
+    private final KickTable kickTable;
 
     /**
      * Generates the Map of shapes from an initial shape and the base offsets.
@@ -176,53 +166,101 @@ public class PieceType {
             Map<Rotation, Coordinate> baseOffsetTable ) {
         Map<Rotation, Region> shapes = new HashMap<>();
         for ( Rotation rotation : Rotation.values() ) {
-            Region rotatedShape = shape.rotate( rotation, Coordinate.ORIGIN );
             // Calculate the translation that moves the center to the origin.
             Coordinate baseOffset = baseOffsetTable.get( rotation );
             if ( baseOffset == null ) {
                 throw new IllegalArgumentException(
                         "PieceType(baseOffsetTable) must have an entry for each Rotation state." );
             }
-            Coordinate negatedOffset = baseOffset.negate();
-            Region offsetShape = rotatedShape.translate( negatedOffset );
-            shapes.put( rotation, offsetShape );
+            // Rotate and translate in one pass, into a concrete Region.
+            Transform transform = new Transform( rotation, baseOffset.negate() );
+            shapes.put( rotation, shape.transform( transform ) );
         }
         return shapes;
     }
 
     /**
-     * Generates the kick table from the kick offset table.
+     * Packs the positions of each Rotation state's shape.
      *
-     * @param kickOffsetTable
-     *            For each kick, a Map of the position of each Rotation state's
-     *            center, relative to the center defined by the base offsets.
-     * @return The kick table.
+     * @param shapes
+     *            The Map of shapes.
+     * @return The packed positions, indexed by Rotation ordinal.
      */
-    private Map<Rotation, Map<Rotation, Iterable<Coordinate>>> generateKickTable (
-            Iterable<Map<Rotation, Coordinate>> kickOffsetTable ) {
-        Map<Rotation, Map<Rotation, Iterable<Coordinate>>> kickTable = new HashMap<>();
-        for ( Rotation oldRotation : Rotation.values() ) {
-            // Generate the kick table for a particular initial Rotation state.
-            Map<Rotation, Iterable<Coordinate>> rotationKicks = new HashMap<>();
-            for ( Rotation newRotation : Rotation.values() ) {
-                // Generate a singular List of kicks.
-                List<Coordinate> kicks = new ArrayList<>();
-                for ( Map<Rotation, Coordinate> offsetTable : kickOffsetTable ) {
-                    // Subtract the offsets of the Rotations to find the kick.
-                    Coordinate startOffset = offsetTable.get( oldRotation );
-                    Coordinate endOffset = offsetTable.get( newRotation );
-                    if ( startOffset == null || endOffset == null ) {
-                        throw new IllegalArgumentException(
-                                "PieceType(kickOffsetTable) must have an entry for each Rotation state." );
-                    }
-                    Coordinate kick = endOffset.minus( startOffset );
-                    kicks.add( kick );
+    private long[][] generatePackedShapes ( Map<Rotation, Region> shapes ) {
+        long[][] packedShapes = new long[Rotation.values().length][];
+        for ( Rotation rotation : Rotation.values() ) {
+            List<Long> positions = new ArrayList<>();
+            for ( Coordinate position : shapes.get( rotation ) ) {
+                positions.add( position.pack() );
+            }
+            packedShapes[rotation.ordinal()] = positions.stream().mapToLong( Long::longValue ).toArray();
+        }
+        return packedShapes;
+    }
+
+    /**
+     * Generates the BottomProfile of each Rotation state's shape.
+     *
+     * @param shapes
+     *            The Map of shapes.
+     * @return The BottomProfiles, indexed by Rotation ordinal.
+     */
+    private BottomProfile[] generateBottomProfiles ( Map<Rotation, Region> shapes ) {
+        BottomProfile[] bottomProfiles = new BottomProfile[Rotation.values().length];
+        for ( Rotation rotation : Rotation.values() ) {
+            Region shape = shapes.get( rotation );
+            bottomProfiles[rotation.ordinal()] = new BottomProfile( shape );
+        }
+        return bottomProfiles;
+    }
+
+    /**
+     * Generates the ShapeMask of each Rotation state's shape.
+     *
+     * @param shapes
+     *            The Map of shapes.
+     * @return The ShapeMasks, indexed by Rotation ordinal, with null for any
+     *         shape too wide for a ShapeMask.
+     */
+    private ShapeMask[] generateShapeMasks ( Map<Rotation, Region> shapes ) {
+        ShapeMask[] shapeMasks = new ShapeMask[Rotation.values().length];
+        for ( Rotation rotation : Rotation.values() ) {
+            Region shape = shapes.get( rotation );
+            Rectangle bounds = shape.getBounds();
+            if ( bounds.getMaximum().x() - bounds.getMinimum().x() <= ShapeMask.MAX_WIDTH ) {
+                shapeMasks[rotation.ordinal()] = new ShapeMask( shape );
+            }
+        }
+        return shapeMasks;
+    }
+
+    /**
+     * Finds, for each Rotation state, the first Rotation state whose shape is
+     * the same shape moved, and the offset between them. States with the same
+     * footprint, such as the O piece's, then share one placement.
+     *
+     * @param shapes
+     *            The Map of shapes.
+     * @param offsets
+     *            The array to fill with the packed offset from each Rotation
+     *            state's position to the matching state's position.
+     * @return The matching Rotation states, indexed by Rotation ordinal.
+     */
+    private Rotation[] generateFootprints ( Map<Rotation, Region> shapes, long[] offsets ) {
+        Rotation[] rotations = new Rotation[Rotation.values().length];
+        for ( Rotation rotation : Rotation.values() ) {
+            Region shape = shapes.get( rotation );
+            for ( Rotation other : Rotation.values() ) {
+                Region otherShape = shapes.get( other );
+                Coordinate offset = shape.getBounds().getMinimum().minus( otherShape.getBounds().getMinimum() );
+                if ( otherShape.translate( offset ).equals( shape ) ) {
+                    rotations[rotation.ordinal()] = other;
+                    offsets[rotation.ordinal()] = offset.pack();
+                    break;
                 }
-                rotationKicks.put( newRotation, kicks );
             }
-            kickTable.put( oldRotation, rotationKicks );
         }
-        return kickTable;
+        return rotations;
     }
 
     /**
@@ -243,6 +281,26 @@ public class PieceType {
     public PieceType ( Mino mino, Region shape,
             Map<Rotation, Coordinate> baseOffsetTable,
             Iterable<Map<Rotation, Coordinate>> kickOffsetTable ) {
+        this( mino, shape, baseOffsetTable, offsetKickSystem( kickOffsetTable ) );
+    }
+
+    /**
+     * Creates a new PieceType from it's Mino, shape, offsets, and KickSystem.
+     *
+     * @param mino
+     *            The Mino the piece is made of, non-null.
+     * @param shape
+     *            The shape of the R0 Rotation state, non-null.
+     * @param baseOffsetTable
+     *            A Map of the position of each Rotation state's center,
+     *            non-null with an entry for each Rotation state.
+     * @param kickSystem
+     *            The KickSystem deciding the kicks tried on rotating,
+     *            non-null with kicks for each pair of Rotation states.
+     */
+    public PieceType ( Mino mino, Region shape,
+            Map<Rotation, Coordinate> baseOffsetTable,
+            KickSystem kickSystem ) {
         if ( mino == null ) {
             throw new NullPointerException( "PieceType(mino) must be non-null." );
         }
@@ -252,12 +310,34 @@ public class PieceType {
         if ( baseOffsetTable == null ) {
             throw new NullPointerException( "PieceType(baseOffsetTable) must be non-null." );
         }
-        if ( kickOffsetTable == null ) {
-            throw new NullPointerException( "PieceType(kickOffsetTable) must be non-null." );
+        if ( kickSystem == null ) {
+            throw new NullPointerException( "PieceType(kickSystem) must be non-null." );
         }
         this.mino = mino;
+        hashKey = Zobrist.mix( CREATED.incrementAndGet() );
         shapes = generateShapes( shape, baseOffsetTable );
-        kickTable = generateKickTable( kickOffsetTable );
+        packedShapes = generatePackedShapes( shapes );
+        bottomProfiles = generateBottomProfiles( shapes );
+        shapeMasks = generateShapeMasks( shapes );
+        footprintOffsets = new long[Rotation.values().length];
+        footprintRotations = generateFootprints( shapes, footprintOffsets );
+        this.kickSystem = kickSystem;
+        kickTable = new KickTable( kickSystem );
+    }
+
+    /**
+     * Creates the OffsetKickSystem of a kick offset table, for the PieceType
+     * constructor.
+     *
+     * @param kickOffsetTable
+     *            The kick offset table, non-null.
+     * @return The new OffsetKickSystem.
+     */
+    private static KickSystem offsetKickSystem ( Iterable<Map<Rotation, Coordinate>> kickOffsetTable ) {
+        if ( kickOffsetTable == null ) {
+            throw new NullPointerException( "PieceType(kickOffsetTable) must be non-null." );
+        }
+        return new OffsetKickSystem( kickOffsetTable );
     }
 
     /**
@@ -269,6 +349,15 @@ public class PieceType {
         return mino;
     }
 
+    /**
+     * Gets the Zobrist key of the PieceType, unique to each PieceType.
+     *
+     * @return the hash key.
+     */
+    public long getHashKey () {
+        return hashKey;
+    }
+
     /**
      * Gets the shape of a particular Rotation state of the PieceType.
      *
@@ -280,6 +369,87 @@ public class PieceType {
         return shapes.get( rotation );
     }
 
+    /**
+     * Gets the packed positions of a particular Rotation state's shape. The
+     * array is shared, and must not be modified.
+     *
+     * @param rotation
+     *            The Rotation state to check, non-null.
+     * @return the packed positions of that Rotation state's shape.
+     */
+    long[] getPackedShape ( Rotation rotation ) {
+        return packedShapes[rotation.ordinal()];
+    }
+
+    /**
+     * Gets the BottomProfile of a particular Rotation state's shape.
+     *
+     * @param rotation
+     *            The Rotation state to check, non-null.
+     * @return the BottomProfile of that Rotation state's shape.
+     */
+    public BottomProfile getBottomProfile ( Rotation rotation ) {
+        return bottomProfiles[rotation.ordinal()];
+    }
+
+    /**
+     * Gets the ShapeMask of a particular Rotation state's shape.
+     *
+     * @param rotation
+     *            The Rotation state to check, non-null.
+     * @return the ShapeMask of that Rotation state's shape, or null if the
+     *         shape is too wide for a ShapeMask.
+     */
+    public ShapeMask getShapeMask ( Rotation rotation ) {
+        return shapeMasks[rotation.ordinal()];
+    }
+
+    /**
+     * Checks whether a Rotation state's shape at a position would not collide
+     * with a Board's Minos, a row mask at a time if the shape has a ShapeMask.
+     *
+     * @param board
+     *            The Board to check against, non-null.
+     * @param rotation
+     *            The Rotation state, non-null.
+     * @param x
+     *            The X component of the position.
+     * @param y
+     *            The Y component of the position.
+     * @return True if the shape would be empty and within the Board's bounds.
+     */
+    boolean isNotColliding ( Board board, Rotation rotation, int x, int y ) {
+        ShapeMask mask = shapeMasks[rotation.ordinal()];
+        if ( mask == null ) {
+            return board.isPackedRegionEmpty( packedShapes[rotation.ordinal()], PackedCoordinate.pack( x, y ) );
+        }
+        return board.isMaskEmpty( mask.getRows(), mask.getWidth(), x + mask.getMinX(), y + mask.getMinY() );
+    }
+
+    /**
+     * Gets the first Rotation state with the same footprint as a Rotation
+     * state, which is itself unless an earlier state's shape matches.
+     *
+     * @param rotation
+     *            The Rotation state to check, non-null.
+     * @return the matching Rotation state.
+     */
+    Rotation getFootprintRotation ( Rotation rotation ) {
+        return footprintRotations[rotation.ordinal()];
+    }
+
+    /**
+     * Gets the packed offset from a position in a Rotation state to the
+     * position with the same footprint in getFootprintRotation()'s state.
+     *
+     * @param rotation
+     *            The Rotation state to check, non-null.
+     * @return the packed offset.
+     */
+    long getFootprintOffset ( Rotation rotation ) {
+        return footprintOffsets[rotation.ordinal()];
+    }
+
     /**
      * Gets the kicks on rotating from Rotation state to another.
      *
@@ -290,8 +460,25 @@ public class PieceType {
      * @return the kicks for that Rotation, not including the null kick.
      */
     public Iterable<Coordinate> getKicks ( Rotation oldRotation, Rotation newRotation ) {
-        Map<Rotation, Iterable<Coordinate>> rotationKicks = kickTable.get( oldRotation );
-        return rotationKicks.get( newRotation );
+        return kickSystem.getKicks( oldRotation, newRotation );
+    }
+
+    /**
+     * Gets the KickSystem deciding the kicks tried on rotating.
+     *
+     * @return the KickSystem.
+     */
+    public KickSystem getKickSystem () {
+        return kickSystem;
+    }
+
+    /**
+     * Gets the kicks of the KickSystem, compiled into flat arrays.
+     *
+     * @return the KickTable.
+     */
+    KickTable getKickTable () {
+        return kickTable;
     }
 
     /**
@@ -0,0 +1,62 @@
+package electra.ztrix.model.game.piece;
+
+import electra.ztrix.model.game.board.Board;
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Region;
+import electra.ztrix.model.game.common.Rotation;
+
+/**
+ * An immutable position and Rotation state a piece can lock in, as found by a
+ * MoveGenerator.
+ *
+ * @param type
+ *            The PieceType being placed.
+ * @param position
+ *            The position of the piece.
+ * @param rotation
+ *            The Rotation state of the piece.
+ * @author Electra
+ */
+public record Placement(PieceType type, Coordinate position, Rotation rotation) {
+    /**
+     * Creates a new Placement of a PieceType.
+     *
+     * @param type
+     *            The PieceType being placed, non-null.
+     * @param position
+     *            The position of the piece, non-null.
+     * @param rotation
+     *            The Rotation state of the piece, non-null.
+     */
+    public Placement {
+        if ( type == null ) {
+            throw new NullPointerException( "Placement(type) must be non-null." );
+        }
+        if ( position == null ) {
+            throw new NullPointerException( "Placement(position) must be non-null." );
+        }
+        if ( rotation == null ) {
+            throw new NullPointerException( "Placement(rotation) must be non-null." );
+        }
+    }
+
+    /**
+     * Gets the positions the piece occupies once placed.
+     *
+     * @return the Region of the placed piece.
+     */
+    public Region getRegion () {
+        return type.getShape( rotation ).translate( position );
+    }
+
+    /**
+     * Creates a new ActivePiece in this Placement, ready to place().
+     *
+     * @param board
+     *            The Board the ActivePiece is on, non-null.
+     * @return The newly created ActivePiece.
+     */
+    public ActivePiece createActivePiece ( Board board ) {
+        return type.createActivePiece( board, position, rotation );
+    }
+}
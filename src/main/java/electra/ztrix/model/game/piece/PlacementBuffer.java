@@ -0,0 +1,128 @@
+package electra.ztrix.model.game.piece;
+
+import java.util.Arrays;
+
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rotation;
+
+/**
+ * A growable buffer of placements found by a MoveGenerator, owned by the
+ * caller and reused between searches. Each placement is packed into a long as
+ * its Y component, X component and Rotation ordinal, so filling the buffer
+ * allocates nothing once it has grown to fit. Placements are only created as
+ * objects when read with get().
+ *
+ * @author Electra
+ */
+public class PlacementBuffer {
+    /** The number of placements a new PlacementBuffer has room for. */
+    private static final int DEFAULT_CAPACITY = 64;
+    /** The Rotation states, by ordinal. */
+    private static final Rotation[] ROTATIONS = Rotation.values();
+
+    /** The packed placements. */
+    private long[] placements;
+    /** The number of placements in the buffer. */
+    private int size;
+
+    /**
+     * Creates a new, empty PlacementBuffer.
+     */
+    public PlacementBuffer () {
+        placements = new long[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Gets the number of placements in the buffer.
+     *
+     * @return the size.
+     */
+    public int size () {
+        return size;
+    }
+
+    /**
+     * Discards every placement in the buffer, keeping its capacity.
+     */
+    public void clear () {
+        size = 0;
+    }
+
+    /**
+     * Adds a placement to the buffer, growing it if it is full.
+     *
+     * @param x
+     *            The X component of the piece's position.
+     * @param y
+     *            The Y component of the piece's position.
+     * @param rotation
+     *            The ordinal of the piece's Rotation state.
+     */
+    void add ( int x, int y, int rotation ) {
+        if ( size == placements.length ) {
+            placements = Arrays.copyOf( placements, size * 2 );
+        }
+        placements[size++] = (long) y << 32 | ( (long) x << 2 & 0xFFFFFFFFL ) | rotation;
+    }
+
+    /**
+     * Gets the X component of a placement's position.
+     *
+     * @param index
+     *            The index of the placement, less than the size.
+     * @return The X component.
+     */
+    public int getX ( int index ) {
+        // Shift the X component to the top of an int to restore its sign.
+        return (int) packed( index ) >> 2;
+    }
+
+    /**
+     * Gets the Y component of a placement's position.
+     *
+     * @param index
+     *            The index of the placement, less than the size.
+     * @return The Y component.
+     */
+    public int getY ( int index ) {
+        return (int) ( packed( index ) >> 32 );
+    }
+
+    /**
+     * Gets the Rotation state of a placement.
+     *
+     * @param index
+     *            The index of the placement, less than the size.
+     * @return The Rotation state.
+     */
+    public Rotation getRotation ( int index ) {
+        return ROTATIONS[(int) packed( index ) & 3];
+    }
+
+    /**
+     * Creates a Placement of a PieceType from a placement in the buffer.
+     *
+     * @param index
+     *            The index of the placement, less than the size.
+     * @param type
+     *            The PieceType that was searched for, non-null.
+     * @return The new Placement.
+     */
+    public Placement get ( int index, PieceType type ) {
+        return new Placement( type, new Coordinate( getX( index ), getY( index ) ), getRotation( index ) );
+    }
+
+    /**
+     * Gets a packed placement.
+     *
+     * @param index
+     *            The index of the placement, less than the size.
+     * @return The packed placement.
+     */
+    private long packed ( int index ) {
+        if ( index < 0 || index >= size ) {
+            throw new IndexOutOfBoundsException( "index must be less than the buffer's size." );
+        }
+        return placements[index];
+    }
+}
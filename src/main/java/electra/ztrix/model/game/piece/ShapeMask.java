@@ -0,0 +1,109 @@
+package electra.ztrix.model.game.piece;
+
+import electra.ztrix.model.game.common.Rectangle;
+import electra.ztrix.model.game.common.Region;
+
+/**
+ * An immutable row mask of a shape, one column bitmask per row of its bounds,
+ * used to check collision against a Board's occupancy a row at a time with a
+ * shift and an AND rather than a position at a time.
+ *
+ * @author Electra
+ */
+public class ShapeMask {
+    /** The widest shape a ShapeMask can hold, one bit per column. */
+    public static final int MAX_WIDTH = Long.SIZE;
+
+    /** The X offset of the shape's leftmost column. */
+    private final int minX;
+    /** The Y offset of the shape's lowest row. */
+    private final int minY;
+    /** The number of columns the shape spans. */
+    private final int width;
+    /** The columns of each row, from the lowest, with bit 0 the leftmost. */
+    private final long[] rows;
+
+    /**
+     * Creates the ShapeMask of a shape.
+     *
+     * @param shape
+     *            The shape to summarize, non-null and at most MAX_WIDTH
+     *            columns wide.
+     */
+    public ShapeMask ( Region shape ) {
+        if ( shape == null ) {
+            throw new NullPointerException( "ShapeMask(shape) must be non-null." );
+        }
+        Rectangle bounds = shape.getBounds();
+        minX = bounds.getMinimum().x();
+        minY = bounds.getMinimum().y();
+        width = bounds.getMaximum().x() - minX;
+        if ( width > MAX_WIDTH ) {
+            throw new IllegalArgumentException( "ShapeMask(shape) must be at most " + MAX_WIDTH + " columns wide." );
+        }
+        rows = new long[bounds.getMaximum().y() - minY];
+        shape.forEachRowSpan( ( y, start, end ) -> {
+            // Set the bits from start to end, exclusive.
+            long high = end - minX == Long.SIZE ? -1L : ( 1L << ( end - minX ) ) - 1;
+            rows[y - minY] |= high & ( -1L << ( start - minX ) );
+            return true;
+        } );
+    }
+
+    /**
+     * Gets the X offset of the shape's leftmost column.
+     *
+     * @return the X offset.
+     */
+    public int getMinX () {
+        return minX;
+    }
+
+    /**
+     * Gets the Y offset of the shape's lowest row.
+     *
+     * @return the Y offset.
+     */
+    public int getMinY () {
+        return minY;
+    }
+
+    /**
+     * Gets the number of columns the shape spans.
+     *
+     * @return the width.
+     */
+    public int getWidth () {
+        return width;
+    }
+
+    /**
+     * Gets the number of rows the shape spans.
+     *
+     * @return the height.
+     */
+    public int getHeight () {
+        return rows.length;
+    }
+
+    /**
+     * Gets the columns of a row of the shape, with bit 0 the leftmost column.
+     *
+     * @param row
+     *            The row, counted from the lowest row.
+     * @return the column bitmask.
+     */
+    public long getRow ( int row ) {
+        return rows[row];
+    }
+
+    /**
+     * Gets the columns of every row of the shape. The array is shared, and
+     * must not be modified.
+     *
+     * @return the column bitmasks, from the lowest row.
+     */
+    long[] getRows () {
+        return rows;
+    }
+}
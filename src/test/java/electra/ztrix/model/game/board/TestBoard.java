@@ -1,11 +1,18 @@
 package electra.ztrix.model.game.board;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -295,4 +302,501 @@ class TestBoard {
         }
     }
 
+    /**
+     * Tests that isRegionEmpty() tracks setMinoAt() and its revert on a Board
+     * wider than a single occupancy word.
+     */
+    @Test
+    public void testBoardIsRegionEmptyWide () {
+        Board wide = new Board( new Coordinate( 100, 4 ) );
+        Rectangle span = new Rectangle( 60, 1, 70, 3 );
+        assertTrue( wide.isRegionEmpty( span ),
+                "isRegionEmpty(" + span + ") did not return True." );
+        // Set Minos on either side of the word boundary.
+        for ( int x = 62; x <= 65; x++ ) {
+            Coordinate position = new Coordinate( x, 2 );
+            Revertable revertable = wide.setMinoAt( position, MINO );
+            assertFalse( wide.isRegionEmpty( span ),
+                    "isRegionEmpty(" + span + ") did not see " + position + "." );
+            assertFalse( wide.isRegionEmpty( new Rectangle( position, position.plus( new Coordinate( 1, 1 ) ) ) ),
+                    "isRegionEmpty() did not see " + position + " as a single cell." );
+            // Check that the revert clears the occupancy.
+            revertable.revert();
+            assertTrue( wide.isRegionEmpty( span ),
+                    "setMinoAt(" + position + ").revert() did not clear the occupancy." );
+        }
+        // Check Regions that only touch the neighbors of a filled position.
+        wide.setMinoAt( new Coordinate( 64, 2 ), MINO );
+        assertTrue( wide.isRegionEmpty( new Rectangle( 0, 2, 64, 3 ) ),
+                "isRegionEmpty() saw a Mino left of the word boundary." );
+        assertTrue( wide.isRegionEmpty( new Rectangle( 65, 0, 100, 4 ) ),
+                "isRegionEmpty() saw a Mino right of the word boundary." );
+        assertFalse( wide.isRegionEmpty( wide.getBounds() ),
+                "isRegionEmpty() did not see a Mino on the word boundary." );
+    }
+
+    /**
+     * Tests that clearFullRows() removes full rows and moves the rows above
+     * them down.
+     */
+    @Test
+    public void testBoardClearFullRows () {
+        Mino[] minos = new Mino[20];
+        // Fill rows 0, 2 and 3, and mark each other row with a unique Mino.
+        for ( int y = 0; y < 20; y++ ) {
+            minos[y] = new Mino();
+            if ( y == 0 || y == 2 || y == 3 ) {
+                board.setRegion( new Rectangle( 0, y, 10, y + 1 ), minos[y] );
+            } else {
+                board.setMinoAt( new Coordinate( y % 10, y ), minos[y] );
+            }
+        }
+        LineClear clear = board.clearFullRows();
+        assertEquals( 3, clear.getLineCount(),
+                "clearFullRows() cleared the wrong number of rows." );
+        assertArrayEquals( new int[] { 0, 2, 3 }, clear.getClearedRows(),
+                "clearFullRows() cleared the wrong rows." );
+        // Check that the remaining rows moved down past the cleared rows.
+        int[] remaining = { 1, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19 };
+        for ( int i = 0; i < remaining.length; i++ ) {
+            int y = remaining[i];
+            Coordinate position = new Coordinate( y % 10, i );
+            assertSame( minos[y], board.getMinoAt( position ),
+                    "clearFullRows() did not move row " + y + " to row " + i + "." );
+        }
+        // Check that the top of the Board is empty.
+        assertTrue( board.isRegionEmpty( new Rectangle( 0, 17, 10, 20 ) ),
+                "clearFullRows() did not empty the top of the Board." );
+        // Check that the method is Revertable.
+        clear.revert();
+        for ( int y = 0; y < 20; y++ ) {
+            Coordinate position = new Coordinate( y % 10, y );
+            assertSame( minos[y], board.getMinoAt( position ),
+                    "clearFullRows().revert() did not restore row " + y + "." );
+        }
+        assertFalse( board.isRegionEmpty( new Rectangle( 0, 2, 1, 3 ) ),
+                "clearFullRows().revert() did not restore the occupancy." );
+        assertEquals( 3, board.clearFullRows().getLineCount(),
+                "clearFullRows() did not find the restored rows." );
+    }
+
+    /**
+     * Tests that clearFullRows() does nothing without a full row.
+     */
+    @Test
+    public void testBoardClearFullRowsNone () {
+        board.setRegion( new Rectangle( 0, 0, 9, 4 ), MINO );
+        LineClear clear = board.clearFullRows();
+        assertEquals( 0, clear.getLineCount(),
+                "clearFullRows() cleared a row that was not full." );
+        assertSame( LineClear.NONE, clear,
+                "clearFullRows() created a LineClear without a full row." );
+        clear.revert();
+        assertFalse( board.isRegionEmpty( new Rectangle( 0, 0, 9, 4 ) ),
+                "clearFullRows() affected a row that was not full." );
+        assertTrue( board.isRegionEmpty( new Rectangle( 9, 0, 10, 20 ) ),
+                "clearFullRows() affected a row that was not full." );
+    }
+
+    /**
+     * Tests that the column heights follow setMinoAt(), setRegion() and
+     * their reverts.
+     */
+    @Test
+    public void testBoardColumnHeight () {
+        for ( int x = 0; x < 10; x++ ) {
+            assertEquals( 0, board.getColumnHeight( x ),
+                    "getColumnHeight(" + x + ") did not initialize to 0." );
+        }
+        Revertable low = board.setMinoAt( new Coordinate( 3, 2 ), MINO );
+        Revertable high = board.setMinoAt( new Coordinate( 3, 7 ), MINO );
+        assertEquals( 8, board.getColumnHeight( 3 ),
+                "setMinoAt() did not raise the column height." );
+        assertEquals( 3, board.getColumnHeightBelow( 3, 7 ),
+                "getColumnHeightBelow() did not look below the top Mino." );
+        assertEquals( 8, board.getColumnHeightBelow( 3, 15 ),
+                "getColumnHeightBelow() did not return the column height." );
+        // Check that reverting the top Mino finds the one below it.
+        high.revert();
+        assertEquals( 3, board.getColumnHeight( 3 ),
+                "setMinoAt().revert() did not lower the column height." );
+        low.revert();
+        assertEquals( 0, board.getColumnHeight( 3 ),
+                "setMinoAt().revert() did not empty the column height." );
+        // Check setRegion() and its revert.
+        Revertable region = board.setRegion( new Rectangle( 5, 0, 7, 4 ), MINO );
+        assertEquals( 4, board.getColumnHeight( 5 ),
+                "setRegion() did not raise the column height." );
+        assertEquals( 4, board.getColumnHeight( 6 ),
+                "setRegion() did not raise the column height." );
+        assertEquals( 0, board.getColumnHeight( 7 ),
+                "setRegion() affected another column height." );
+        region.revert();
+        assertEquals( 0, board.getColumnHeight( 5 ),
+                "setRegion().revert() did not lower the column height." );
+    }
+
+    /**
+     * Tests that the column heights follow clearFullRows() and its revert.
+     */
+    @Test
+    public void testBoardColumnHeightClear () {
+        board.setRegion( new Rectangle( 0, 0, 10, 2 ), MINO );
+        board.setMinoAt( new Coordinate( 4, 5 ), MINO );
+        board.setMinoAt( new Coordinate( 8, 2 ), MINO );
+        LineClear clear = board.clearFullRows();
+        assertEquals( 4, board.getColumnHeight( 4 ),
+                "clearFullRows() did not lower the column height." );
+        assertEquals( 1, board.getColumnHeight( 8 ),
+                "clearFullRows() did not lower the column height." );
+        assertEquals( 0, board.getColumnHeight( 0 ),
+                "clearFullRows() did not empty the column height." );
+        clear.revert();
+        assertEquals( 6, board.getColumnHeight( 4 ),
+                "clearFullRows().revert() did not restore the column height." );
+        assertEquals( 2, board.getColumnHeight( 0 ),
+                "clearFullRows().revert() did not restore the column height." );
+    }
+
+    /**
+     * Tests that the column heights and hash kept up to date by
+     * clearFullRows(), insertGarbage() and their reverts match a Board
+     * rebuilt from the same Minos, over random stacks.
+     */
+    @Test
+    public void testBoardIncrementalHeightsAndHash () {
+        Random random = new Random( 3 );
+        for ( int round = 0; round < 50; round++ ) {
+            Board stacked = new Board( new Coordinate( 10, 20 ) );
+            int top = random.nextInt( 21 );
+            for ( int y = 0; y < top; y++ ) {
+                for ( int x = 0; x < 10; x++ ) {
+                    // Fill most cells, so some rows are full.
+                    if ( random.nextInt( 12 ) != 0 ) {
+                        stacked.setMinoAt( new Coordinate( x, y ), MINO );
+                    }
+                }
+            }
+            BitSet holes = new BitSet();
+            holes.set( random.nextInt( 10 ) );
+            Revertable garbage = stacked.insertGarbage( random.nextInt( 4 ), holes, MINO );
+            assertMatchesRebuilt( stacked, "insertGarbage()" );
+            LineClear clear = stacked.clearFullRows();
+            assertMatchesRebuilt( stacked, "clearFullRows()" );
+            clear.revert();
+            assertMatchesRebuilt( stacked, "clearFullRows().revert()" );
+            garbage.revert();
+            assertMatchesRebuilt( stacked, "insertGarbage().revert()" );
+        }
+    }
+
+    /**
+     * Asserts that a Board's column heights and hash match a new Board with
+     * the same Minos.
+     *
+     * @param actual
+     *            The Board to check.
+     * @param method
+     *            The method that last changed the Board.
+     */
+    private static void assertMatchesRebuilt ( Board actual, String method ) {
+        Board rebuilt = new Board( new Coordinate( 10, 20 ) );
+        for ( Coordinate position : actual.getBounds() ) {
+            if ( actual.getMinoAt( position ) != null ) {
+                rebuilt.setMinoAt( position, MINO );
+            }
+        }
+        for ( int x = 0; x < 10; x++ ) {
+            assertEquals( rebuilt.getColumnHeight( x ), actual.getColumnHeight( x ),
+                    method + " did not update the height of column " + x + "." );
+        }
+        assertEquals( rebuilt.hash(), actual.hash(), method + " did not update the hash." );
+    }
+
+    /**
+     * Tests that getRowOccupancy() reads each row's bits and cannot be called
+     * out of bounds.
+     */
+    @Test
+    public void testBoardRowOccupancy () {
+        Revertable revertable = board.setMinoAt( OTHER_POSITION, MINO );
+        assertEquals( 1L << OTHER_POSITION.x(), board.getRowOccupancy( OTHER_POSITION.y(), 0 ),
+                "getRowOccupancy() did not read the occupied position." );
+        revertable.revert();
+        assertEquals( 0L, board.getRowOccupancy( OTHER_POSITION.y(), 0 ),
+                "getRowOccupancy() did not read the emptied position." );
+        assertThrows( IndexOutOfBoundsException.class,
+                () -> board.getRowOccupancy( -1, 0 ),
+                "getRowOccupancy(-1, 0) did not throw an Exception." );
+        assertThrows( IndexOutOfBoundsException.class,
+                () -> board.getRowOccupancy( 20, 0 ),
+                "getRowOccupancy(20, 0) did not throw an Exception." );
+        assertThrows( IndexOutOfBoundsException.class,
+                () -> board.getRowOccupancy( 0, 1 ),
+                "getRowOccupancy(0, 1) did not throw an Exception." );
+    }
+
+    /**
+     * Tests that the column height getters cannot be called out of bounds.
+     */
+    @Test
+    public void testBoardColumnHeightInvalid () {
+        assertThrows( IndexOutOfBoundsException.class,
+                () -> board.getColumnHeight( -1 ),
+                "getColumnHeight(-1) did not throw an Exception." );
+        assertThrows( IndexOutOfBoundsException.class,
+                () -> board.getColumnHeight( 10 ),
+                "getColumnHeight(10) did not throw an Exception." );
+        assertThrows( IndexOutOfBoundsException.class,
+                () -> board.getColumnHeightBelow( 0, -1 ),
+                "getColumnHeightBelow(0, -1) did not throw an Exception." );
+    }
+
+    /**
+     * Tests that a Board with a MinoPalette stores and reverts Minos like a
+     * Board without one.
+     */
+    @Test
+    public void testBoardPalette () {
+        Mino other = new Mino();
+        MinoPalette palette = new MinoPalette( List.of( MINO, other ) );
+        Board paletted = new Board( new Coordinate( 10, 20 ), palette );
+        assertSame( palette, paletted.getPalette(),
+                "getPalette() was wrong." );
+        for ( Coordinate position : VALID_POSITIONS ) {
+            assertNull( paletted.getMinoAt( position ),
+                    "getMinoAt(" + position + ") did not initialize to null." );
+        }
+        // Check setMinoAt() and setRegion() with Minos in the palette.
+        Revertable revertable = paletted.setMinoAt( OTHER_POSITION, other );
+        assertSame( other, paletted.getMinoAt( OTHER_POSITION ),
+                "setMinoAt(" + OTHER_POSITION + ", other) did not set the position." );
+        Revertable region = paletted.setRegion( new Rectangle( 0, 0, 10, 1 ), MINO );
+        assertSame( MINO, paletted.getMinoAt( new Coordinate( 5, 0 ) ),
+                "setRegion() did not set the position." );
+        // Check that a line clear moves the indexed rows.
+        LineClear clear = paletted.clearFullRows();
+        assertSame( other, paletted.getMinoAt( new Coordinate( 1, 0 ) ),
+                "clearFullRows() did not move the row down." );
+        clear.revert();
+        region.revert();
+        revertable.revert();
+        assertTrue( paletted.isRegionEmpty( paletted.getBounds() ),
+                "The reverts did not empty the Board." );
+        assertNull( paletted.getMinoAt( OTHER_POSITION ),
+                "setMinoAt().revert() did not revert the position." );
+        // Check that a Mino outside the palette cannot be set.
+        Mino outside = new Mino();
+        assertThrows( IllegalArgumentException.class,
+                () -> paletted.setMinoAt( OTHER_POSITION, outside ),
+                "setMinoAt(" + OTHER_POSITION + ", outside) did not throw an Exception." );
+        assertThrows( IllegalArgumentException.class,
+                () -> paletted.setRegion( paletted.getBounds(), outside ),
+                "setRegion(" + paletted.getBounds() + ", outside) did not throw an Exception." );
+        assertTrue( paletted.isRegionEmpty( paletted.getBounds() ),
+                "A rejected Mino modified the Board." );
+    }
+
+    /**
+     * Tests that a Board with a MinoPalette moves rows the same way as a Board
+     * storing Minos, through line clears, garbage and their reverts.
+     */
+    @Test
+    public void testBoardPaletteMatchesMinos () {
+        Mino other = new Mino();
+        MinoPalette palette = new MinoPalette( List.of( MINO, other ) );
+        Random random = new Random( 5 );
+        for ( int round = 0; round < 50; round++ ) {
+            Board minos = new Board( new Coordinate( 10, 20 ) );
+            Board paletted = new Board( new Coordinate( 10, 20 ), palette );
+            int top = random.nextInt( 21 );
+            for ( int y = 0; y < top; y++ ) {
+                for ( int x = 0; x < 10; x++ ) {
+                    // Fill most cells, so some rows are full.
+                    int roll = random.nextInt( 12 );
+                    if ( roll != 0 ) {
+                        Mino mino = roll % 2 == 0 ? MINO : other;
+                        minos.setMinoAt( new Coordinate( x, y ), mino );
+                        paletted.setMinoAt( new Coordinate( x, y ), mino );
+                    }
+                }
+            }
+            BitSet holes = new BitSet();
+            holes.set( random.nextInt( 10 ) );
+            int count = random.nextInt( 4 );
+            Revertable garbage = paletted.insertGarbage( count, holes, other );
+            Revertable expectedGarbage = minos.insertGarbage( count, holes, other );
+            assertSameMinos( minos, paletted, "insertGarbage()" );
+            LineClear clear = paletted.clearFullRows();
+            LineClear expectedClear = minos.clearFullRows();
+            assertSameMinos( minos, paletted, "clearFullRows()" );
+            clear.revert();
+            expectedClear.revert();
+            assertSameMinos( minos, paletted, "clearFullRows().revert()" );
+            garbage.revert();
+            expectedGarbage.revert();
+            assertSameMinos( minos, paletted, "insertGarbage().revert()" );
+        }
+    }
+
+    /**
+     * Asserts that two Boards have the same Mino at every position.
+     *
+     * @param expected
+     *            The Board with the expected Minos.
+     * @param actual
+     *            The Board to check.
+     * @param method
+     *            The method that last changed the Boards.
+     */
+    private static void assertSameMinos ( Board expected, Board actual, String method ) {
+        for ( Coordinate position : expected.getBounds() ) {
+            assertSame( expected.getMinoAt( position ), actual.getMinoAt( position ),
+                    method + " left the wrong Mino at " + position + "." );
+        }
+        assertEquals( expected.hash(), actual.hash(), method + " left the wrong hash." );
+    }
+
+    /**
+     * Tests that the changed rows follow setMinoAt(), setRegion(),
+     * clearFullRows() and their reverts.
+     */
+    @Test
+    public void testBoardCollectChangedRows () {
+        BitSet rows = new BitSet();
+        long seen = board.collectChangedRows( 0, rows );
+        assertTrue( rows.isEmpty(),
+                "collectChangedRows() found a change on a new Board." );
+        // Check a single position.
+        Revertable revertable = board.setMinoAt( new Coordinate( 3, 4 ), MINO );
+        seen = board.collectChangedRows( seen, rows );
+        assertEquals( BitSet.valueOf( new long[] { 1L << 4 } ), rows,
+                "collectChangedRows() did not find the changed row." );
+        // Check that collecting again finds nothing new.
+        rows.clear();
+        assertEquals( seen, board.collectChangedRows( seen, rows ),
+                "collectChangedRows() changed the generation." );
+        assertTrue( rows.isEmpty(),
+                "collectChangedRows() found a change twice." );
+        // Check that a revert is a change.
+        revertable.revert();
+        seen = board.collectChangedRows( seen, rows );
+        assertTrue( rows.get( 4 ) && rows.cardinality() == 1,
+                "collectChangedRows() did not find the reverted row." );
+        // Check a Region, and a second consumer that has seen nothing yet.
+        rows.clear();
+        board.setRegion( new Rectangle( 0, 0, 10, 2 ), MINO );
+        seen = board.collectChangedRows( seen, rows );
+        assertEquals( 2, rows.cardinality(),
+                "collectChangedRows() did not find the Region's rows." );
+        BitSet other = new BitSet();
+        board.collectChangedRows( 0, other );
+        assertEquals( 3, other.cardinality(),
+                "collectChangedRows(0) did not find every changed row." );
+        // Check that a line clear changes every row above the cleared rows.
+        rows.clear();
+        board.clearFullRows();
+        board.collectChangedRows( seen, rows );
+        assertEquals( 20, rows.cardinality(),
+                "collectChangedRows() did not find the moved rows." );
+        assertEquals( board.getGeneration(), board.getRowGeneration( 19 ),
+                "getRowGeneration() did not follow the line clear." );
+    }
+
+    /**
+     * Tests that hash() follows the occupancy through setMinoAt(),
+     * setRegion(), clearFullRows() and their reverts.
+     */
+    @Test
+    public void testBoardHash () {
+        long empty = board.hash();
+        // Check that a change is reflected, and the revert restores it.
+        Revertable revertable = board.setMinoAt( OTHER_POSITION, MINO );
+        long single = board.hash();
+        assertNotEquals( empty, single,
+                "setMinoAt() did not change the hash." );
+        board.setMinoAt( OTHER_POSITION, new Mino() ).revert();
+        assertEquals( single, board.hash(),
+                "Replacing a Mino changed the hash." );
+        revertable.revert();
+        assertEquals( empty, board.hash(),
+                "setMinoAt().revert() did not restore the hash." );
+        // Check that setRegion() matches setting each position.
+        Rectangle region = new Rectangle( 0, 0, 10, 3 );
+        Revertable regionRevertable = board.setRegion( region, MINO );
+        Board other = new Board( new Coordinate( 10, 20 ) );
+        for ( Coordinate position : region ) {
+            other.setMinoAt( position, MINO );
+        }
+        assertEquals( other.hash(), board.hash(),
+                "setRegion() did not match setMinoAt() at each position." );
+        // Check that a line clear is hashed like the resulting occupancy.
+        board.setMinoAt( new Coordinate( 4, 5 ), MINO );
+        long before = board.hash();
+        LineClear clear = board.clearFullRows();
+        Board cleared = new Board( new Coordinate( 10, 20 ) );
+        cleared.setMinoAt( new Coordinate( 4, 2 ), MINO );
+        assertEquals( cleared.hash(), board.hash(),
+                "clearFullRows() did not rehash the moved rows." );
+        clear.revert();
+        assertEquals( before, board.hash(),
+                "clearFullRows().revert() did not restore the hash." );
+        board.setMinoAt( new Coordinate( 4, 5 ), MINO );
+        regionRevertable.revert();
+        assertNotEquals( empty, board.hash(),
+                "The hash ignored a remaining Mino." );
+    }
+
+    /**
+     * Tests that insertGarbage() moves every row up, and that its revert
+     * restores the Board, including rows pushed off the top.
+     */
+    @Test
+    public void testBoardInsertGarbage () {
+        Mino top = new Mino();
+        board.setMinoAt( new Coordinate( 2, 0 ), MINO );
+        board.setMinoAt( new Coordinate( 5, 19 ), top );
+        long before = board.hash();
+        BitSet holes = new BitSet();
+        holes.set( 3 );
+        Revertable revertable = board.insertGarbage( 2, holes, MINO );
+        for ( int y = 0; y < 2; y++ ) {
+            for ( int x = 0; x < 10; x++ ) {
+                assertEquals( x == 3 ? null : MINO, board.getMinoAt( new Coordinate( x, y ) ),
+                        "insertGarbage() did not fill (" + x + ", " + y + ") correctly." );
+            }
+        }
+        assertEquals( MINO, board.getMinoAt( new Coordinate( 2, 2 ) ),
+                "insertGarbage() did not move the bottom row up." );
+        assertNull( board.getMinoAt( new Coordinate( 5, 19 ) ),
+                "insertGarbage() did not push the top row off the Board." );
+        assertEquals( 3, board.getColumnHeight( 2 ), "insertGarbage() did not raise the column height." );
+        assertEquals( 0, board.getColumnHeight( 3 ), "insertGarbage() filled the hole column." );
+        assertEquals( 2, board.getColumnHeight( 5 ), "insertGarbage() kept the pushed-off Mino's height." );
+        Board other = new Board( new Coordinate( 10, 20 ) );
+        other.setRegion( new Rectangle( 0, 0, 3, 2 ), MINO );
+        other.setRegion( new Rectangle( 4, 0, 10, 2 ), MINO );
+        other.setMinoAt( new Coordinate( 2, 2 ), MINO );
+        assertEquals( other.hash(), board.hash(), "insertGarbage() did not rehash the moved rows." );
+        assertEquals( board.getGeneration(), board.getRowGeneration( 19 ),
+                "insertGarbage() did not mark the moved rows." );
+        revertable.revert();
+        assertEquals( MINO, board.getMinoAt( new Coordinate( 2, 0 ) ),
+                "insertGarbage().revert() did not move the bottom row down." );
+        assertEquals( top, board.getMinoAt( new Coordinate( 5, 19 ) ),
+                "insertGarbage().revert() did not restore the top row." );
+        assertNull( board.getMinoAt( new Coordinate( 0, 0 ) ),
+                "insertGarbage().revert() did not remove the garbage." );
+        assertEquals( 20, board.getColumnHeight( 5 ), "insertGarbage().revert() did not restore the height." );
+        assertEquals( before, board.hash(), "insertGarbage().revert() did not restore the hash." );
+        // Check Exceptions for invalid arguments.
+        assertThrows( IllegalArgumentException.class, () -> board.insertGarbage( 21, holes, MINO ),
+                "insertGarbage(21) did not throw an Exception." );
+        assertThrows( IllegalArgumentException.class, () -> board.insertGarbage( -1, holes, MINO ),
+                "insertGarbage(-1) did not throw an Exception." );
+        holes.set( 10 );
+        assertThrows( IllegalArgumentException.class, () -> board.insertGarbage( 1, holes, MINO ),
+                "insertGarbage() did not throw an Exception for a hole outside the Board." );
+    }
+
 }
@@ -0,0 +1,110 @@
+package electra.ztrix.model.game.board;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rectangle;
+import electra.ztrix.model.game.common.Region;
+import electra.ztrix.model.game.common.SetRegion;
+
+/**
+ * Tests the BoardArena class.
+ *
+ * @author Electra
+ */
+class TestBoardArena {
+    /** The BoardArena used for testing, with only a few slots per chunk. */
+    private BoardArena arena;
+
+    /**
+     * Initializes the BoardArena before each test.
+     */
+    @BeforeEach
+    public void initializeArena () {
+        arena = new BoardArena( new Coordinate( 10, 20 ), TestBoard.MINO, 4096 );
+    }
+
+    /**
+     * Tests that stored positions read back the same as the Boards they were
+     * stored from, across several chunks.
+     */
+    @Test
+    public void testBoardArenaAdd () {
+        Board[] boards = new Board[50];
+        for ( int i = 0; i < boards.length; i++ ) {
+            boards[i] = new Board( new Coordinate( 10, 20 ) );
+            for ( int j = 0; j <= i; j++ ) {
+                Coordinate position = new Coordinate( ( i + j * 3 ) % 10, ( i * 7 + j ) % 20 );
+                boards[i].setMinoAt( position, TestBoard.MINO );
+            }
+            assertEquals( i, arena.add( boards[i] ), "add() did not return the next index." );
+        }
+        assertEquals( boards.length, arena.size(), "size() did not count every position." );
+        BoardArena.View view = arena.view( 0 );
+        for ( int i = 0; i < boards.length; i++ ) {
+            view.moveTo( i );
+            assertEquals( boards[i].hash(), arena.hash( i ), "hash(" + i + ") did not match the Board." );
+            assertEquals( boards[i].hash(), view.hash(), "View.hash() did not match the Board." );
+            for ( Coordinate position : boards[i].getBounds() ) {
+                assertEquals( boards[i].getMinoAt( position ), view.getMinoAt( position ),
+                        "View.getMinoAt(" + position + ") did not match the Board." );
+            }
+            for ( int y = 0; y < 20; y++ ) {
+                assertEquals( boards[i].getRowOccupancy( y, 0 ), view.getRowOccupancy( y, 0 ),
+                        "View.getRowOccupancy(" + y + ", 0) did not match the Board." );
+            }
+        }
+        assertThrows( IndexOutOfBoundsException.class, () -> arena.view( boards.length ),
+                "view() did not throw an Exception past the size." );
+        assertThrows( IndexOutOfBoundsException.class, () -> view.getRowOccupancy( 0, 1 ),
+                "View.getRowOccupancy(0, 1) did not throw an Exception." );
+    }
+
+    /**
+     * Tests that set() overwrites a stored position, including from a
+     * PersistentBoard.
+     */
+    @Test
+    public void testBoardArenaSet () {
+        Board board = new Board( new Coordinate( 10, 20 ) );
+        board.setMinoAt( new Coordinate( 3, 4 ), TestBoard.MINO );
+        arena.add( board );
+        PersistentBoard other = new PersistentBoard( new Coordinate( 10, 20 ) )
+                .withMinoAt( new Coordinate( 5, 6 ), TestBoard.MINO );
+        arena.set( 0, other );
+        BoardArena.View view = arena.view( 0 );
+        assertNull( view.getMinoAt( new Coordinate( 3, 4 ) ), "set() did not clear the old position." );
+        assertEquals( TestBoard.MINO, view.getMinoAt( new Coordinate( 5, 6 ) ),
+                "set() did not store the new position." );
+        assertEquals( other.hash(), view.hash(), "set() did not store the new hash." );
+        assertThrows( IllegalArgumentException.class,
+                () -> arena.set( 0, new Board( new Coordinate( 10, 10 ) ) ),
+                "set() did not throw an Exception for mismatched bounds." );
+    }
+
+    /**
+     * Tests that View.isRegionEmpty() agrees with the Board it was stored
+     * from.
+     */
+    @Test
+    public void testBoardArenaIsRegionEmpty () {
+        Board board = new Board( new Coordinate( 10, 20 ) );
+        board.setMinoAt( new Coordinate( 4, 2 ), TestBoard.MINO );
+        BoardArena.View view = arena.view( arena.add( board ) );
+        Region[] regions = { new Rectangle( 0, 0, 4, 20 ), new Rectangle( 3, 1, 6, 3 ),
+                new Rectangle( 5, 0, 10, 20 ), new Rectangle( -1, 0, 2, 2 ),
+                new SetRegion( List.of( new Coordinate( 0, 0 ), new Coordinate( 4, 2 ) ) ),
+                new SetRegion( List.of( new Coordinate( 0, 0 ), new Coordinate( 9, 19 ) ) ) };
+        for ( Region region : regions ) {
+            assertEquals( board.isRegionEmpty( region ), view.isRegionEmpty( region ),
+                    "View.isRegionEmpty(" + region + ") did not match the Board." );
+        }
+    }
+}
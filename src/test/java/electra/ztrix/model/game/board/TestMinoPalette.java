@@ -0,0 +1,69 @@
+package electra.ztrix.model.game.board;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the MinoPalette class.
+ *
+ * @author Electra
+ */
+class TestMinoPalette {
+
+    /**
+     * Tests that a MinoPalette indexes each distinct Mino once, after the
+     * empty cell.
+     */
+    @Test
+    public void testMinoPaletteIndices () {
+        Mino first = new Mino();
+        Mino second = new Mino();
+        MinoPalette palette = new MinoPalette( List.of( first, second, first ) );
+        assertEquals( 2, palette.size(),
+                "size() counted a duplicate Mino." );
+        assertEquals( 0, palette.indexOf( null ),
+                "indexOf(null) was not the empty cell." );
+        assertNull( palette.getMino( 0 ),
+                "getMino(0) was not the empty cell." );
+        assertSame( first, palette.getMino( palette.indexOf( first ) ),
+                "getMino() did not match indexOf()." );
+        assertSame( second, palette.getMino( palette.indexOf( second ) ),
+                "getMino() did not match indexOf()." );
+        assertTrue( palette.contains( null ),
+                "contains(null) did not return True." );
+        assertFalse( palette.contains( new Mino() ),
+                "contains() returned True for another Mino." );
+        assertEquals( -1, palette.indexOf( new Mino() ),
+                "indexOf() found another Mino." );
+    }
+
+    /**
+     * Tests that a MinoPalette cannot be created with invalid Minos.
+     */
+    @Test
+    public void testMinoPaletteConstructorInvalid () {
+        assertThrows( NullPointerException.class,
+                () -> new MinoPalette( null ),
+                "MinoPalette(null) did not throw an Exception." );
+        assertThrows( NullPointerException.class,
+                () -> new MinoPalette( Arrays.asList( new Mino(), null ) ),
+                "MinoPalette([mino, null]) did not throw an Exception." );
+        List<Mino> tooMany = new ArrayList<>();
+        for ( int i = 0; i <= MinoPalette.MAX_SIZE; i++ ) {
+            tooMany.add( new Mino() );
+        }
+        assertThrows( IllegalArgumentException.class,
+                () -> new MinoPalette( tooMany ),
+                "MinoPalette(tooMany) did not throw an Exception." );
+    }
+}
@@ -0,0 +1,181 @@
+package electra.ztrix.model.game.board;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rectangle;
+import electra.ztrix.model.game.common.Region;
+
+/**
+ * Tests the PersistentBoard class.
+ *
+ * @author Electra
+ */
+class TestPersistentBoard {
+    /** The PersistentBoard used for testing. */
+    private PersistentBoard board;
+
+    /**
+     * Initializes the PersistentBoard before each test.
+     */
+    @BeforeEach
+    public void initializeBoard () {
+        board = new PersistentBoard( new Coordinate( 10, 20 ) );
+    }
+
+    /**
+     * Tests that withMinoAt() leaves the original PersistentBoard unchanged and
+     * shares every other row.
+     */
+    @Test
+    public void testPersistentBoardWithMinoAt () {
+        for ( Coordinate position : TestBoard.VALID_POSITIONS ) {
+            PersistentBoard next = board.withMinoAt( position, TestBoard.MINO );
+            assertEquals( TestBoard.MINO, next.getMinoAt( position ),
+                    "withMinoAt(" + position + ", MINO) did not set the position." );
+            assertNull( board.getMinoAt( position ),
+                    "withMinoAt(" + position + ", MINO) modified the original." );
+            for ( int y = 0; y < 20; y++ ) {
+                assertEquals( y != position.y(), next.sharesRow( board, y ),
+                        "withMinoAt(" + position + ", MINO) did not share exactly the untouched rows." );
+            }
+        }
+        // Check IndexOutOfBoundsExceptions for various invalid positions.
+        for ( Coordinate position : TestBoard.INVALID_POSITIONS ) {
+            assertThrows( IndexOutOfBoundsException.class,
+                    () -> board.withMinoAt( position, TestBoard.MINO ),
+                    "withMinoAt(" + position + ", MINO) did not throw an Exception." );
+        }
+    }
+
+    /**
+     * Tests that withRegion() sets the Region in a new PersistentBoard.
+     */
+    @Test
+    public void testPersistentBoardWithRegion () {
+        for ( Region region : TestBoard.VALID_REGIONS ) {
+            PersistentBoard next = board.withRegion( region, TestBoard.MINO );
+            assertFalse( next.isRegionEmpty( region ),
+                    "withRegion(" + region + ", MINO) did not set the Region." );
+            assertTrue( board.isRegionEmpty( region ),
+                    "withRegion(" + region + ", MINO) modified the original." );
+            for ( Coordinate position : region ) {
+                assertSame( TestBoard.MINO, next.getMinoAt( position ),
+                        "withRegion(" + region + ", MINO) did not set the position " + position + "." );
+            }
+        }
+        for ( Region region : TestBoard.INVALID_REGIONS ) {
+            assertThrows( IndexOutOfBoundsException.class,
+                    () -> board.withRegion( region, TestBoard.MINO ),
+                    "withRegion(" + region + ", MINO) did not throw an Exception." );
+        }
+    }
+
+    /**
+     * Tests that withFullRowsCleared() removes full rows from a new
+     * PersistentBoard.
+     */
+    @Test
+    public void testPersistentBoardWithFullRowsCleared () {
+        PersistentBoard filled = board
+                .withRegion( new Rectangle( 0, 0, 10, 2 ), TestBoard.MINO )
+                .withMinoAt( new Coordinate( 3, 2 ), TestBoard.MINO );
+        PersistentBoard cleared = filled.withFullRowsCleared();
+        assertSame( TestBoard.MINO, cleared.getMinoAt( new Coordinate( 3, 0 ) ),
+                "withFullRowsCleared() did not move a row down." );
+        assertTrue( cleared.isRegionEmpty( new Rectangle( 0, 1, 10, 20 ) ),
+                "withFullRowsCleared() did not empty the rows above." );
+        assertFalse( filled.isRegionEmpty( new Rectangle( 0, 1, 10, 2 ) ),
+                "withFullRowsCleared() modified the original." );
+        assertSame( cleared, cleared.withFullRowsCleared(),
+                "withFullRowsCleared() copied a Board without full rows." );
+    }
+
+    /**
+     * Tests converting between Board and PersistentBoard.
+     */
+    @Test
+    public void testPersistentBoardConversion () {
+        Board mutable = new Board( new Coordinate( 10, 20 ) );
+        mutable.setRegion( new Rectangle( 2, 0, 5, 3 ), TestBoard.MINO );
+        PersistentBoard snapshot = PersistentBoard.of( mutable );
+        // Check that later changes to the Board do not affect the snapshot.
+        mutable.setMinoAt( TestBoard.OTHER_POSITION, TestBoard.MINO );
+        assertNull( snapshot.getMinoAt( TestBoard.OTHER_POSITION ),
+                "of(board) shared a row with the mutable Board." );
+        assertFalse( snapshot.isRegionEmpty( new Rectangle( 2, 0, 5, 3 ) ),
+                "of(board) did not copy the Board's Minos." );
+        // Check converting back, including the column heights.
+        Board restored = snapshot.toBoard();
+        assertEquals( snapshot.getBounds(), restored.getBounds(),
+                "toBoard() had the wrong bounds." );
+        assertSame( TestBoard.MINO, restored.getMinoAt( new Coordinate( 3, 2 ) ),
+                "toBoard() did not copy the Minos." );
+        assertEquals( 3, restored.getColumnHeight( 4 ),
+                "toBoard() did not calculate the column heights." );
+        restored.setMinoAt( new Coordinate( 0, 0 ), TestBoard.MINO );
+        assertNull( snapshot.getMinoAt( new Coordinate( 0, 0 ) ),
+                "toBoard() shared a row with the snapshot." );
+    }
+
+    /**
+     * Tests that converting a palette Board keeps its MinoPalette, and that
+     * Minos outside the palette cannot be set.
+     */
+    @Test
+    public void testPersistentBoardConversionPalette () {
+        MinoPalette palette = new MinoPalette( List.of( TestBoard.MINO ) );
+        Board mutable = new Board( new Coordinate( 10, 20 ), palette );
+        mutable.setRegion( new Rectangle( 2, 0, 5, 3 ), TestBoard.MINO );
+        PersistentBoard snapshot = PersistentBoard.of( mutable );
+        assertSame( palette, snapshot.getPalette(),
+                "of(board) did not keep the Board's palette." );
+        Board restored = snapshot.withMinoAt( TestBoard.OTHER_POSITION, TestBoard.MINO ).toBoard();
+        assertSame( palette, restored.getPalette(),
+                "toBoard() did not store the cells in the palette." );
+        assertSame( TestBoard.MINO, restored.getMinoAt( TestBoard.OTHER_POSITION ),
+                "toBoard() did not copy the Minos into the palette." );
+        assertNull( PersistentBoard.of( new Board( new Coordinate( 10, 20 ) ) ).toBoard().getPalette(),
+                "toBoard() added a palette to a Board without one." );
+        assertThrows( IllegalArgumentException.class,
+                () -> snapshot.withMinoAt( TestBoard.OTHER_POSITION, new Mino() ),
+                "withMinoAt() did not throw an Exception for a Mino outside the palette." );
+        assertThrows( IllegalArgumentException.class,
+                () -> snapshot.withRegion( new Rectangle( 0, 5, 2, 6 ), new Mino() ),
+                "withRegion() did not throw an Exception for a Mino outside the palette." );
+    }
+
+    /**
+     * Tests that hash() matches a Board with the same occupancy.
+     */
+    @Test
+    public void testPersistentBoardHash () {
+        Board mutable = new Board( new Coordinate( 10, 20 ) );
+        assertEquals( mutable.hash(), board.hash(),
+                "hash() did not match an empty Board." );
+        Rectangle region = new Rectangle( 0, 0, 10, 2 );
+        PersistentBoard next = board.withRegion( region, TestBoard.MINO )
+                .withMinoAt( TestBoard.OTHER_POSITION, TestBoard.MINO )
+                .withMinoAt( new Coordinate( 6, 4 ), TestBoard.MINO );
+        mutable.setRegion( region, TestBoard.MINO );
+        mutable.setMinoAt( new Coordinate( 6, 4 ), TestBoard.MINO );
+        assertEquals( mutable.hash(), next.hash(),
+                "hash() did not match a Board with the same occupancy." );
+        mutable.clearFullRows();
+        assertEquals( mutable.hash(), next.withFullRowsCleared().hash(),
+                "hash() did not match after clearing rows." );
+        assertEquals( next.hash(), PersistentBoard.of( next.toBoard() ).hash(),
+                "hash() did not survive conversion." );
+    }
+
+}
@@ -0,0 +1,99 @@
+package electra.ztrix.model.game.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the BitmaskRegion class.
+ *
+ * @author Electra
+ */
+public class TestBitmaskRegion {
+    /** The positions of an L shape, used for testing. */
+    private static final List<Coordinate> SHAPE = List.of(
+            new Coordinate( 0, -1 ),
+            new Coordinate( 0, 0 ),
+            new Coordinate( 0, 1 ),
+            new Coordinate( 1, 1 ) );
+
+    /**
+     * Collects the positions of a Region into a Set.
+     *
+     * @param region
+     *            The Region to collect.
+     * @return The Set of positions.
+     */
+    private static Set<Coordinate> positionsOf ( Region region ) {
+        Set<Coordinate> positions = new HashSet<>();
+        for ( Coordinate position : region ) {
+            positions.add( position );
+        }
+        return positions;
+    }
+
+    /**
+     * Tests that a BitmaskRegion holds exactly its positions, and has the same
+     * bounds as a SetRegion of them.
+     */
+    @Test
+    public void testBitmaskRegionContains () {
+        BitmaskRegion region = new BitmaskRegion( SHAPE );
+        assertEquals( new HashSet<>( SHAPE ), positionsOf( region ),
+                "BitmaskRegion did not iterate its positions." );
+        assertEquals( new SetRegion( SHAPE ).getBounds(), region.getBounds(),
+                "getBounds() did not match SetRegion." );
+        assertEquals( 4, region.size(), "size() was wrong." );
+        for ( int x = -3; x <= 3; x++ ) {
+            for ( int y = -3; y <= 3; y++ ) {
+                Coordinate position = new Coordinate( x, y );
+                assertEquals( SHAPE.contains( position ), region.contains( position ),
+                        "contains(" + position + ") was wrong." );
+                assertEquals( SHAPE.contains( position ), region.containsPacked( position.pack() ),
+                        "containsPacked(" + position + ") was wrong." );
+            }
+        }
+        assertFalse( region.contains( null ), "contains(null) was not false." );
+    }
+
+    /**
+     * Tests that translate() and rotate() match the per-position defaults.
+     */
+    @Test
+    public void testBitmaskRegionTransform () {
+        BitmaskRegion region = new BitmaskRegion( SHAPE );
+        SetRegion expected = new SetRegion( SHAPE );
+        Coordinate offset = new Coordinate( 5, -7 );
+        assertEquals( positionsOf( expected.translate( offset ) ), positionsOf( region.translate( offset ) ),
+                "translate(" + offset + ") was wrong." );
+        Coordinate[] centers = { Coordinate.ORIGIN, new Coordinate( 3, 2 ), new Coordinate( -4, 1 ) };
+        for ( Rotation rotation : Rotation.values() ) {
+            for ( Coordinate center : centers ) {
+                BitmaskRegion rotated = region.rotate( rotation, center );
+                Region expectedRotated = expected.rotate( rotation, center );
+                assertEquals( positionsOf( expectedRotated ), positionsOf( rotated ),
+                        "rotate(" + rotation + ", " + center + ") was wrong." );
+                assertEquals( expectedRotated.getBounds(), rotated.getBounds(),
+                        "rotate(" + rotation + ", " + center + ") had the wrong bounds." );
+            }
+        }
+    }
+
+    /**
+     * Tests that invalid positions cannot be used.
+     */
+    @Test
+    public void testBitmaskRegionInvalid () {
+        assertThrows( NullPointerException.class, () -> new BitmaskRegion( null ),
+                "BitmaskRegion(null) did not throw an Exception." );
+        assertThrows( IllegalArgumentException.class, () -> new BitmaskRegion( List.of() ),
+                "BitmaskRegion() did not throw an Exception for no positions." );
+        assertThrows( IllegalArgumentException.class,
+                () -> new BitmaskRegion( List.of( Coordinate.ORIGIN, new Coordinate( 8, 0 ) ) ),
+                "BitmaskRegion() did not throw an Exception for a shape too wide." );
+    }
+}
@@ -0,0 +1,139 @@
+package electra.ztrix.model.game.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests value equality of Regions, and the CanonicalRegions class.
+ *
+ * @author Electra
+ */
+public class TestCanonicalRegions {
+    /** The positions of an L shape, used for testing. */
+    private static final List<Coordinate> SHAPE = List.of(
+            new Coordinate( 0, -1 ),
+            new Coordinate( 0, 0 ),
+            new Coordinate( 0, 1 ),
+            new Coordinate( 1, 1 ) );
+
+    /**
+     * Tests that Regions of different types with the same positions are
+     * equal, with equal hash codes.
+     */
+    @Test
+    public void testRegionEquality () {
+        Region[] equal = {
+                new SetRegion( SHAPE ),
+                new BitmaskRegion( SHAPE ),
+                new SetRegion( SHAPE ).translate( new Coordinate( 3, 3 ) ).translate( new Coordinate( -3, -3 ) ),
+        };
+        for ( Region a : equal ) {
+            for ( Region b : equal ) {
+                assertEquals( a, b, a + " did not equal " + b + "." );
+                assertEquals( a.hashCode(), b.hashCode(), a + " did not hash like " + b + "." );
+            }
+        }
+        Rectangle rect = new Rectangle( -1, 2, 2, 4 );
+        SetRegion filled = new SetRegion( rect );
+        assertEquals( rect, filled, "A Rectangle did not equal a SetRegion of its positions." );
+        assertEquals( filled, rect, "A SetRegion did not equal the Rectangle of its positions." );
+        assertEquals( rect.hashCode(), filled.hashCode(), "A Rectangle did not hash like its positions." );
+        assertNotEquals( new SetRegion( SHAPE ), new SetRegion( SHAPE.subList( 0, 3 ) ),
+                "Regions with different positions were equal." );
+        assertNotEquals( rect, new SetRegion( List.of( new Coordinate( -1, 2 ), new Coordinate( 1, 3 ) ) ),
+                "A Rectangle equalled a Region with the same bounds." );
+        assertNotEquals( rect, null, "A Rectangle equalled null." );
+    }
+
+    /**
+     * Tests that a Rectangle's closed-form hash matches the hash of its
+     * positions, wherever it is and however wide it is.
+     */
+    @Test
+    public void testRegionHashClosedForm () {
+        Set<Integer> hashes = new HashSet<>();
+        for ( int x = -70; x <= 70; x += 7 ) {
+            for ( int y = -70; y <= 70; y += 7 ) {
+                Rectangle rect = new Rectangle( x, y, x + 1 + Math.abs( x ) % 13, y + 1 + Math.abs( y ) % 5 );
+                assertEquals( new SetRegion( rect ).hashCode(), rect.hashCode(),
+                        rect + " did not hash like its positions." );
+                assertEquals( new SetRegion( rect ).translate( new Coordinate( -x, -y ) ).hashCode(),
+                        new Rectangle( Coordinate.ORIGIN, rect.getMaximum().minus( rect.getMinimum() ) ).hashCode(),
+                        rect + " translated did not hash like the Rectangle it moved to." );
+                hashes.add( rect.hashCode() );
+            }
+        }
+        assertEquals( 21 * 21, hashes.size(), "Different Rectangles shared a hash." );
+        Rectangle wide = new Rectangle( -1_000_000, 0, 1_000_000, 2 );
+        assertEquals( new Rectangle( -999_999, 1, 1_000_001, 3 ).hashCode(),
+                new TranslatedRegion( wide, new Coordinate( 1, 1 ) ).hashCode(),
+                "A wide Rectangle did not hash like its row spans." );
+    }
+
+    /**
+     * Tests that Regions with lazily calculated hash codes give the same hash
+     * when first hashed from several threads at once.
+     *
+     * @throws InterruptedException
+     *             If the test is interrupted while waiting for the threads.
+     */
+    @Test
+    public void testRegionHashConcurrent () throws InterruptedException {
+        Region[] regions = new Region[1000];
+        int[] expected = new int[regions.length];
+        for ( int i = 0; i < regions.length; i++ ) {
+            Coordinate offset = new Coordinate( i, -i );
+            regions[i] = i % 2 == 0
+                    ? new BitmaskRegion( SHAPE ).translate( offset )
+                    : new TranslatedRegion( new SetRegion( SHAPE ), offset );
+            expected[i] = new SetRegion( regions[i] ).hashCode();
+        }
+        AtomicInteger mismatches = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for ( int t = 0; t < threads.length; t++ ) {
+            threads[t] = new Thread( () -> {
+                for ( int i = 0; i < regions.length; i++ ) {
+                    if ( regions[i].hashCode() != expected[i] ) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            } );
+            threads[t].start();
+        }
+        for ( Thread thread : threads ) {
+            thread.join();
+        }
+        assertEquals( 0, mismatches.get(), "A Region hashed differently on another thread." );
+    }
+
+    /**
+     * Tests that equal shapes anywhere intern to the same canonical Region.
+     */
+    @Test
+    public void testCanonicalRegionsIntern () {
+        Region first = CanonicalRegions.intern( new SetRegion( SHAPE ) );
+        Region moved = CanonicalRegions.intern( new BitmaskRegion( SHAPE ).translate( new Coordinate( 7, -4 ) ) );
+        assertSame( first, moved, "intern() did not share a canonical Region." );
+        assertEquals( Coordinate.ORIGIN, first.getBounds().getMinimum(),
+                "intern() did not anchor the shape at the origin." );
+        assertEquals( new BitmaskRegion( SHAPE ).translate( new Coordinate( 0, 1 ) ), first,
+                "intern() changed the shape." );
+        Region rect = CanonicalRegions.intern( new Rectangle( 5, 5, 20, 7 ) );
+        assertTrue( rect instanceof Rectangle, "intern() did not keep a full shape as a Rectangle." );
+        assertSame( rect, CanonicalRegions.intern( new SetRegion( new Rectangle( -3, 0, 12, 2 ) ) ),
+                "intern() did not share a Rectangle with an equal SetRegion." );
+        Region large = CanonicalRegions.intern( new SetRegion( List.of( new Coordinate( 0, 0 ), new Coordinate( 20, 1 ) ) ) );
+        assertTrue( large instanceof SetRegion, "intern() did not keep a large shape as a SetRegion." );
+        assertEquals( new Coordinate( 7, -5 ),
+                CanonicalRegions.offsetOf( new BitmaskRegion( SHAPE ).translate( new Coordinate( 7, -4 ) ) ),
+                "offsetOf() was wrong." );
+        assertThrows( NullPointerException.class, () -> CanonicalRegions.intern( null ),
+                "intern(null) did not throw an Exception." );
+    }
+}
@@ -0,0 +1,105 @@
+package electra.ztrix.model.game.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the PackedCoordinate class.
+ *
+ * @author Electra
+ */
+public class TestPackedCoordinate {
+
+    /**
+     * Tests that packing and unpacking preserves both components.
+     */
+    @Test
+    public void testPackedCoordinatePack () {
+        int[] values = { Integer.MIN_VALUE, -10, -1, 0, 1, 10, Integer.MAX_VALUE };
+        for ( int x : values ) {
+            for ( int y : values ) {
+                Coordinate coord = new Coordinate( x, y );
+                long packed = coord.pack();
+                assertEquals( x, PackedCoordinate.x( packed ),
+                        coord + ".pack() did not preserve X." );
+                assertEquals( y, PackedCoordinate.y( packed ),
+                        coord + ".pack() did not preserve Y." );
+                assertEquals( coord, Coordinate.unpack( packed ),
+                        "unpack(" + coord + ".pack()) was wrong." );
+            }
+        }
+        assertEquals( Coordinate.ORIGIN.pack(), PackedCoordinate.ORIGIN,
+                "ORIGIN was wrong." );
+    }
+
+    /**
+     * Tests that packed Coordinates sort in row-major order.
+     */
+    @Test
+    public void testPackedCoordinateOrder () {
+        for ( int x = -10; x <= 10; x++ ) {
+            for ( int y = -10; y <= 10; y++ ) {
+                long packed = PackedCoordinate.pack( x, y );
+                assertTrue( packed < PackedCoordinate.pack( x + 1, y ),
+                        "pack(" + x + ", " + y + ") did not sort before the next X." );
+                assertTrue( packed < PackedCoordinate.pack( -100, y + 1 ),
+                        "pack(" + x + ", " + y + ") did not sort before the next row." );
+            }
+        }
+    }
+
+    /**
+     * Tests that the packed arithmetic matches Coordinate's.
+     */
+    @Test
+    public void testPackedCoordinateArithmetic () {
+        Coordinate center = new Coordinate( 2, -3 );
+        for ( int x = -10; x <= 10; x++ ) {
+            for ( int y = -10; y <= 10; y++ ) {
+                Coordinate coord = new Coordinate( x, y );
+                Coordinate offset = new Coordinate( y, -x );
+                assertEquals( coord.plus( offset ),
+                        Coordinate.unpack( PackedCoordinate.plus( coord.pack(), offset.pack() ) ),
+                        "plus(" + coord + ", " + offset + ") was wrong." );
+                assertEquals( coord.plus( offset ),
+                        Coordinate.unpack( PackedCoordinate.plus( coord.pack(), y, -x ) ),
+                        "plus(" + coord + ", " + y + ", " + -x + ") was wrong." );
+                assertEquals( coord.minus( offset ),
+                        Coordinate.unpack( PackedCoordinate.minus( coord.pack(), offset.pack() ) ),
+                        "minus(" + coord + ", " + offset + ") was wrong." );
+                assertEquals( coord.negate(),
+                        Coordinate.unpack( PackedCoordinate.negate( coord.pack() ) ),
+                        "negate(" + coord + ") was wrong." );
+                for ( Rotation rotation : Rotation.values() ) {
+                    assertEquals( coord.rotate( rotation, center ),
+                            Coordinate.unpack( PackedCoordinate.rotate( coord.pack(), rotation, center.pack() ) ),
+                            "rotate(" + coord + ", " + rotation + ") was wrong." );
+                }
+            }
+        }
+        assertEquals( "(1, -2)", PackedCoordinate.toString( PackedCoordinate.pack( 1, -2 ) ),
+                "toString() was wrong." );
+    }
+
+    /**
+     * Tests that Rectangle's packed methods match its Coordinate methods.
+     */
+    @Test
+    public void testPackedCoordinateRectangle () {
+        Rectangle rect = new Rectangle( -2, 1, 3, 4 );
+        var packed = rect.packedIterator();
+        for ( Coordinate coord : rect ) {
+            assertTrue( packed.hasNext(), "packedIterator() ended early." );
+            assertEquals( coord.pack(), packed.nextLong(), "packedIterator() was out of order." );
+        }
+        assertFalse( packed.hasNext(), "packedIterator() did not end." );
+        for ( int x = -5; x <= 5; x++ ) {
+            for ( int y = -5; y <= 5; y++ ) {
+                Coordinate coord = new Coordinate( x, y );
+                assertEquals( rect.contains( coord ), rect.containsPacked( coord.pack() ),
+                        "containsPacked(" + coord + ") was wrong." );
+            }
+        }
+    }
+}
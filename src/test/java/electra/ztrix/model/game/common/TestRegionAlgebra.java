@@ -0,0 +1,110 @@
+package electra.ztrix.model.game.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the set operations of Regions, for each pair of Region types.
+ *
+ * @author Electra
+ */
+public class TestRegionAlgebra {
+    /** The Regions used for testing, of each type and in various places. */
+    private static final Region[] REGIONS = {
+            new Rectangle( 0, 0, 4, 3 ),
+            new Rectangle( 2, 1, 6, 5 ),
+            new Rectangle( 10, 10, 12, 12 ),
+            new Rectangle( 1, 0, 3, 2 ),
+            new BitmaskRegion( List.of( new Coordinate( 1, 1 ), new Coordinate( 2, 1 ), new Coordinate( 2, 2 ) ) ),
+            new BitmaskRegion( List.of( new Coordinate( 2, 2 ), new Coordinate( 3, 2 ), new Coordinate( 4, 4 ) ) ),
+            new BitmaskRegion( List.of( new Coordinate( 6, 0 ), new Coordinate( 8, 3 ) ) ),
+            new BitmaskRegion( List.of( new Coordinate( -3, -2 ) ) ),
+            new SetRegion( List.of( new Coordinate( 0, 0 ), new Coordinate( 5, 4 ), new Coordinate( 11, 11 ) ) ),
+            new SetRegion( List.of( new Coordinate( 20, 20 ) ) ),
+    };
+
+    /**
+     * Collects the positions of a Region into a Set.
+     *
+     * @param region
+     *            The Region to collect, or null for no positions.
+     * @return The Set of positions.
+     */
+    private static Set<Coordinate> positionsOf ( Region region ) {
+        Set<Coordinate> positions = new HashSet<>();
+        if ( region != null ) {
+            for ( Coordinate position : region ) {
+                positions.add( position );
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Tests that each operation matches the same operation on Sets.
+     */
+    @Test
+    public void testRegionAlgebra () {
+        for ( Region a : REGIONS ) {
+            for ( Region b : REGIONS ) {
+                Set<Coordinate> setA = positionsOf( a );
+                Set<Coordinate> setB = positionsOf( b );
+                Set<Coordinate> union = new HashSet<>( setA );
+                union.addAll( setB );
+                Set<Coordinate> intersection = new HashSet<>( setA );
+                intersection.retainAll( setB );
+                Set<Coordinate> difference = new HashSet<>( setA );
+                difference.removeAll( setB );
+                String name = a + " and " + b;
+                assertEquals( !intersection.isEmpty(), a.intersects( b ),
+                        "intersects() was wrong for " + name + "." );
+                assertEquals( union, positionsOf( a.union( b ) ),
+                        "union() was wrong for " + name + "." );
+                assertEquals( intersection, positionsOf( a.intersection( b ) ),
+                        "intersection() was wrong for " + name + "." );
+                assertEquals( intersection.isEmpty(), a.intersection( b ) == null,
+                        "intersection() did not return null when empty for " + name + "." );
+                assertEquals( difference, positionsOf( a.difference( b ) ),
+                        "difference() was wrong for " + name + "." );
+                assertEquals( difference.isEmpty(), a.difference( b ) == null,
+                        "difference() did not return null when empty for " + name + "." );
+            }
+        }
+    }
+
+    /**
+     * Tests that the fast paths keep the Region types.
+     */
+    @Test
+    public void testRegionAlgebraTypes () {
+        assertTrue( REGIONS[0].intersection( REGIONS[1] ) instanceof Rectangle,
+                "Rectangle intersection was not a Rectangle." );
+        assertSame( REGIONS[0], REGIONS[0].union( REGIONS[3] ),
+                "Rectangle union did not return the containing Rectangle." );
+        assertTrue( REGIONS[4].union( REGIONS[5] ) instanceof BitmaskRegion,
+                "BitmaskRegion union was not a BitmaskRegion." );
+        assertTrue( REGIONS[4].difference( REGIONS[5] ) instanceof BitmaskRegion,
+                "BitmaskRegion difference was not a BitmaskRegion." );
+    }
+
+    /**
+     * Tests that the operations cannot be called with null.
+     */
+    @Test
+    public void testRegionAlgebraNull () {
+        Region region = REGIONS[0];
+        assertThrows( NullPointerException.class, () -> region.intersects( null ),
+                "intersects(null) did not throw an Exception." );
+        assertThrows( NullPointerException.class, () -> region.union( null ),
+                "union(null) did not throw an Exception." );
+        assertThrows( NullPointerException.class, () -> region.intersection( null ),
+                "intersection(null) did not throw an Exception." );
+        assertThrows( NullPointerException.class, () -> region.difference( null ),
+                "difference(null) did not throw an Exception." );
+    }
+}
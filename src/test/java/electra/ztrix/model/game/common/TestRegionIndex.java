@@ -0,0 +1,189 @@
+package electra.ztrix.model.game.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the RegionIndex class.
+ *
+ * @author Electra
+ */
+public class TestRegionIndex {
+
+    /**
+     * Creates Regions of each type scattered around the origin.
+     *
+     * @param random
+     *            The source of randomness.
+     * @param count
+     *            The number of Regions to create.
+     * @return The List of Regions.
+     */
+    private static List<Region> randomRegions ( Random random, int count ) {
+        List<Region> regions = new ArrayList<>();
+        for ( int i = 0; i < count; i++ ) {
+            int x = random.nextInt( 60 ) - 30;
+            int y = random.nextInt( 60 ) - 30;
+            switch ( i % 3 ) {
+            case 0:
+                regions.add( new Rectangle( x, y, x + 1 + random.nextInt( 20 ), y + 1 + random.nextInt( 5 ) ) );
+                break;
+            case 1:
+                regions.add( new BitmaskRegion( List.of( new Coordinate( x, y ), new Coordinate( x + 2, y + 3 ) ) ) );
+                break;
+            default:
+                regions.add( new SetRegion( List.of( new Coordinate( x, y ), new Coordinate( x - 9, y + 7 ) ) ) );
+                break;
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * Finds the Regions intersecting an area by checking every Region.
+     *
+     * @param regions
+     *            The Regions to check.
+     * @param area
+     *            The area to check against.
+     * @return The Set of intersecting Regions.
+     */
+    private static Set<Region> linearQuery ( List<Region> regions, Region area ) {
+        Set<Region> found = new HashSet<>();
+        for ( Region region : regions ) {
+            if ( region.intersects( area ) ) {
+                found.add( region );
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Tests that queries match a linear scan, as Regions are added and
+     * removed.
+     */
+    @Test
+    public void testRegionIndexQuery () {
+        Random random = new Random( 17 );
+        List<Region> regions = randomRegions( random, 60 );
+        RegionIndex index = new RegionIndex( 4 );
+        for ( Region region : regions ) {
+            assertTrue( index.add( region ), "add() did not add a new Region." );
+        }
+        assertFalse( index.add( regions.get( 0 ) ), "add() added a Region twice." );
+        assertEquals( regions.size(), index.size(), "size() did not count each Region." );
+        List<Region> areas = randomRegions( random, 30 );
+        for ( Region area : areas ) {
+            List<Region> found = index.query( area );
+            assertEquals( linearQuery( regions, area ), new HashSet<>( found ),
+                    "query(" + area + ") did not match a linear scan." );
+            assertEquals( new HashSet<>( found ).size(), found.size(),
+                    "query(" + area + ") reported a Region twice." );
+        }
+        // Remove half of the Regions, and check again.
+        Collections.shuffle( regions, random );
+        List<Region> removed = new ArrayList<>( regions.subList( 0, 30 ) );
+        regions.removeAll( removed );
+        for ( Region region : removed ) {
+            assertTrue( index.remove( region ), "remove() did not remove a Region." );
+            assertFalse( index.contains( region ), "contains() found a removed Region." );
+        }
+        assertFalse( index.remove( removed.get( 0 ) ), "remove() removed a Region twice." );
+        for ( Region area : areas ) {
+            assertEquals( linearQuery( regions, area ), new HashSet<>( index.query( area ) ),
+                    "query(" + area + ") did not match a linear scan after removal." );
+        }
+    }
+
+    /**
+     * Tests that queries over areas with far more cells than the index holds
+     * match a linear scan, without visiting every cell under their bounds.
+     */
+    @Test
+    public void testRegionIndexQueryLargeArea () {
+        Random random = new Random( 5 );
+        List<Region> regions = randomRegions( random, 60 );
+        RegionIndex index = new RegionIndex( 4 );
+        for ( Region region : regions ) {
+            index.add( region );
+        }
+        Region[] areas = {
+                new Rectangle( -1_000_000, -1_000_000, 1_000_000, 1_000_000 ),
+                new Rectangle( -1_000_000, 0, 1_000_000, 3 ),
+                new SetRegion( List.of( new Coordinate( -1_000_000, -1_000_000 ), new Coordinate( 0, 0 ),
+                        new Coordinate( 5, -2 ), new Coordinate( 1_000_000, 1_000_000 ) ) ),
+        };
+        for ( Region area : areas ) {
+            List<Region> found = index.query( area );
+            assertEquals( linearQuery( regions, area ), new HashSet<>( found ),
+                    "query(" + area + ") did not match a linear scan." );
+            assertEquals( new HashSet<>( found ).size(), found.size(),
+                    "query(" + area + ") reported a Region twice." );
+        }
+    }
+
+    /**
+     * Tests that queries match a linear scan through rounds of removing and
+     * re-adding Regions over many small cells, so the table of cells grows
+     * and has cells deleted from the middle of its probe runs.
+     */
+    @Test
+    public void testRegionIndexChurn () {
+        Random random = new Random( 23 );
+        List<Region> regions = randomRegions( random, 90 );
+        List<Region> areas = randomRegions( random, 20 );
+        RegionIndex index = new RegionIndex( 1 );
+        List<Region> held = new ArrayList<>();
+        for ( int round = 0; round < 5; round++ ) {
+            for ( Region region : regions ) {
+                if ( random.nextBoolean() && index.add( region ) ) {
+                    held.add( region );
+                }
+            }
+            Collections.shuffle( held, random );
+            for ( int i = held.size() / 2; i > 0; i-- ) {
+                assertTrue( index.remove( held.remove( held.size() - 1 ) ), "remove() did not remove a Region." );
+            }
+            assertEquals( held.size(), index.size(), "size() did not count each Region." );
+            for ( Region area : areas ) {
+                assertEquals( linearQuery( held, area ), new HashSet<>( index.query( area ) ),
+                        "query(" + area + ") did not match a linear scan in round " + round + "." );
+            }
+        }
+        for ( Region region : held ) {
+            assertTrue( index.remove( region ), "remove() did not remove a Region." );
+        }
+        for ( Region area : areas ) {
+            assertTrue( index.query( area ).isEmpty(), "query(" + area + ") found a Region in an empty index." );
+        }
+    }
+
+    /**
+     * Tests that queryRowSpan() matches a query of the span.
+     */
+    @Test
+    public void testRegionIndexQueryRowSpan () {
+        RegionIndex index = new RegionIndex();
+        Rectangle wide = new Rectangle( -20, 0, 20, 1 );
+        Rectangle tall = new Rectangle( 5, -20, 6, 20 );
+        index.add( wide );
+        index.add( tall );
+        assertEquals( Set.of( wide, tall ), new HashSet<>( index.queryRowSpan( 0, 0, 10 ) ),
+                "queryRowSpan() did not find both Regions." );
+        assertEquals( Set.of( tall ), new HashSet<>( index.queryRowSpan( 3, 0, 10 ) ),
+                "queryRowSpan() did not find only the tall Region." );
+        assertTrue( index.queryRowSpan( 3, 6, 10 ).isEmpty(), "queryRowSpan() found a Region outside the span." );
+        assertThrows( IllegalArgumentException.class, () -> new RegionIndex( 0 ),
+                "RegionIndex(0) did not throw an Exception." );
+        assertThrows( NullPointerException.class, () -> index.query( null ),
+                "query(null) did not throw an Exception." );
+    }
+}
@@ -0,0 +1,115 @@
+package electra.ztrix.model.game.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Spliterators and Streams of Regions.
+ *
+ * @author Electra
+ */
+public class TestRegionSpliterators {
+
+    /**
+     * Collects the positions of a Region in iteration order.
+     *
+     * @param region
+     *            The Region to collect.
+     * @return The List of positions.
+     */
+    private static List<Coordinate> positionsOf ( Region region ) {
+        List<Coordinate> positions = new ArrayList<>();
+        for ( Coordinate position : region ) {
+            positions.add( position );
+        }
+        return positions;
+    }
+
+    /**
+     * Splits a Spliterator repeatedly, and checks that the pieces cover its
+     * positions in order with exact sizes.
+     *
+     * @param region
+     *            The Region to split.
+     */
+    private static void checkSplits ( Region region ) {
+        List<Spliterator<Coordinate>> pieces = new ArrayList<>();
+        pieces.add( region.spliterator() );
+        // Split every piece a few times, keeping the pieces in order.
+        for ( int round = 0; round < 4; round++ ) {
+            List<Spliterator<Coordinate>> split = new ArrayList<>();
+            for ( Spliterator<Coordinate> piece : pieces ) {
+                Spliterator<Coordinate> prefix = piece.trySplit();
+                if ( prefix != null ) {
+                    split.add( prefix );
+                }
+                split.add( piece );
+            }
+            pieces = split;
+        }
+        List<Coordinate> positions = new ArrayList<>();
+        for ( Spliterator<Coordinate> piece : pieces ) {
+            assertTrue( piece.hasCharacteristics( Spliterator.SUBSIZED ), "A piece was not SUBSIZED." );
+            long size = piece.estimateSize();
+            int before = positions.size();
+            piece.forEachRemaining( positions::add );
+            assertEquals( size, positions.size() - before, "A piece's size was wrong for " + region + "." );
+        }
+        assertEquals( positionsOf( region ), positions, "The pieces did not cover " + region + " in order." );
+    }
+
+    /**
+     * Tests that a Rectangle splits into blocks of whole rows.
+     */
+    @Test
+    public void testRectangleSpliterator () {
+        Rectangle rect = new Rectangle( -3, 2, 7, 10 );
+        checkSplits( rect );
+        checkSplits( new Rectangle( 0, 0, 37, 1 ) );
+        Spliterator<Coordinate> rest = rect.spliterator();
+        Spliterator<Coordinate> prefix = rest.trySplit();
+        assertEquals( 40, prefix.estimateSize(), "trySplit() did not split between rows." );
+        assertEquals( 40, rest.estimateSize(), "trySplit() did not leave the other rows." );
+        Spliterator<Coordinate> single = new Rectangle( 0, 0, 1, 1 ).spliterator();
+        assertNull( single.trySplit(), "trySplit() split a single position." );
+    }
+
+    /**
+     * Tests that a SetRegion splits its sorted positions.
+     */
+    @Test
+    public void testSetRegionSpliterator () {
+        List<Coordinate> positions = new ArrayList<>();
+        for ( int i = 0; i < 100; i++ ) {
+            positions.add( new Coordinate( ( i * 37 ) % 23 - 11, ( i * 11 ) % 17 - 8 ) );
+        }
+        checkSplits( new SetRegion( positions ) );
+    }
+
+    /**
+     * Tests that parallel Streams see the same positions as sequential ones.
+     */
+    @Test
+    public void testRegionParallelStream () {
+        Region[] regions = {
+                new Rectangle( 0, 0, 300, 200 ),
+                new SetRegion( new Rectangle( -50, -50, 50, 50 ) ),
+                new BitmaskRegion( List.of( new Coordinate( 0, 0 ), new Coordinate( 2, 1 ) ) ),
+        };
+        for ( Region region : regions ) {
+            assertEquals( region.size(), region.parallelStream().count(), "parallelStream() lost positions." );
+            assertEquals( region.stream().collect( Collectors.toList() ),
+                    region.parallelStream().collect( Collectors.toList() ),
+                    "parallelStream() changed the order of " + region + "." );
+            long sum = region.stream().mapToLong( position -> position.x() * 31L + position.y() ).sum();
+            assertEquals( sum, region.parallelStream().mapToLong( position -> position.x() * 31L + position.y() ).sum(),
+                    "parallelStream() did not visit every position of " + region + "." );
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package electra.ztrix.model.game.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests forEachPosition() and forEachRowSpan() for each Region type.
+ *
+ * @author Electra
+ */
+public class TestRegionVisitors {
+    /** The positions of a shape with gaps, used for testing. */
+    private static final List<Coordinate> SHAPE = List.of(
+            new Coordinate( 0, 0 ),
+            new Coordinate( 1, 0 ),
+            new Coordinate( 3, 0 ),
+            new Coordinate( 2, 1 ),
+            new Coordinate( 0, 2 ),
+            new Coordinate( 1, 2 ),
+            new Coordinate( 2, 2 ) );
+
+    /** The Regions used for testing, of each type. */
+    private static final Region[] REGIONS = {
+            new Rectangle( -2, 1, 3, 4 ),
+            new BitmaskRegion( SHAPE ),
+            new SetRegion( SHAPE ),
+            new BitmaskRegion( SHAPE ).union( new Rectangle( 0, 0, 1, 1 ) ),
+    };
+
+    /**
+     * Collects the positions of a Region into a Set by iterating.
+     *
+     * @param region
+     *            The Region to collect.
+     * @return The Set of positions.
+     */
+    private static Set<Coordinate> positionsOf ( Region region ) {
+        Set<Coordinate> positions = new HashSet<>();
+        for ( Coordinate position : region ) {
+            positions.add( position );
+        }
+        return positions;
+    }
+
+    /**
+     * Tests that forEachPosition() visits each position exactly once.
+     */
+    @Test
+    public void testRegionForEachPosition () {
+        for ( Region region : REGIONS ) {
+            List<Coordinate> visited = new ArrayList<>();
+            assertTrue( region.forEachPosition( ( x, y ) -> visited.add( new Coordinate( x, y ) ) ),
+                    "forEachPosition() stopped early for " + region + "." );
+            assertEquals( positionsOf( region ), new HashSet<>( visited ),
+                    "forEachPosition() did not visit the positions of " + region + "." );
+            assertEquals( visited.size(), new HashSet<>( visited ).size(),
+                    "forEachPosition() visited a position twice for " + region + "." );
+            // Check that returning false stops the visit.
+            int[] count = { 0 };
+            assertFalse( region.forEachPosition( ( x, y ) -> ++count[0] < 2 ),
+                    "forEachPosition() did not report stopping for " + region + "." );
+            assertEquals( 2, count[0], "forEachPosition() did not stop for " + region + "." );
+        }
+    }
+
+    /**
+     * Tests that forEachRowSpan() covers each position exactly once.
+     */
+    @Test
+    public void testRegionForEachRowSpan () {
+        for ( Region region : REGIONS ) {
+            List<Coordinate> visited = new ArrayList<>();
+            assertTrue( region.forEachRowSpan( ( y, start, end ) -> {
+                assertTrue( start < end, "forEachRowSpan() visited an empty span." );
+                for ( int x = start; x < end; x++ ) {
+                    visited.add( new Coordinate( x, y ) );
+                }
+                return true;
+            } ), "forEachRowSpan() stopped early for " + region + "." );
+            assertEquals( positionsOf( region ), new HashSet<>( visited ),
+                    "forEachRowSpan() did not cover the positions of " + region + "." );
+            assertEquals( visited.size(), new HashSet<>( visited ).size(),
+                    "forEachRowSpan() covered a position twice for " + region + "." );
+        }
+        // Check that sorted Regions merge each run into one span.
+        for ( Region region : new Region[] { REGIONS[1], REGIONS[2] } ) {
+            int[] spans = { 0 };
+            region.forEachRowSpan( ( y, start, end ) -> ++spans[0] > 0 );
+            assertEquals( 4, spans[0], "forEachRowSpan() did not merge the runs of " + region + "." );
+        }
+    }
+
+    /**
+     * Tests that the visitors cannot be null.
+     */
+    @Test
+    public void testRegionVisitorsNull () {
+        for ( Region region : REGIONS ) {
+            assertThrows( NullPointerException.class, () -> region.forEachPosition( null ),
+                    "forEachPosition(null) did not throw an Exception." );
+            assertThrows( NullPointerException.class, () -> region.forEachRowSpan( null ),
+                    "forEachRowSpan(null) did not throw an Exception." );
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package electra.ztrix.model.game.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the SetRegion class.
+ *
+ * @author Electra
+ */
+public class TestSetRegion {
+
+    /**
+     * Creates a List of scattered positions, with some repeated.
+     *
+     * @return The List of positions.
+     */
+    private static List<Coordinate> scatteredPositions () {
+        List<Coordinate> positions = new ArrayList<>();
+        for ( int i = 0; i < 200; i++ ) {
+            positions.add( new Coordinate( ( i * 37 ) % 23 - 11, ( i * 11 ) % 17 - 8 ) );
+        }
+        return positions;
+    }
+
+    /**
+     * Tests that contains() is true for exactly the positions of the Region.
+     */
+    @Test
+    public void testSetRegionContains () {
+        List<Coordinate> positions = scatteredPositions();
+        Set<Coordinate> expected = new HashSet<>( positions );
+        SetRegion region = new SetRegion( positions );
+        assertEquals( expected.size(), region.size(), "size() did not drop repeated positions." );
+        for ( int x = -15; x <= 15; x++ ) {
+            for ( int y = -15; y <= 15; y++ ) {
+                Coordinate position = new Coordinate( x, y );
+                assertEquals( expected.contains( position ), region.contains( position ),
+                        "contains(" + position + ") was wrong." );
+                assertEquals( expected.contains( position ), region.containsPacked( position.pack() ),
+                        "containsPacked(" + position + ") was wrong." );
+            }
+        }
+        assertFalse( region.contains( null ), "contains(null) was not false." );
+    }
+
+    /**
+     * Tests that iteration visits each position once, in row-major order.
+     */
+    @Test
+    public void testSetRegionIterator () {
+        List<Coordinate> positions = scatteredPositions();
+        SetRegion region = new SetRegion( positions );
+        Set<Coordinate> seen = new HashSet<>();
+        Coordinate last = null;
+        for ( Coordinate position : region ) {
+            if ( last != null ) {
+                assertTrue( last.y() < position.y() || last.y() == position.y() && last.x() < position.x(),
+                        "iterator() visited " + position + " after " + last + "." );
+            }
+            seen.add( position );
+            last = position;
+        }
+        assertEquals( new HashSet<>( positions ), seen, "iterator() did not visit every position." );
+    }
+
+    /**
+     * Tests that the bounds have an exclusive maximum, like a Rectangle.
+     */
+    @Test
+    public void testSetRegionBounds () {
+        SetRegion region = new SetRegion( List.of( new Coordinate( 2, -1 ), new Coordinate( -3, 4 ) ) );
+        assertEquals( new Rectangle( -3, -1, 3, 5 ), region.getBounds(),
+                "getBounds() did not have an exclusive maximum." );
+        SetRegion single = new SetRegion( List.of( new Coordinate( 5, 5 ) ) );
+        assertEquals( new Rectangle( 5, 5, 6, 6 ), single.getBounds(),
+                "getBounds() was wrong for a single position." );
+        assertTrue( new Rectangle( 0, 0, 6, 6 ).containsRegion( single ),
+                "containsRegion() rejected a SetRegion on its edge." );
+        assertThrows( IllegalArgumentException.class, () -> new SetRegion( List.of() ),
+                "SetRegion() did not throw an Exception for no positions." );
+    }
+}
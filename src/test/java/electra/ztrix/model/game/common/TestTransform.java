@@ -0,0 +1,121 @@
+package electra.ztrix.model.game.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Transform class.
+ *
+ * @author Electra
+ */
+public class TestTransform {
+    /** The positions of the Region used for testing. */
+    private static final List<Coordinate> SHAPE = List.of(
+            new Coordinate( 0, 0 ),
+            new Coordinate( 1, 0 ),
+            new Coordinate( 3, 0 ),
+            new Coordinate( 1, 2 ) );
+
+    /** A center that is not the origin, used for testing. */
+    private static final Coordinate CENTER = new Coordinate( 2, -3 );
+
+    /**
+     * Collects the positions of a Region into a Set.
+     *
+     * @param region
+     *            The Region to collect.
+     * @return The Set of positions.
+     */
+    private static Set<Coordinate> positionsOf ( Region region ) {
+        Set<Coordinate> positions = new HashSet<>();
+        for ( Coordinate position : region ) {
+            positions.add( position );
+        }
+        return positions;
+    }
+
+    /**
+     * Tests that a rotation Transform matches Coordinate.rotate(), and that a
+     * translation Transform matches Coordinate.plus().
+     */
+    @Test
+    public void testTransformApply () {
+        Coordinate offset = new Coordinate( -5, 7 );
+        for ( Rotation rotation : Rotation.values() ) {
+            Transform transform = Transform.rotation( rotation, CENTER );
+            for ( Coordinate position : SHAPE ) {
+                assertEquals( position.rotate( rotation, CENTER ), transform.apply( position ),
+                        transform + " did not rotate " + position + "." );
+                assertEquals( position.rotate( rotation, CENTER ).pack(), transform.applyPacked( position.pack() ),
+                        transform + " did not rotate packed " + position + "." );
+            }
+        }
+        for ( Coordinate position : SHAPE ) {
+            assertEquals( position.plus( offset ), Transform.translation( offset ).apply( position ),
+                    "translation() did not translate " + position + "." );
+        }
+        assertThrows( NullPointerException.class, () -> new Transform( null, Coordinate.ORIGIN ),
+                "Transform(null, offset) did not throw an Exception." );
+        assertThrows( NullPointerException.class, () -> Transform.IDENTITY.apply( (Coordinate) null ),
+                "apply(null) did not throw an Exception." );
+    }
+
+    /**
+     * Tests that composed Transforms apply both in order, and that the
+     * inverse undoes a Transform.
+     */
+    @Test
+    public void testTransformCompose () {
+        for ( Rotation first : Rotation.values() ) {
+            for ( Rotation second : Rotation.values() ) {
+                Transform a = new Transform( first, new Coordinate( 3, -1 ) );
+                Transform b = Transform.rotation( second, CENTER );
+                Transform composed = a.then( b );
+                for ( Coordinate position : SHAPE ) {
+                    assertEquals( b.apply( a.apply( position ) ), composed.apply( position ),
+                            a + ".then(" + b + ") was wrong for " + position + "." );
+                    assertEquals( position, a.inverse().apply( a.apply( position ) ),
+                            a + ".inverse() did not undo it for " + position + "." );
+                }
+                assertEquals( Transform.IDENTITY, a.then( a.inverse() ), a + " and its inverse were not identity." );
+            }
+        }
+        for ( Rotation rotation : Rotation.values() ) {
+            assertEquals( Rotation.R0, rotation.plus( rotation.negate() ), rotation + ".negate() was wrong." );
+        }
+    }
+
+    /**
+     * Tests that transforming a Region matches rotating then translating
+     * each of its positions, for each kind of Region.
+     */
+    @Test
+    public void testRegionTransform () {
+        Coordinate offset = new Coordinate( -4, 9 );
+        Region[] regions = {
+                new SetRegion( SHAPE ),
+                new BitmaskRegion( SHAPE ),
+                new SetRegion( SHAPE ).translate( new Coordinate( 1, 1 ) ),
+                new Rectangle( -1, 2, 3, 4 ),
+        };
+        for ( Region region : regions ) {
+            for ( Rotation rotation : Rotation.values() ) {
+                Transform transform = Transform.rotation( rotation, CENTER ).then( Transform.translation( offset ) );
+                Set<Coordinate> expected = new HashSet<>();
+                for ( Coordinate position : region ) {
+                    expected.add( position.rotate( rotation, CENTER ).plus( offset ) );
+                }
+                Region transformed = region.transform( transform );
+                assertEquals( expected, positionsOf( transformed ),
+                        "transform(" + transform + ") was wrong for " + region + "." );
+                assertEquals( new SetRegion( expected ).getBounds(), transformed.getBounds(),
+                        "transform(" + transform + ") had the wrong bounds for " + region + "." );
+            }
+        }
+    }
+}
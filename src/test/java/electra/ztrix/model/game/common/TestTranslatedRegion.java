@@ -0,0 +1,93 @@
+package electra.ztrix.model.game.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the TranslatedRegion class.
+ *
+ * @author Electra
+ */
+public class TestTranslatedRegion {
+    /** The positions of the base Region used for testing. */
+    private static final List<Coordinate> SHAPE = List.of(
+            new Coordinate( 0, 0 ),
+            new Coordinate( 1, 0 ),
+            new Coordinate( 3, 0 ),
+            new Coordinate( 1, 2 ) );
+
+    /** The offset used for testing. */
+    private static final Coordinate OFFSET = new Coordinate( 4, -2 );
+
+    /**
+     * Collects the positions of a Region into a Set.
+     *
+     * @param region
+     *            The Region to collect.
+     * @return The Set of positions.
+     */
+    private static Set<Coordinate> positionsOf ( Region region ) {
+        Set<Coordinate> positions = new HashSet<>();
+        for ( Coordinate position : region ) {
+            positions.add( position );
+        }
+        return positions;
+    }
+
+    /**
+     * Tests that translating a SetRegion gives a view with the moved
+     * positions and bounds.
+     */
+    @Test
+    public void testTranslatedRegionView () {
+        SetRegion base = new SetRegion( SHAPE );
+        Region region = base.translate( OFFSET );
+        assertTrue( region instanceof TranslatedRegion, "translate() did not return a view." );
+        Set<Coordinate> expected = new HashSet<>();
+        for ( Coordinate position : SHAPE ) {
+            expected.add( position.plus( OFFSET ) );
+        }
+        assertEquals( expected, positionsOf( region ), "The view did not move each position." );
+        assertEquals( base.getBounds().translate( OFFSET ), region.getBounds(),
+                "The view did not move the bounds." );
+        for ( int x = -2; x <= 10; x++ ) {
+            for ( int y = -5; y <= 5; y++ ) {
+                Coordinate position = new Coordinate( x, y );
+                assertEquals( expected.contains( position ), region.contains( position ),
+                        "contains(" + position + ") was wrong." );
+                assertEquals( expected.contains( position ), region.containsPacked( position.pack() ),
+                        "containsPacked(" + position + ") was wrong." );
+            }
+        }
+        List<Coordinate> visited = new ArrayList<>();
+        region.forEachRowSpan( ( y, start, end ) -> {
+            for ( int x = start; x < end; x++ ) {
+                visited.add( new Coordinate( x, y ) );
+            }
+            return true;
+        } );
+        assertEquals( expected, new HashSet<>( visited ), "forEachRowSpan() did not move each span." );
+        assertEquals( expected, positionsOf( ( (TranslatedRegion) region ).materialize() ),
+                "materialize() did not copy each position." );
+    }
+
+    /**
+     * Tests that translating a view again collapses into one view.
+     */
+    @Test
+    public void testTranslatedRegionCollapse () {
+        SetRegion base = new SetRegion( SHAPE );
+        TranslatedRegion once = (TranslatedRegion) base.translate( OFFSET );
+        TranslatedRegion twice = once.translate( OFFSET );
+        assertSame( base, twice.getBase(), "translate() viewed a view." );
+        assertEquals( OFFSET.plus( OFFSET ), twice.getOffset(), "translate() did not add the offsets." );
+        assertThrows( NullPointerException.class, () -> once.translate( null ),
+                "translate(null) did not throw an Exception." );
+    }
+}
@@ -0,0 +1,301 @@
+package electra.ztrix.model.game.piece;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import electra.ztrix.model.game.action.Revertable;
+import electra.ztrix.model.game.action.UndoStack;
+import electra.ztrix.model.game.board.Board;
+import electra.ztrix.model.game.board.Mino;
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rectangle;
+import electra.ztrix.model.game.common.Region;
+import electra.ztrix.model.game.common.Rotation;
+
+/**
+ * Tests the ActivePiece class.
+ *
+ * @author Electra
+ */
+class TestActivePiece {
+    /** The Board used for testing. */
+    private Board               board;
+
+    /** The Mino used for testing. */
+    public static Mino          MINO   = new Mino();
+
+    /** An Array of every standard PieceType. */
+    public static PieceType[]   PIECES = {
+            PieceType.J_PIECE,
+            PieceType.L_PIECE,
+            PieceType.S_PIECE,
+            PieceType.T_PIECE,
+            PieceType.Z_PIECE,
+            PieceType.I_PIECE,
+            PieceType.O_PIECE,
+    };
+
+    /**
+     * Initializes the Board before each test, with a jagged stack that has an
+     * overhang in it.
+     */
+    @BeforeEach
+    public void initializeBoard () {
+        board = new Board( new Coordinate( 10, 20 ) );
+        Random random = new Random( 1 );
+        for ( int x = 0; x < 10; x++ ) {
+            int height = random.nextInt( 6 );
+            if ( height > 0 ) {
+                board.setRegion( new Rectangle( x, 0, x + 1, height ), MINO );
+            }
+        }
+        board.setRegion( new Rectangle( 2, 9, 6, 10 ), MINO );
+    }
+
+    /**
+     * Tests that hardDrop() lands in the same place as stepping down one row at
+     * a time, from various positions and Rotations, including beneath the
+     * overhang.
+     */
+    @Test
+    public void testActivePieceHardDrop () {
+        for ( PieceType type : PIECES ) {
+            for ( Rotation rotation : Rotation.values() ) {
+                for ( int x = -1; x <= 10; x++ ) {
+                    for ( int y : new int[] { 7, 17 } ) {
+                        Coordinate start = new Coordinate( x, y );
+                        ActivePiece stepped = type.createActivePiece( board, start, rotation );
+                        if ( !stepped.isNotColliding() ) {
+                            continue;
+                        }
+                        while ( stepped.move( new Coordinate( 0, -1 ) ) != null ) {
+                            // Keep stepping down til it hits the floor.
+                        }
+                        Coordinate expected = stepped.getPosition();
+                        // Drop a new ActivePiece and compare its position.
+                        ActivePiece dropped = type.createActivePiece( board, start, rotation );
+                        Revertable drop = dropped.hardDrop();
+                        assertEquals( expected, dropped.getPosition(),
+                                "hardDrop() from " + start + " " + rotation + " did not match stepping down." );
+                        // Check that the method is Revertable.
+                        drop.revert();
+                        assertEquals( start, dropped.getPosition(),
+                                "hardDrop().revert() did not revert the position." );
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that hardDrop() places the ActivePiece's Minos on the Board.
+     */
+    @Test
+    public void testActivePieceHardDropPlaces () {
+        Board empty = new Board( new Coordinate( 10, 20 ) );
+        ActivePiece piece = PieceType.I_PIECE.createActivePiece( empty, new Coordinate( 4, 17 ), Rotation.R0 );
+        Revertable drop = piece.hardDrop();
+        for ( Coordinate position : piece.getRegion() ) {
+            assertEquals( PieceType.I_PIECE.getMino(), empty.getMinoAt( position ),
+                    "hardDrop() did not place a Mino at " + position + "." );
+        }
+        assertEquals( 0, piece.getRegion().getBounds().getMinimum().y(),
+                "hardDrop() did not land on the floor." );
+        drop.revert();
+        assertTrue( empty.isRegionEmpty( empty.getBounds() ),
+                "hardDrop().revert() did not remove the Minos." );
+    }
+
+    /**
+     * Tests that collision with the ShapeMasks matches collision with the
+     * packed shapes, on a Board wider than one occupancy word.
+     */
+    @Test
+    public void testActivePieceShapeMask () {
+        Board wide = new Board( new Coordinate( 130, 6 ) );
+        Random random = new Random( 2 );
+        for ( int i = 0; i < 150; i++ ) {
+            int x = random.nextInt( 130 );
+            int y = random.nextInt( 6 );
+            wide.setRegion( new Rectangle( x, y, x + 1, y + 1 ), MINO );
+        }
+        for ( PieceType type : PIECES ) {
+            for ( Rotation rotation : Rotation.values() ) {
+                assertTrue( type.getShapeMask( rotation ) != null,
+                        "getShapeMask() was null for a standard PieceType." );
+                for ( int x = -2; x <= 131; x++ ) {
+                    for ( int y = -2; y <= 7; y++ ) {
+                        ActivePiece piece = type.createActivePiece( wide, new Coordinate( x, y ), rotation );
+                        boolean expected = wide.isPackedRegionEmpty( type.getPackedShape( rotation ),
+                                piece.getPackedPosition() );
+                        assertEquals( expected, piece.isNotColliding(),
+                                "isNotColliding() was wrong at " + piece.getPosition() + " " + rotation + "." );
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that the compiled KickTables hold the kicks of each KickSystem.
+     */
+    @Test
+    public void testPieceTypeKickTable () {
+        for ( PieceType type : PIECES ) {
+            KickTable table = type.getKickTable();
+            for ( Rotation oldRotation : Rotation.values() ) {
+                for ( Rotation newRotation : Rotation.values() ) {
+                    List<Coordinate> compiled = new ArrayList<>();
+                    int[] kicks = table.getKicks();
+                    for ( int i = table.getStart( oldRotation, newRotation ); i < table.getEnd( oldRotation,
+                            newRotation ); i += 2 ) {
+                        compiled.add( new Coordinate( kicks[i], kicks[i + 1] ) );
+                    }
+                    List<Coordinate> expected = new ArrayList<>();
+                    type.getKicks( oldRotation, newRotation ).forEach( expected::add );
+                    assertEquals( expected, compiled,
+                            "The KickTable was wrong from " + oldRotation + " to " + newRotation + "." );
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that rotate() tries the kicks of a custom KickSystem in order, and
+     * fails without kicks.
+     */
+    @Test
+    public void testActivePieceRotateKickSystem () {
+        Board walled = new Board( new Coordinate( 10, 20 ) );
+        walled.setRegion( new Rectangle( 0, 0, 10, 3 ), MINO );
+        walled.setRegion( new Rectangle( 1, 4, 2, 5 ), MINO );
+        Map<Rotation, Coordinate> center = Map.of(
+                Rotation.R0, Coordinate.ORIGIN,
+                Rotation.CW, Coordinate.ORIGIN,
+                Rotation.R180, Coordinate.ORIGIN,
+                Rotation.CCW, Coordinate.ORIGIN );
+        Region shape = PieceType.T_PIECE.getShape( Rotation.R0 );
+        PieceType stuck = new PieceType( MINO, shape, center, KickSystem.NONE );
+        KickSystem upward = ( oldRotation, newRotation ) -> List.of( new Coordinate( -5, 0 ), new Coordinate( 0, 2 ),
+                new Coordinate( 0, 3 ) );
+        PieceType kicked = new PieceType( MINO, shape, center, upward );
+        // The T piece rotated CW hits the Mino on its left, so only a kick frees it.
+        Coordinate start = new Coordinate( 2, 4 );
+        ActivePiece piece = stuck.createActivePiece( walled, start, Rotation.R0 );
+        assertTrue( piece.isNotColliding(), "The ActivePiece started colliding." );
+        assertNull( piece.rotate( Rotation.CW ), "rotate() succeeded without kicks." );
+        assertEquals( Rotation.R0, piece.getRotation(), "A failed rotate() changed the Rotation." );
+        assertEquals( start, piece.getPosition(), "A failed rotate() changed the position." );
+        piece = kicked.createActivePiece( walled, start, Rotation.R0 );
+        Revertable rotate = piece.rotate( Rotation.CW );
+        assertTrue( rotate != null, "rotate() did not use the kicks." );
+        assertEquals( new Coordinate( 2, 6 ), piece.getPosition(), "rotate() did not use the first kick that fit." );
+        rotate.revert();
+        assertEquals( start, piece.getPosition(), "rotate().revert() did not revert the position." );
+        assertEquals( Rotation.R0, piece.getRotation(), "rotate().revert() did not revert the Rotation." );
+    }
+
+    /**
+     * Tests that hash() identifies the ActivePiece's state and its Board.
+     */
+    @Test
+    public void testActivePieceHash () {
+        ActivePiece piece = PieceType.T_PIECE.createActivePiece( board, new Coordinate( 4, 17 ), Rotation.R0 );
+        ActivePiece other = PieceType.S_PIECE.createActivePiece( board, new Coordinate( 4, 17 ), Rotation.R0 );
+        long start = piece.hash();
+        assertNotEquals( start, other.hash(),
+                "hash() did not depend on the PieceType." );
+        Revertable move = piece.move( new Coordinate( 1, 0 ) );
+        assertNotEquals( start, piece.hash(),
+                "hash() did not depend on the position." );
+        move.revert();
+        Revertable rotate = piece.rotate( Rotation.CW );
+        assertNotEquals( start, piece.hash(),
+                "hash() did not depend on the Rotation." );
+        rotate.revert();
+        assertEquals( start, piece.hash(),
+                "hash() did not return after reverting." );
+        Revertable drop = other.hardDrop();
+        assertNotEquals( start, piece.hash(),
+                "hash() did not depend on the Board." );
+        drop.revert();
+        assertEquals( start, piece.hash(),
+                "hash() did not return after reverting the Board." );
+    }
+
+    /**
+     * Tests that the UndoStack movement API makes the same moves as the
+     * Revertable API, and that undoing every record, including a placement,
+     * restores the ActivePiece and its Board.
+     */
+    @Test
+    public void testActivePieceUndoStack () {
+        Random random = new Random( 2 );
+        UndoStack undo = new UndoStack( 0 );
+        long boardHash = board.hash();
+        for ( PieceType type : PIECES ) {
+            Coordinate start = new Coordinate( 4, 17 );
+            ActivePiece piece = type.createActivePiece( board, start, Rotation.R0 );
+            ActivePiece twin = type.createActivePiece( board, start, Rotation.R0 );
+            for ( int i = 0; i < 40; i++ ) {
+                int size = undo.size();
+                boolean moved;
+                boolean twinMoved;
+                if ( random.nextBoolean() ) {
+                    int dx = random.nextInt( 3 ) - 1;
+                    int dy = -random.nextInt( 2 );
+                    moved = piece.move( dx, dy, undo );
+                    twinMoved = twin.move( new Coordinate( dx, dy ) ) != null;
+                } else {
+                    Rotation direction = Rotation.values()[random.nextInt( 4 )];
+                    moved = piece.rotate( direction, undo );
+                    twinMoved = twin.rotate( direction ) != null;
+                }
+                assertEquals( twinMoved, moved, "A move succeeded in only one API." );
+                assertEquals( moved ? size + 2 : size, undo.size(), "A move pushed the wrong number of records." );
+                assertEquals( twin.getPosition(), piece.getPosition(), "A move changed the position differently." );
+                assertEquals( twin.getRotation(), piece.getRotation(), "A move changed the Rotation differently." );
+            }
+            Revertable place = twin.place();
+            Region placed = twin.getRegion();
+            Coordinate landed = twin.getPosition();
+            long placedHash = board.hash();
+            place.revert();
+            assertTrue( piece.place( undo ), "place() failed on a piece that was not colliding." );
+            assertEquals( landed, piece.getPosition(), "place() landed somewhere else." );
+            assertEquals( placedHash, board.hash(), "place() changed the Board differently." );
+            assertFalse( board.isRegionEmpty( placed ), "place() did not fill the landed cells." );
+            while ( !undo.isEmpty() ) {
+                piece.undo( undo );
+            }
+            assertEquals( start, piece.getPosition(), "undo() did not restore the position." );
+            assertEquals( Rotation.R0, piece.getRotation(), "undo() did not restore the Rotation." );
+            assertEquals( boardHash, board.hash(), "undo() did not restore the Board." );
+        }
+        // A colliding piece is not placed, and pushes nothing.
+        ActivePiece buried = PieceType.O_PIECE.createActivePiece( board, new Coordinate( 4, 9 ), Rotation.R0 );
+        assertFalse( buried.place( undo ), "place() placed a colliding piece." );
+        assertTrue( undo.isEmpty(), "A failed place() pushed a record." );
+        // The Revertable API still places a colliding piece, and restores
+        // the Minos it overwrote.
+        Revertable place = buried.place();
+        assertEquals( PieceType.O_PIECE.getMino(), board.getMinoAt( new Coordinate( 4, 9 ) ),
+                "place() did not place a colliding piece." );
+        place.revert();
+        assertEquals( MINO, board.getMinoAt( new Coordinate( 4, 9 ) ),
+                "place().revert() did not restore the overwritten Minos." );
+        assertEquals( boardHash, board.hash(), "place().revert() did not restore the Board." );
+    }
+
+}
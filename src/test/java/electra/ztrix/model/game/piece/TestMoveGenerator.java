@@ -0,0 +1,202 @@
+package electra.ztrix.model.game.piece;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import electra.ztrix.model.game.action.Revertable;
+import electra.ztrix.model.game.board.Board;
+import electra.ztrix.model.game.board.Mino;
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rectangle;
+import electra.ztrix.model.game.common.Region;
+import electra.ztrix.model.game.common.Rotation;
+
+/**
+ * Tests the MoveGenerator class.
+ *
+ * @author Electra
+ */
+class TestMoveGenerator {
+    /** The Mino used for testing. */
+    private static final Mino MINO = new Mino();
+
+    /**
+     * Finds the footprints of every placement by searching with ActivePiece's
+     * own move() and rotate(), one state at a time.
+     *
+     * @param board
+     *            The Board to search.
+     * @param type
+     *            The PieceType to place.
+     * @param spawn
+     *            The position the piece starts at.
+     * @return The footprints of the placements.
+     */
+    private static Set<Region> searchFootprints ( Board board, PieceType type, Coordinate spawn ) {
+        Set<Placement> seen = new HashSet<>();
+        Queue<Placement> queue = new ArrayDeque<>();
+        Set<Region> footprints = new HashSet<>();
+        Placement start = new Placement( type, spawn, Rotation.R0 );
+        seen.add( start );
+        queue.add( start );
+        Coordinate[] moves = { new Coordinate( -1, 0 ), new Coordinate( 1, 0 ), new Coordinate( 0, -1 ) };
+        while ( !queue.isEmpty() ) {
+            Placement state = queue.remove();
+            ActivePiece piece = state.createActivePiece( board );
+            Revertable down = piece.move( new Coordinate( 0, -1 ) );
+            if ( down == null ) {
+                footprints.add( state.getRegion() );
+            } else {
+                down.revert();
+            }
+            for ( Coordinate move : moves ) {
+                Revertable revertable = piece.move( move );
+                if ( revertable != null ) {
+                    Placement next = new Placement( type, piece.getPosition(), piece.getRotation() );
+                    if ( seen.add( next ) ) {
+                        queue.add( next );
+                    }
+                    revertable.revert();
+                }
+            }
+            for ( Rotation direction : new Rotation[] { Rotation.CW, Rotation.CCW } ) {
+                Revertable revertable = piece.rotate( direction );
+                if ( revertable != null ) {
+                    Placement next = new Placement( type, piece.getPosition(), piece.getRotation() );
+                    if ( seen.add( next ) ) {
+                        queue.add( next );
+                    }
+                    revertable.revert();
+                }
+            }
+        }
+        return footprints;
+    }
+
+    /**
+     * Tests the number of placements of each piece on an empty Board, where
+     * states with the same footprint count once.
+     */
+    @Test
+    public void testMoveGeneratorEmptyBoard () {
+        Board board = new Board( new Coordinate( 10, 20 ) );
+        MoveGenerator generator = new MoveGenerator();
+        Coordinate spawn = new Coordinate( 4, 17 );
+        assertEquals( 9, generator.generate( board, PieceType.O_PIECE, spawn, Rotation.R0 ).size(),
+                "The O piece did not have one placement per column pair." );
+        assertEquals( 34, generator.generate( board, PieceType.T_PIECE, spawn, Rotation.R0 ).size(),
+                "The T piece had the wrong number of placements." );
+        assertEquals( 17, generator.generate( board, PieceType.I_PIECE, spawn, Rotation.R0 ).size(),
+                "The I piece had the wrong number of placements." );
+        for ( Placement placement : generator.generate( board, PieceType.T_PIECE, spawn, Rotation.R0 ) ) {
+            assertEquals( 0, placement.getRegion().getBounds().getMinimum().y(),
+                    placement + " did not rest on the floor." );
+        }
+    }
+
+    /**
+     * Tests that the placements match a search through ActivePiece, on random
+     * stacks with overhangs that need tucks and kicks to get under.
+     */
+    @Test
+    public void testMoveGeneratorMatchesActivePiece () {
+        Random random = new Random( 3 );
+        MoveGenerator generator = new MoveGenerator();
+        PieceType[] types = {
+                PieceType.J_PIECE, PieceType.L_PIECE, PieceType.S_PIECE, PieceType.T_PIECE,
+                PieceType.Z_PIECE, PieceType.I_PIECE, PieceType.O_PIECE,
+        };
+        for ( int round = 0; round < 8; round++ ) {
+            Board board = new Board( new Coordinate( 10, 20 ) );
+            for ( int x = 0; x < 10; x++ ) {
+                int height = random.nextInt( 8 );
+                if ( height > 0 ) {
+                    board.setRegion( new Rectangle( x, 0, x + 1, height ), MINO );
+                }
+            }
+            int start = random.nextInt( 6 );
+            board.setRegion( new Rectangle( start, 9, start + 4, 10 ), MINO );
+            for ( PieceType type : types ) {
+                Coordinate spawn = new Coordinate( 4, 17 );
+                List<Placement> placements = generator.generate( board, type, spawn, Rotation.R0 );
+                Set<Region> footprints = new HashSet<>();
+                for ( Placement placement : placements ) {
+                    ActivePiece piece = placement.createActivePiece( board );
+                    assertTrue( piece.isNotColliding(), placement + " collided." );
+                    assertTrue( piece.move( new Coordinate( 0, -1 ) ) == null, placement + " could still fall." );
+                    assertTrue( footprints.add( placement.getRegion() ), placement + " repeated a footprint." );
+                }
+                assertEquals( searchFootprints( board, type, spawn ), footprints,
+                        "The placements of " + type + " did not match ActivePiece." );
+            }
+        }
+    }
+
+    /**
+     * Tests that the placements on a Board too wide to search a row at a time
+     * match a search through ActivePiece.
+     */
+    @Test
+    public void testMoveGeneratorWideBoard () {
+        Board board = new Board( new Coordinate( 70, 12 ) );
+        board.setRegion( new Rectangle( 0, 0, 30, 3 ), MINO );
+        board.setRegion( new Rectangle( 40, 5, 60, 6 ), MINO );
+        MoveGenerator generator = new MoveGenerator();
+        Coordinate spawn = new Coordinate( 34, 9 );
+        for ( PieceType type : new PieceType[] { PieceType.T_PIECE, PieceType.I_PIECE } ) {
+            Set<Region> footprints = new HashSet<>();
+            for ( Placement placement : generator.generate( board, type, spawn, Rotation.R0 ) ) {
+                assertTrue( footprints.add( placement.getRegion() ), placement + " repeated a footprint." );
+            }
+            assertEquals( searchFootprints( board, type, spawn ), footprints,
+                    "The placements of " + type + " on a wide Board did not match ActivePiece." );
+        }
+    }
+
+    /**
+     * Tests that searching into a reused PlacementBuffer finds the same
+     * placements as generate(), and is cleared by each search.
+     */
+    @Test
+    public void testMoveGeneratorPlacementBuffer () {
+        Board board = new Board( new Coordinate( 10, 20 ) );
+        MoveGenerator generator = new MoveGenerator();
+        PlacementBuffer buffer = new PlacementBuffer();
+        Coordinate spawn = new Coordinate( 4, 17 );
+        for ( PieceType type : new PieceType[] { PieceType.I_PIECE, PieceType.T_PIECE, PieceType.O_PIECE } ) {
+            List<Placement> expected = generator.generate( board, type, spawn, Rotation.R0 );
+            assertEquals( expected.size(), generator.generate( board, type, spawn, Rotation.R0, buffer ),
+                    "generate() into a buffer found the wrong number of placements of " + type + "." );
+            assertEquals( expected.size(), buffer.size(), "generate() did not clear the buffer." );
+            for ( int i = 0; i < buffer.size(); i++ ) {
+                assertEquals( expected.get( i ), buffer.get( i, type ),
+                        "generate() into a buffer found the wrong placement of " + type + "." );
+            }
+        }
+        board.setRegion( new Rectangle( 0, 0, 10, 20 ), MINO );
+        assertEquals( 0, generator.generate( board, PieceType.T_PIECE, spawn, Rotation.R0, buffer ),
+                "generate() into a buffer found placements from a colliding spawn." );
+        assertEquals( 0, buffer.size(), "generate() did not clear the buffer for a colliding spawn." );
+    }
+
+    /**
+     * Tests that a colliding spawn has no placements.
+     */
+    @Test
+    public void testMoveGeneratorBlockedSpawn () {
+        Board board = new Board( new Coordinate( 10, 20 ) );
+        board.setRegion( new Rectangle( 0, 0, 10, 20 ), MINO );
+        assertFalse( new MoveGenerator().generate( board, PieceType.T_PIECE, new Coordinate( 4, 17 ), Rotation.R0 )
+                .iterator().hasNext(), "generate() found placements from a colliding spawn." );
+    }
+}
@@ -0,0 +1,141 @@
+package electra.ztrix.model.game.piece;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import electra.ztrix.model.game.common.Coordinate;
+import electra.ztrix.model.game.common.Rotation;
+
+/**
+ * Tests the PieceSet class.
+ *
+ * @author Electra
+ */
+class TestPieceSet {
+
+    /**
+     * Collects an Iterable of Coordinates into a List.
+     *
+     * @param positions
+     *            The Coordinates to collect.
+     * @return The List of Coordinates.
+     */
+    private static List<Coordinate> listOf ( Iterable<Coordinate> positions ) {
+        List<Coordinate> list = new ArrayList<>();
+        positions.forEach( list::add );
+        return list;
+    }
+
+    /**
+     * Tests that the bundled standard piece set matches the standard
+     * PieceTypes in shape and kicks.
+     *
+     * @throws IOException
+     *             If the piece set cannot be read.
+     */
+    @Test
+    public void testPieceSetStandard () throws IOException {
+        PieceSet set;
+        try ( Reader reader = new InputStreamReader( PieceSet.class.getResourceAsStream( "standard.pieces" ),
+                StandardCharsets.UTF_8 ) ) {
+            set = PieceSet.load( reader );
+        }
+        Map<String, PieceType> expected = Map.of(
+                "J", PieceType.J_PIECE,
+                "L", PieceType.L_PIECE,
+                "S", PieceType.S_PIECE,
+                "T", PieceType.T_PIECE,
+                "Z", PieceType.Z_PIECE,
+                "I", PieceType.I_PIECE,
+                "O", PieceType.O_PIECE );
+        assertEquals( List.of( "J", "L", "S", "T", "Z", "I", "O" ), new ArrayList<>( set.getPieceTypes().keySet() ),
+                "getPieceTypes() did not keep the order of the set." );
+        for ( Map.Entry<String, PieceType> entry : expected.entrySet() ) {
+            PieceType loaded = set.get( entry.getKey() );
+            for ( Rotation oldRotation : Rotation.values() ) {
+                assertEquals( entry.getValue().getShape( oldRotation ), loaded.getShape( oldRotation ),
+                        "The shape of " + entry.getKey() + " " + oldRotation + " was wrong." );
+                for ( Rotation newRotation : Rotation.values() ) {
+                    assertEquals( listOf( entry.getValue().getKicks( oldRotation, newRotation ) ),
+                            listOf( loaded.getKicks( oldRotation, newRotation ) ),
+                            "The kicks of " + entry.getKey() + " were wrong." );
+                }
+            }
+        }
+        assertEquals( 7, set.getPalette().size(), "getPalette() did not hold each piece's Mino." );
+        assertNull( set.get( "X" ), "get() found an undefined piece." );
+    }
+
+    /**
+     * Tests that large pieces without kicks can be defined.
+     */
+    @Test
+    public void testPieceSetLargePieces () {
+        PieceSet set = PieceSet.parse( ""
+                + "offsets C 0,0 0,0 0,0 0,0\n"
+                + "piece P C none 0,0 1,0 0,1 1,1 0,2  # A pentomino.\n"
+                + "piece Long C none 0,0 12,0\n" );
+        assertEquals( 2, set.size(), "size() was wrong." );
+        assertEquals( 5, set.get( "P" ).getShape( Rotation.R0 ).size(), "The pentomino had the wrong size." );
+        assertTrue( set.get( "Long" ).getShape( Rotation.CW ).contains( new Coordinate( 0, -12 ) ),
+                "The long piece did not rotate." );
+        assertTrue( !set.get( "Long" ).getKicks( Rotation.R0, Rotation.CW ).iterator().hasNext(),
+                "A piece without kicks had kicks." );
+    }
+
+    /**
+     * Tests that invalid piece sets throw Exceptions.
+     */
+    @Test
+    public void testPieceSetInvalid () {
+        assertThrows( IllegalArgumentException.class, () -> PieceSet.parse( "piece T X none 0,0" ),
+                "parse() did not throw an Exception for undefined offsets." );
+        assertThrows( IllegalArgumentException.class,
+                () -> PieceSet.parse( "offsets C 0,0 0,0 0,0 0,0\npiece T C X 0,0" ),
+                "parse() did not throw an Exception for undefined kicks." );
+        assertThrows( IllegalArgumentException.class, () -> PieceSet.parse( "offsets C 0,0 0,0 0,0 0;0" ),
+                "parse() did not throw an Exception for an invalid position." );
+        assertThrows( IllegalArgumentException.class, () -> PieceSet.parse( "shape T 0,0" ),
+                "parse() did not throw an Exception for an unknown definition." );
+        assertThrows( NullPointerException.class, () -> PieceSet.parse( null ),
+                "parse(null) did not throw an Exception." );
+    }
+
+    /**
+     * Tests that names cannot be redefined, except by consecutive kicks.
+     */
+    @Test
+    public void testPieceSetRedefinition () {
+        IllegalArgumentException offsets = assertThrows( IllegalArgumentException.class,
+                () -> PieceSet.parse( "offsets C 0,0 0,0 0,0 0,0\noffsets C 0,0 1,0 0,0 0,0" ),
+                "parse() did not throw an Exception for redefined offsets." );
+        assertEquals( "Line 2 of the piece set redefines C.", offsets.getMessage(),
+                "parse() did not report the redefining line." );
+        IllegalArgumentException kicks = assertThrows( IllegalArgumentException.class,
+                () -> PieceSet.parse( "kick K 0,0 0,0 0,0 0,0\noffsets C 0,0 0,0 0,0 0,0\nkick K 0,0 1,0 0,0 0,0" ),
+                "parse() did not throw an Exception for redefined kicks." );
+        assertEquals( "Line 3 of the piece set redefines K.", kicks.getMessage(),
+                "parse() did not report the redefining line." );
+        assertThrows( IllegalArgumentException.class,
+                () -> PieceSet.parse( "offsets C 0,0 0,0 0,0 0,0\npiece T C none 0,0\npiece T C none 0,0" ),
+                "parse() did not throw an Exception for a redefined piece." );
+        // Consecutive kicks, even with blank lines and comments between them,
+        // build one table.
+        PieceSet set = PieceSet.parse( "offsets C 0,0 0,0 0,0 0,0\nkick K 0,0 0,0 0,0 0,0\n\n# Second.\n"
+                + "kick K 0,0 1,0 0,0 0,0\npiece T C K 0,0" );
+        assertNotNull( set.get( "T" ), "parse() did not load the piece after consecutive kicks." );
+    }
+}